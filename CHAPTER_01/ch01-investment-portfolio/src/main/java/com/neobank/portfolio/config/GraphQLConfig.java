@@ -0,0 +1,49 @@
+package com.neobank.portfolio.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuración adicional del motor GraphQL.
+ * 
+ * 🎓 SECCIÓN 1.5: TIPADO, NULLABILIDAD Y SEGURIDAD
+ * 
+ * La validación del schema protege la FORMA de la query, pero no su TAMAÑO.
+ * Esta clase registra el análisis de costo que limita cuánto trabajo puede
+ * pedir una sola operación.
+ * 
+ * @see QueryCostInstrumentation
+ */
+@Configuration
+public class GraphQLConfig {
+    
+    /**
+     * Registra el análisis de costo de operaciones en el GraphQlSource.
+     * 
+     * 🎓 ¿POR QUÉ UN CUSTOMIZER?
+     * GraphQlSourceBuilderCustomizer da acceso al builder del GraphQlSource
+     * que Spring Boot construye. Así la instrumentation se añade una sola vez,
+     * con su configuración, sin exponerla como bean.
+     * 
+     * ⚙️ PRESUPUESTO (application.yml):
+     * - portfolio.query-cost.max-cost: costo máximo por operación
+     * - portfolio.query-cost.max-depth: profundidad máxima de anidación
+     * - portfolio.query-cost.default-list-size: tamaño asumido de listas sin @listSize
+     * 
+     * @return Customizer que añade QueryCostInstrumentation
+     */
+    @Bean
+    public GraphQlSourceBuilderCustomizer queryCostCustomizer(
+            QueryCostMetrics queryCostMetrics,
+            @Value("${portfolio.query-cost.max-cost:1000}") int maxCost,
+            @Value("${portfolio.query-cost.max-depth:10}") int maxDepth,
+            @Value("${portfolio.query-cost.default-list-size:10}") int defaultListSize) {
+        QueryCostInstrumentation instrumentation =
+                new QueryCostInstrumentation(maxCost, maxDepth, defaultListSize, queryCostMetrics);
+        return builder -> builder.instrumentation(List.of(instrumentation));
+    }
+}
@@ -0,0 +1,225 @@
+package com.neobank.portfolio.config;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLTypeUtil;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Análisis de costo estático: rechaza operaciones demasiado caras ANTES de ejecutarlas.
+ * 
+ * 🎯 PROBLEMA:
+ * Las listas anidadas multiplican el trabajo de cada nivel:
+ * ```graphql
+ * myPortfolios { assets { ... } performance { bestPerformer { ... } } }
+ * ```
+ * Cada portfolio resuelve todos sus activos y su rendimiento. Una sola query maliciosa
+ * (o descuidada) puede ocupar un core durante segundos y degradar la
+ * latencia de todos los demás clientes.
+ * 
+ * 🔑 CÓMO SE CALCULA EL COSTO (recorrido post-order del documento):
+ * ```
+ * costo(campo) = peso(campo) + multiplicador(campo) × Σ costo(hijos)
+ * ```
+ * - peso: @cost(weight: N) en el schema; si no hay directiva, 1 para
+ *   objetos/listas y 0 para escalares/enums
+ * - multiplicador: @listSize(slicingArgument: "limit") usa el argumento de la
+ *   query; @listSize(assumedSize: N) fija el tamaño; una lista sin directiva
+ *   usa defaultListSize; un campo singular multiplica por 1
+ * - Los campos de introspección (__schema, __type, __typename) cuestan 0
+ * 
+ * 📊 RESULTADO:
+ * - costo > maxCost o profundidad > maxDepth → AbortExecutionException
+ *   (la operación no llega a ningún resolver)
+ * - Si no, se ejecuta y la respuesta incluye extensions.cost
+ * - Cada evaluación se registra en QueryCostMetrics
+ * 
+ * ⚠️ No es un @Component: se registra una sola vez desde el
+ * GraphQlSourceBuilderCustomizer de GraphQLConfig (si fuera un bean,
+ * Spring Boot la añadiría también automáticamente).
+ * 
+ * @see GraphQLConfig#queryCostCustomizer
+ * @see schema.graphqls (directivas @cost y @listSize)
+ */
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+    
+    /** Clave en GraphQLContext donde se guarda el costo calculado. */
+    private static final String COST_CONTEXT_KEY = QueryCostInstrumentation.class.getName() + ".cost";
+    
+    private final int maxCost;
+    private final int maxDepth;
+    private final int defaultListSize;
+    private final QueryCostMetrics metrics;
+    
+    public QueryCostInstrumentation(int maxCost, int maxDepth, int defaultListSize, QueryCostMetrics metrics) {
+        this.maxCost = maxCost;
+        this.maxDepth = maxDepth;
+        this.defaultListSize = defaultListSize;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Calcula el costo antes de ejecutar la operación y la rechaza si
+     * supera el presupuesto.
+     */
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+        OperationCost cost = calculate(context);
+        
+        boolean rejected = cost.cost() > maxCost || cost.depth() > maxDepth;
+        metrics.record(cost.cost(), cost.depth(), rejected);
+        
+        if (cost.cost() > maxCost) {
+            throw new AbortExecutionException(
+                    "Operation cost " + cost.cost() + " exceeds the maximum allowed cost of " + maxCost);
+        }
+        if (cost.depth() > maxDepth) {
+            throw new AbortExecutionException(
+                    "Operation depth " + cost.depth() + " exceeds the maximum allowed depth of " + maxDepth);
+        }
+        
+        context.getGraphQLContext().put(COST_CONTEXT_KEY, cost);
+        return super.beginExecuteOperation(parameters, state);
+    }
+    
+    /**
+     * Añade el costo calculado a la respuesta:
+     * ```json
+     * "extensions": { "cost": { "requestedCost": 57, "maxCost": 1000, "depth": 5, "maxDepth": 12 } }
+     * ```
+     */
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(
+            ExecutionResult executionResult, InstrumentationExecutionParameters parameters, InstrumentationState state) {
+        GraphQLContext graphQLContext = parameters.getGraphQLContext();
+        OperationCost cost = graphQLContext == null ? null : graphQLContext.get(COST_CONTEXT_KEY);
+        if (cost == null) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+        
+        Map<String, Object> extension = new LinkedHashMap<>();
+        extension.put("requestedCost", cost.cost());
+        extension.put("maxCost", maxCost);
+        extension.put("depth", cost.depth());
+        extension.put("maxDepth", maxDepth);
+        return CompletableFuture.completedFuture(
+                executionResult.transform(builder -> builder.addExtension("cost", extension)));
+    }
+    
+    /**
+     * Recorre el documento en post-order: cuando se visita un campo, el
+     * costo de todos sus hijos ya está acumulado bajo su entorno.
+     */
+    OperationCost calculate(ExecutionContext context) {
+        Map<QueryVisitorFieldEnvironment, Long> childCost = new HashMap<>();
+        int[] maxSeenDepth = {0};
+        
+        QueryTraverser.newQueryTraverser()
+                .schema(context.getGraphQLSchema())
+                .document(context.getDocument())
+                .operationName(context.getOperationDefinition().getName())
+                .coercedVariables(context.getCoercedVariables())
+                .build()
+                .visitPostOrder(new QueryVisitorStub() {
+                    @Override
+                    public void visitField(QueryVisitorFieldEnvironment env) {
+                        GraphQLFieldDefinition field = env.getFieldDefinition();
+                        long children = childCost.getOrDefault(env, 0L);
+                        long cost;
+                        if (field.getName().startsWith("__")) {
+                            cost = 0;
+                        } else {
+                            cost = weightOf(field) + multiplierOf(field, env.getArguments()) * children;
+                            maxSeenDepth[0] = Math.max(maxSeenDepth[0], depthOf(env));
+                        }
+                        childCost.merge(env.getParentEnvironment(), cost, QueryCostInstrumentation::saturatedAdd);
+                    }
+                });
+        
+        long total = childCost.getOrDefault(null, 0L);
+        return new OperationCost((int) Math.min(total, Integer.MAX_VALUE), maxSeenDepth[0]);
+    }
+    
+    private static int weightOf(GraphQLFieldDefinition field) {
+        Integer weight = directiveArgument(field, "cost", "weight");
+        if (weight != null) {
+            return weight;
+        }
+        return GraphQLTypeUtil.isLeaf(field.getType()) ? 0 : 1;
+    }
+    
+    private long multiplierOf(GraphQLFieldDefinition field, Map<String, Object> arguments) {
+        String slicingArgument = directiveArgument(field, "listSize", "slicingArgument");
+        if (slicingArgument != null) {
+            Object value = argumentAt(arguments, slicingArgument);
+            if (value instanceof Number size) {
+                return Math.max(size.longValue(), 0);
+            }
+        }
+        Integer assumedSize = directiveArgument(field, "listSize", "assumedSize");
+        if (assumedSize != null) {
+            return assumedSize;
+        }
+        return GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(field.getType())) ? defaultListSize : 1;
+    }
+    
+    private static int depthOf(QueryVisitorFieldEnvironment env) {
+        int depth = 0;
+        for (QueryVisitorFieldEnvironment e = env; e != null; e = e.getParentEnvironment()) {
+            depth++;
+        }
+        return depth;
+    }
+    
+    /**
+     * Lee un argumento por ruta ("limit" o "pagination.limit").
+     */
+    @SuppressWarnings("unchecked")
+    private static Object argumentAt(Map<String, Object> arguments, String path) {
+        Object current = arguments;
+        for (String part : path.split("\\.")) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            current = ((Map<String, Object>) current).get(part);
+        }
+        return current;
+    }
+    
+    private static <T> T directiveArgument(GraphQLFieldDefinition field, String directive, String argument) {
+        GraphQLAppliedDirective applied = field.getAppliedDirective(directive);
+        if (applied == null || applied.getArgument(argument) == null) {
+            return null;
+        }
+        return applied.getArgument(argument).getValue();
+    }
+    
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+    
+    /**
+     * Costo y profundidad calculados para una operación.
+     */
+    record OperationCost(int cost, int depth) {
+    }
+}
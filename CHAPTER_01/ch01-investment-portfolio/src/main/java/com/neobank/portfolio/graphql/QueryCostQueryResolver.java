@@ -0,0 +1,42 @@
+package com.neobank.portfolio.graphql;
+
+import com.neobank.portfolio.config.QueryCostMetrics;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * GraphQL Query Resolver para las métricas de costo de operaciones.
+ * 
+ * 💡 EJEMPLO:
+ * ```graphql
+ * query {
+ *   queryCostStats {
+ *     evaluatedOperations
+ *     rejectedOperations
+ *     averageCost
+ *     maxCost
+ *   }
+ * }
+ * ```
+ * 
+ * @see com.neobank.portfolio.config.QueryCostInstrumentation
+ */
+@Controller
+public class QueryCostQueryResolver {
+    
+    private final QueryCostMetrics queryCostMetrics;
+    
+    public QueryCostQueryResolver(QueryCostMetrics queryCostMetrics) {
+        this.queryCostMetrics = queryCostMetrics;
+    }
+    
+    /**
+     * Query: queryCostStats
+     * 
+     * @return Métricas acumuladas del análisis de costo
+     */
+    @QueryMapping
+    public QueryCostMetrics.QueryCostStats queryCostStats() {
+        return queryCostMetrics.snapshot();
+    }
+}
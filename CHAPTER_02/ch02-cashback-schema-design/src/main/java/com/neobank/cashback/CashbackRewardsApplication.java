@@ -2,6 +2,7 @@ package com.neobank.cashback;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * CAPÍTULO 2: DISEÑO DE SCHEMAS GRAPHQL
@@ -44,6 +45,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @version 2.0.0
  */
 @SpringBootApplication
+@EnableScheduling  // RewardMaturationScheduler
 public class CashbackRewardsApplication {
     
     public static void main(String[] args) {
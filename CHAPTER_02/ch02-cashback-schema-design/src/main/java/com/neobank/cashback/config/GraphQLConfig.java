@@ -2,11 +2,14 @@ package com.neobank.cashback.config;
 
 import graphql.scalars.ExtendedScalars;
 import graphql.schema.GraphQLScalarType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
 import graphql.schema.Coercing;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Configuración de GraphQL con Custom Scalars.
@@ -111,6 +114,32 @@ public class GraphQLConfig {
                 .scalar(createEmailScalar());
     }
     
+    /**
+     * Registra el análisis de costo de operaciones en el GraphQlSource.
+     * 
+     * 🎓 ¿POR QUÉ UN CUSTOMIZER?
+     * GraphQlSourceBuilderCustomizer da acceso al builder del GraphQlSource
+     * que Spring Boot construye. Así la instrumentation se añade una sola vez,
+     * con su configuración, sin exponerla como bean.
+     * 
+     * ⚙️ PRESUPUESTO (application.properties):
+     * - cashback.query-cost.max-cost: costo máximo por operación
+     * - cashback.query-cost.max-depth: profundidad máxima de anidación
+     * - cashback.query-cost.default-list-size: tamaño asumido de listas sin @listSize
+     * 
+     * @see QueryCostInstrumentation
+     */
+    @Bean
+    public GraphQlSourceBuilderCustomizer queryCostCustomizer(
+            QueryCostMetrics queryCostMetrics,
+            @Value("${cashback.query-cost.max-cost:1000}") int maxCost,
+            @Value("${cashback.query-cost.max-depth:12}") int maxDepth,
+            @Value("${cashback.query-cost.default-list-size:10}") int defaultListSize) {
+        QueryCostInstrumentation instrumentation =
+                new QueryCostInstrumentation(maxCost, maxDepth, defaultListSize, queryCostMetrics);
+        return builder -> builder.instrumentation(List.of(instrumentation));
+    }
+    
     /**
      * Crea el scalar Money para valores monetarios.
      * 
@@ -0,0 +1,46 @@
+package com.neobank.cashback.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Ruta de entrega incremental (@defer) sobre el endpoint /graphql existente.
+ * 
+ * 🎓 ¿CÓMO CONVIVE CON SPRING GRAPHQL?
+ * Spring Boot registra su propia RouterFunction para POST /graphql (JSON).
+ * Esta RouterFunction tiene mayor precedencia pero solo acepta peticiones
+ * con `Accept: multipart/mixed`; el resto sigue llegando al handler estándar.
+ * 
+ * 💡 PRUEBA CON CURL:
+ * ```bash
+ * curl -N -X POST http://localhost:8080/graphql \
+ *   -H "Content-Type: application/json" \
+ *   -H "Accept: multipart/mixed" \
+ *   -d '{"query":"{ transactions(userId: \"user-001\") { id amount ... @defer { cashbackAmount } } }"}'
+ * ```
+ * 
+ * @see MultipartGraphQlHandler
+ */
+@Configuration
+public class IncrementalDeliveryConfig {
+    
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RouterFunction<ServerResponse> incrementalDeliveryRouterFunction(
+            ExecutionGraphQlService graphQlService,
+            ObjectMapper objectMapper,
+            @Value("${spring.graphql.path:/graphql}") String path) {
+        MultipartGraphQlHandler handler = new MultipartGraphQlHandler(graphQlService, objectMapper);
+        return RouterFunctions.route()
+                .POST(path, MultipartGraphQlHandler::acceptsMultipart, handler::handle)
+                .build();
+    }
+}
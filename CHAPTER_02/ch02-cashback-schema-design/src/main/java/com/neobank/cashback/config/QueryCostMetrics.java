@@ -0,0 +1,94 @@
+package com.neobank.cashback.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del análisis de costo de operaciones GraphQL.
+ * 
+ * 📊 Registra cada operación evaluada por QueryCostInstrumentation:
+ * - Cuántas se evaluaron y cuántas se rechazaron por presupuesto
+ * - Costo promedio y máximo observado
+ * - Profundidad máxima observada
+ * 
+ * 💡 Se consulta con la query `queryCostStats` (ver QueryCostQueryResolver).
+ * Sirve para ajustar maxCost/maxDepth con datos reales de uso.
+ */
+@Component
+public class QueryCostMetrics {
+    
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalCost = new LongAdder();
+    private final AtomicInteger maxCost = new AtomicInteger();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    
+    /**
+     * Registra el costo calculado de una operación.
+     */
+    public void record(int cost, int depth, boolean wasRejected) {
+        evaluated.increment();
+        totalCost.add(cost);
+        maxCost.accumulateAndGet(cost, Math::max);
+        maxDepth.accumulateAndGet(depth, Math::max);
+        if (wasRejected) {
+            rejected.increment();
+        }
+    }
+    
+    /**
+     * Snapshot de las métricas actuales.
+     */
+    public QueryCostStats snapshot() {
+        long operations = evaluated.sum();
+        return new QueryCostStats(
+                operations,
+                rejected.sum(),
+                operations == 0 ? 0.0 : (double) totalCost.sum() / operations,
+                maxCost.get(),
+                maxDepth.get()
+        );
+    }
+    
+    /**
+     * Vista de solo lectura para el type QueryCostStats del schema.
+     */
+    public static class QueryCostStats {
+        private final long evaluatedOperations;
+        private final long rejectedOperations;
+        private final double averageCost;
+        private final int maxCost;
+        private final int maxDepth;
+        
+        public QueryCostStats(long evaluatedOperations, long rejectedOperations,
+                              double averageCost, int maxCost, int maxDepth) {
+            this.evaluatedOperations = evaluatedOperations;
+            this.rejectedOperations = rejectedOperations;
+            this.averageCost = averageCost;
+            this.maxCost = maxCost;
+            this.maxDepth = maxDepth;
+        }
+        
+        public long getEvaluatedOperations() {
+            return evaluatedOperations;
+        }
+        
+        public long getRejectedOperations() {
+            return rejectedOperations;
+        }
+        
+        public double getAverageCost() {
+            return averageCost;
+        }
+        
+        public int getMaxCost() {
+            return maxCost;
+        }
+        
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+    }
+}
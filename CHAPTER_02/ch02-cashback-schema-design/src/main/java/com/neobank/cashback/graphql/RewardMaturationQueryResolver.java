@@ -0,0 +1,41 @@
+package com.neobank.cashback.graphql;
+
+import com.neobank.cashback.service.RewardMaturationScheduler;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * GraphQL Query Resolver para las métricas de maduración de rewards.
+ * 
+ * 💡 EJEMPLO:
+ * ```graphql
+ * query {
+ *   maturationStats {
+ *     matured
+ *     lastBatchSize
+ *     maxLagMillis
+ *   }
+ * }
+ * ```
+ * 
+ * @see com.neobank.cashback.service.RewardMaturationScheduler
+ */
+@Controller
+public class RewardMaturationQueryResolver {
+    
+    private final RewardMaturationScheduler rewardMaturationScheduler;
+    
+    public RewardMaturationQueryResolver(RewardMaturationScheduler rewardMaturationScheduler) {
+        this.rewardMaturationScheduler = rewardMaturationScheduler;
+    }
+    
+    /**
+     * Query: maturationStats
+     * 
+     * @return Métricas acumuladas del scheduler de maduración
+     */
+    @QueryMapping
+    public RewardMaturationScheduler.MaturationStats maturationStats() {
+        return rewardMaturationScheduler.stats();
+    }
+}
@@ -2,12 +2,22 @@ package com.neobank.cashback.graphql;
 
 import com.neobank.cashback.model.*;
 import com.neobank.cashback.service.CashbackService;
+import com.neobank.cashback.service.CashbackService.CashbackCalculation;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * GraphQL Query Resolver para Transacciones.
@@ -23,10 +33,11 @@ import java.util.List;
  * - transaction(id): Obtiene una transacción por ID
  * - transactions(userId, status, category): Lista con filtros opcionales
  * 
- * 📦 CAMPOS CALCULADOS (via @SchemaMapping):
- * - user: Resuelve el User asociado a la Transaction
+ * 📦 CAMPOS CALCULADOS:
+ * - user: Resuelve el User asociado a la Transaction (@BatchMapping)
  * - cashbackAmount: Calcula el monto de cashback
  * - cashbackPercentage: Calcula el porcentaje aplicado
+ *   (ambos comparten un DataLoader: un solo cálculo por lote)
  * 
  * 💡 ¿POR QUÉ @SchemaMapping?
  * Los campos calculados NO están en la clase Transaction.
@@ -45,9 +56,17 @@ public class TransactionQueryResolver {
     
     /**
      * Constructor con inyección de dependencias.
+     * 
+     * 🚀 Registra el DataLoader compartido por cashbackAmount y
+     * cashbackPercentage: cada lote de transacciones se calcula una sola vez
+     * (CashbackService.calculateCashback) y ambos campos leen el resultado.
      */
-    public TransactionQueryResolver(CashbackService cashbackService) {
+    public TransactionQueryResolver(CashbackService cashbackService,
+                                    BatchLoaderRegistry batchLoaderRegistry) {
         this.cashbackService = cashbackService;
+        batchLoaderRegistry.forTypePair(Transaction.class, CashbackCalculation.class)
+                .registerMappedBatchLoader((transactions, env) ->
+                        Mono.fromSupplier(() -> cashbackService.calculateCashback(transactions)));
     }
     
     /**
@@ -164,9 +183,9 @@ public class TransactionQueryResolver {
      * En la query:
      * ```graphql
      * query {
-     *   transaction(id: "trans-001") {
+     *   transactions {
      *     amount
-     *     user {        # Invoca este método
+     *     user {        # Una sola invocación para todas las transacciones
      *       fullName
      *       tier
      *     }
@@ -174,12 +193,25 @@ public class TransactionQueryResolver {
      * }
      * ```
      * 
-     * @param transaction La transacción padre (inyectada automáticamente)
-     * @return El usuario asociado a esta transacción
+     * 🚀 @BatchMapping: recibe todas las transacciones del nivel y resuelve
+     * sus usuarios con un único lookup agrupado (sin N+1).
+     * 
+     * @param transactions Las transacciones padre (inyectadas automáticamente)
+     * @return El usuario asociado a cada transacción
      */
-    @SchemaMapping(typeName = "Transaction")
-    public User user(Transaction transaction) {
-        return cashbackService.getUserById(transaction.getUserId());
+    @BatchMapping(typeName = "Transaction")
+    public Map<Transaction, User> user(List<Transaction> transactions) {
+        Set<String> userIds = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            userIds.add(transaction.getUserId());
+        }
+        Map<String, User> usersById = cashbackService.getUsersByIds(userIds);
+        
+        Map<Transaction, User> result = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            result.put(transaction, usersById.get(transaction.getUserId()));
+        }
+        return result;
     }
     
     /**
@@ -196,12 +228,18 @@ public class TransactionQueryResolver {
      * - Amount: $100
      * - Cashback: $100 × (3% × 2) = $100 × 6% = $6.00
      * 
+     * 🚀 Se resuelve con el DataLoader de CashbackCalculation: todas las
+     * transacciones del nivel se calculan juntas, y si la query también
+     * pide cashbackPercentage, reutiliza el mismo cálculo.
+     * 
      * @param transaction La transacción a calcular
+     * @param cashbackLoader DataLoader registrado en el constructor
      * @return Monto de cashback en la moneda de la transacción
      */
     @SchemaMapping(typeName = "Transaction")
-    public Double cashbackAmount(Transaction transaction) {
-        return cashbackService.calculateCashbackAmount(transaction);
+    public CompletableFuture<Double> cashbackAmount(Transaction transaction,
+                                                    DataLoader<Transaction, CashbackCalculation> cashbackLoader) {
+        return cashbackLoader.load(transaction).thenApply(CashbackCalculation::getAmount);
     }
     
     /**
@@ -218,11 +256,13 @@ public class TransactionQueryResolver {
      * - Percentage: 3% × 3 = 9%
      * 
      * @param transaction La transacción a calcular
+     * @param cashbackLoader DataLoader registrado en el constructor
      * @return Porcentaje de cashback (9.0 = 9%)
      */
     @SchemaMapping(typeName = "Transaction")
-    public Double cashbackPercentage(Transaction transaction) {
-        return cashbackService.calculateCashbackPercentage(transaction);
+    public CompletableFuture<Double> cashbackPercentage(Transaction transaction,
+                                                        DataLoader<Transaction, CashbackCalculation> cashbackLoader) {
+        return cashbackLoader.load(transaction).thenApply(CashbackCalculation::getPercentage);
     }
 }
 
@@ -239,8 +279,8 @@ public class TransactionQueryResolver {
  * 
  * 📊 CAMPOS CALCULADOS (@SchemaMapping):
  * ┌─────────────────────────────────────────────────────────────────────────┐
- * │  user               │  Resuelve relación → User                        │
- * │  cashbackAmount     │  Monto de cashback ganado                        │
+ * │  user               │  Resuelve relación → User (@BatchMapping)        │
+ * │  cashbackAmount     │  Monto de cashback ganado (DataLoader)           │
  * │  cashbackPercentage │  Porcentaje aplicado (tier × category)           │
  * └─────────────────────────────────────────────────────────────────────────┘
  * 
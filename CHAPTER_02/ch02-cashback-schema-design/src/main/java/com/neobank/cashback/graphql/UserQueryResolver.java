@@ -3,11 +3,15 @@ package com.neobank.cashback.graphql;
 import com.neobank.cashback.model.*;
 import com.neobank.cashback.service.CashbackService;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
-import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * GraphQL Query Resolver para Usuarios.
@@ -24,7 +28,7 @@ import java.util.List;
  * - userByEmail(email): Busca usuario por email
  * - users(tier): Lista usuarios, opcionalmente filtrados por tier
  * 
- * 📦 CAMPOS CALCULADOS (via @SchemaMapping):
+ * 📦 CAMPOS CALCULADOS (via @BatchMapping, una llamada por lista de usuarios):
  * - transactions: Lista de transacciones del usuario
  * - rewards: Lista de recompensas del usuario
  * - availableCashback: Suma de cashback disponible para canjear
@@ -137,7 +141,7 @@ public class UserQueryResolver {
     }
     
     // =========================================================================
-    // CAMPOS CALCULADOS DEL USER (@SchemaMapping)
+    // CAMPOS CALCULADOS DEL USER (@BatchMapping)
     // =========================================================================
     //
     // 🎓 SECCIÓN 2.1: RELACIONES Y CAMPOS CALCULADOS
@@ -145,6 +149,17 @@ public class UserQueryResolver {
     // Estos campos NO están en la clase User, se resuelven dinámicamente.
     // Solo se ejecutan si el cliente los solicita en la query.
     //
+    // 🚀 PROBLEMA N+1:
+    // Con @SchemaMapping, `users { transactions }` invocaba el método una vez
+    // por usuario y cada invocación recorría TODAS las transacciones:
+    // O(users × transacciones).
+    //
+    // Con @BatchMapping, Spring GraphQL registra un DataLoader por campo y
+    // llama al método UNA vez con la lista completa de usuarios padre. El
+    // servicio agrupa en una sola pasada: O(transacciones).
+    //
+    // El resultado es un Map<User, V>; User implementa equals/hashCode por id.
+    //
     // =========================================================================
     
     /**
@@ -155,9 +170,9 @@ public class UserQueryResolver {
      * 💡 EJEMPLO:
      * ```graphql
      * query {
-     *   user(id: "user-001") {
+     *   users {
      *     fullName
-     *     transactions {    # Invoca este método
+     *     transactions {    # Una sola invocación para todos los usuarios
      *       id
      *       amount
      *       merchantName
@@ -166,12 +181,12 @@ public class UserQueryResolver {
      * }
      * ```
      * 
-     * @param user El usuario padre (inyectado automáticamente)
-     * @return Lista de transacciones del usuario
+     * @param users Los usuarios padre del nivel actual de la query
+     * @return Transacciones de cada usuario
      */
-    @SchemaMapping(typeName = "User")
-    public List<Transaction> transactions(User user) {
-        return cashbackService.getTransactionsByUserId(user.getId());
+    @BatchMapping(typeName = "User")
+    public Map<User, List<Transaction>> transactions(List<User> users) {
+        return byUser(users, cashbackService.getTransactionsByUserIds(userIds(users)));
     }
     
     /**
@@ -193,12 +208,12 @@ public class UserQueryResolver {
      * }
      * ```
      * 
-     * @param user El usuario padre
-     * @return Lista de recompensas del usuario
+     * @param users Los usuarios padre
+     * @return Recompensas de cada usuario
      */
-    @SchemaMapping(typeName = "User")
-    public List<Reward> rewards(User user) {
-        return cashbackService.getRewardsByUserId(user.getId());
+    @BatchMapping(typeName = "User")
+    public Map<User, List<Reward>> rewards(List<User> users) {
+        return byUser(users, cashbackService.getRewardsByUserIds(userIds(users)));
     }
     
     /**
@@ -208,8 +223,9 @@ public class UserQueryResolver {
      * Solo cuenta rewards con status = AVAILABLE.
      * 
      * 🎓 LÓGICA:
-     * SELECT SUM(amount) FROM rewards
-     * WHERE userId = ? AND status = 'AVAILABLE'
+     * SELECT userId, SUM(amount) FROM rewards
+     * WHERE userId IN (?) AND status = 'AVAILABLE'
+     * GROUP BY userId
      * 
      * 💡 EJEMPLO:
      * ```graphql
@@ -220,12 +236,12 @@ public class UserQueryResolver {
      * }
      * ```
      * 
-     * @param user El usuario
-     * @return Monto total disponible para canjear
+     * @param users Los usuarios
+     * @return Monto disponible para canjear de cada usuario
      */
-    @SchemaMapping(typeName = "User")
-    public Double availableCashback(User user) {
-        return cashbackService.calculateAvailableCashback(user.getId());
+    @BatchMapping(typeName = "User")
+    public Map<User, Double> availableCashback(List<User> users) {
+        return byUser(users, cashbackService.calculateAvailableCashbackByUserIds(userIds(users)));
     }
     
     /**
@@ -235,15 +251,16 @@ public class UserQueryResolver {
      * Cuenta todas las rewards independiente del status.
      * 
      * 🎓 LÓGICA:
-     * SELECT SUM(amount) FROM rewards
-     * WHERE userId = ?
+     * SELECT userId, SUM(amount) FROM rewards
+     * WHERE userId IN (?)
+     * GROUP BY userId
      * 
-     * @param user El usuario
-     * @return Total de cashback ganado en toda la historia
+     * @param users Los usuarios
+     * @return Total de cashback ganado de cada usuario
      */
-    @SchemaMapping(typeName = "User")
-    public Double totalCashbackEarned(User user) {
-        return cashbackService.calculateTotalCashbackEarned(user.getId());
+    @BatchMapping(typeName = "User")
+    public Map<User, Double> totalCashbackEarned(List<User> users) {
+        return byUser(users, cashbackService.calculateTotalCashbackEarnedByUserIds(userIds(users)));
     }
     
     /**
@@ -253,15 +270,32 @@ public class UserQueryResolver {
      * Solo cuenta transacciones con status = CONFIRMED.
      * 
      * 🎓 LÓGICA:
-     * SELECT SUM(amount) FROM transactions
-     * WHERE userId = ? AND status = 'CONFIRMED'
+     * SELECT userId, SUM(amount) FROM transactions
+     * WHERE userId IN (?) AND status = 'CONFIRMED'
+     * GROUP BY userId
      * 
-     * @param user El usuario
-     * @return Total gastado en transacciones confirmadas
+     * @param users Los usuarios
+     * @return Total gastado en transacciones confirmadas de cada usuario
      */
-    @SchemaMapping(typeName = "User")
-    public Double totalSpent(User user) {
-        return cashbackService.calculateTotalSpent(user.getId());
+    @BatchMapping(typeName = "User")
+    public Map<User, Double> totalSpent(List<User> users) {
+        return byUser(users, cashbackService.calculateTotalSpentByUserIds(userIds(users)));
+    }
+    
+    private static Set<String> userIds(List<User> users) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (User user : users) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+    
+    private static <V> Map<User, V> byUser(List<User> users, Map<String, V> valuesByUserId) {
+        Map<User, V> result = new LinkedHashMap<>();
+        for (User user : users) {
+            result.put(user, valuesByUserId.get(user.getId()));
+        }
+        return result;
     }
 }
 
@@ -277,7 +311,7 @@ public class UserQueryResolver {
  * │  users(tier)        │  Listar usuarios, filtro opcional por tier       │
  * └─────────────────────────────────────────────────────────────────────────┘
  * 
- * 📊 CAMPOS CALCULADOS (@SchemaMapping):
+ * 📊 CAMPOS CALCULADOS (@BatchMapping):
  * ┌─────────────────────────────────────────────────────────────────────────┐
  * │  transactions       │  Relación User → Transaction[]                   │
  * │  rewards            │  Relación User → Reward[]                        │
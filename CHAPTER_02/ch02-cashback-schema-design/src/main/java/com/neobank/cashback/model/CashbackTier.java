@@ -22,10 +22,33 @@ public enum CashbackTier {
     
     private final double basePercentage;
     
+    /**
+     * Matriz precalculada [tier][categoría] de porcentajes de cashback.
+     * 
+     * 🚀 OPTIMIZACIÓN:
+     * Tiers y categorías son enums fijos (4 × 9), así que el producto
+     * basePercentage × multiplier se calcula una sola vez al cargar la clase
+     * y cada consulta es una lectura de array indexada por ordinal().
+     */
+    private static final double[][] RATES = buildRates();
+    
     CashbackTier(double basePercentage) {
         this.basePercentage = basePercentage;
     }
     
+    private static double[][] buildRates() {
+        CashbackTier[] tiers = values();
+        TransactionCategory[] categories = TransactionCategory.values();
+        double[][] rates = new double[tiers.length][categories.length];
+        for (CashbackTier tier : tiers) {
+            for (TransactionCategory category : categories) {
+                rates[tier.ordinal()][category.ordinal()] =
+                        tier.basePercentage * category.getCashbackMultiplier();
+            }
+        }
+        return rates;
+    }
+    
     /**
      * Obtiene el porcentaje base de cashback para este tier.
      * 
@@ -48,7 +71,6 @@ public enum CashbackTier {
      * @return Porcentaje final de cashback
      */
     public double getCashbackPercentage(TransactionCategory category) {
-        double multiplier = category.getCashbackMultiplier();
-        return basePercentage * multiplier;
+        return RATES[ordinal()][category.ordinal()];
     }
 }
@@ -3,8 +3,14 @@ package com.neobank.cashback.service;
 import com.neobank.cashback.model.*;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -18,9 +24,18 @@ import java.util.stream.Collectors;
  * - Gestión de rewards (pendientes, disponibles, canjeadas)
  * 
  * 📦 DATOS EN MEMORIA:
- * Para el demo, usa HashMaps en memoria. En producción se reemplazaría
+ * Para el demo, usa mapas concurrentes en memoria. En producción se reemplazaría
  * por repositorios JPA conectados a base de datos.
  * 
+ * 🚀 TOTALES POR USUARIO:
+ * availableCashback, totalCashbackEarned y totalSpent se leen de contadores
+ * acumulados (RunningTotals) que se actualizan en cada escritura, en vez de
+ * recorrer todas las rewards/transacciones en cada resolución de campo.
+ * 
+ * 🔎 ÍNDICES SECUNDARIOS:
+ * userByEmail y transactions(userId) usan índices mantenidos al crear
+ * (email → userId, userId → transacciones) en lugar de escanear los mapas.
+ * 
  * 🎓 SECCIÓN 2.1: DISEÑO ORIENTADO A DOMINIO
  * 
  * Este servicio implementa el modelo de dominio:
@@ -44,13 +59,28 @@ import java.util.stream.Collectors;
 public class CashbackService {
     
     /** Almacén de usuarios. Key: userId */
-    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, User> users = new ConcurrentHashMap<>();
     
     /** Almacén de transacciones. Key: transactionId */
-    private final Map<String, Transaction> transactions = new HashMap<>();
+    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
     
     /** Almacén de rewards. Key: rewardId */
-    private final Map<String, Reward> rewards = new HashMap<>();
+    private final Map<String, Reward> rewards = new ConcurrentHashMap<>();
+    
+    /** Índice secundario: email normalizado → userId */
+    private final Map<String, String> userIdsByEmail = new ConcurrentHashMap<>();
+    
+    /** Índice secundario: userId → transacciones en orden de inserción */
+    private final Map<String, Queue<Transaction>> transactionsByUser = new ConcurrentHashMap<>();
+    
+    /** Índice secundario: rewards PENDING ordenadas por fecha de maduración */
+    private final NavigableSet<PendingReward> pendingByDueDate = new ConcurrentSkipListSet<>();
+    
+    /** Tiempo de espera antes de que una reward PENDING pase a AVAILABLE. */
+    public static final Duration REWARD_MATURATION_PERIOD = Duration.ofDays(30);
+    
+    /** Totales acumulados por usuario. Key: userId */
+    private final Map<String, RunningTotals> totalsByUser = new ConcurrentHashMap<>();
     
     /**
      * Constructor que inicializa datos de demostración.
@@ -88,7 +118,7 @@ public class CashbackService {
                 .tier(CashbackTier.GOLD)
                 .enrolledAt(LocalDateTime.now().minusMonths(6))
                 .build();
-        users.put(user1.getId(), user1);
+        storeUser(user1);
         
         // ─────────────────────────────────────────────────────────────────
         // USER 2: Carlos Rodriguez (PLATINUM tier - 5% base)
@@ -100,7 +130,7 @@ public class CashbackService {
                 .tier(CashbackTier.PLATINUM)
                 .enrolledAt(LocalDateTime.now().minusYears(2))
                 .build();
-        users.put(user2.getId(), user2);
+        storeUser(user2);
         
         // ─────────────────────────────────────────────────────────────────
         // TRANSACCIONES DE USER 1 (Maria)
@@ -142,7 +172,8 @@ public class CashbackService {
                 .transactionDate(LocalDateTime.now().minusDays(new Random().nextInt(30)))
                 .status(TransactionStatus.CONFIRMED)
                 .build();
-        transactions.put(id, tx);
+        storeTransaction(tx);
+        totalsFor(userId).spent.add(toUnits(amount));
         
         // Calcular y crear reward
         User user = users.get(userId);
@@ -158,7 +189,7 @@ public class CashbackService {
                 .expiresAt(tx.getTransactionDate().plusMonths(12))
                 .status(RewardStatus.AVAILABLE)
                 .build();
-        rewards.put(reward.getId(), reward);
+        storeReward(reward);
     }
     
     // =========================================================================
@@ -173,13 +204,14 @@ public class CashbackService {
     }
     
     /**
-     * Busca un usuario por email.
+     * Busca un usuario por email (sin distinguir mayúsculas ni espacios).
+     * 
+     * 🚀 O(1): lookup en el índice email normalizado → userId.
      */
     public User getUserByEmail(String email) {
-        return users.values().stream()
-                .filter(u -> u.getEmail().equals(email))
-                .findFirst()
-                .orElse(null);
+        if (email == null) return null;
+        String userId = userIdsByEmail.get(normalizeEmail(email));
+        return userId == null ? null : users.get(userId);
     }
     
     /**
@@ -189,6 +221,26 @@ public class CashbackService {
         return new ArrayList<>(users.values());
     }
     
+    /**
+     * Obtiene varios usuarios por ID en una sola llamada.
+     * 
+     * 🎓 Usado por @BatchMapping (Transaction.user): resuelve todos los
+     * padres de la lista con lookups directos en vez de una llamada por fila.
+     * 
+     * @param ids IDs de usuario (pueden repetirse)
+     * @return Mapa userId → User (solo los que existen)
+     */
+    public Map<String, User> getUsersByIds(Collection<String> ids) {
+        Map<String, User> found = new HashMap<>();
+        for (String id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                found.put(id, user);
+            }
+        }
+        return found;
+    }
+    
     // =========================================================================
     // MÉTODOS DE CONSULTA - TRANSACCIONES
     // =========================================================================
@@ -201,12 +253,29 @@ public class CashbackService {
     }
     
     /**
-     * Obtiene transacciones de un usuario.
+     * Obtiene transacciones de un usuario, en orden de creación.
+     * 
+     * 🚀 O(resultado): lee el índice userId → transacciones.
      */
     public List<Transaction> getTransactionsByUserId(String userId) {
-        return transactions.values().stream()
-                .filter(t -> t.getUserId().equals(userId))
-                .collect(Collectors.toList());
+        return indexedTransactions(userId);
+    }
+    
+    /**
+     * Obtiene las transacciones de varios usuarios.
+     * 
+     * 🚀 Lee el índice userId → transacciones de cada usuario:
+     * O(resultado) en lugar de recorrer todas las transacciones.
+     * 
+     * @param userIds IDs de los usuarios
+     * @return Mapa userId → transacciones (lista vacía si no tiene)
+     */
+    public Map<String, List<Transaction>> getTransactionsByUserIds(Collection<String> userIds) {
+        Map<String, List<Transaction>> grouped = new HashMap<>();
+        for (String userId : userIds) {
+            grouped.computeIfAbsent(userId, this::indexedTransactions);
+        }
+        return grouped;
     }
     
     /**
@@ -236,6 +305,23 @@ public class CashbackService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Obtiene las rewards de varios usuarios en una sola pasada.
+     * 
+     * @param userIds IDs de los usuarios
+     * @return Mapa userId → rewards (lista vacía si no tiene)
+     */
+    public Map<String, List<Reward>> getRewardsByUserIds(Collection<String> userIds) {
+        Map<String, List<Reward>> grouped = emptyGroups(userIds);
+        for (Reward reward : rewards.values()) {
+            List<Reward> bucket = grouped.get(reward.getUserId());
+            if (bucket != null) {
+                bucket.add(reward);
+            }
+        }
+        return grouped;
+    }
+    
     // =========================================================================
     // MÉTODOS DE CÁLCULO - CASHBACK
     // =========================================================================
@@ -244,49 +330,113 @@ public class CashbackService {
      * Calcula el cashback disponible para canjear.
      * 
      * Solo suma rewards con status = AVAILABLE.
+     * Lectura O(1) del contador acumulado del usuario.
      * 
      * @param userId ID del usuario
      * @return Monto total disponible
      */
     public Double calculateAvailableCashback(String userId) {
-        return rewards.values().stream()
-                .filter(r -> r.getUserId().equals(userId))
-                .filter(r -> r.getStatus() == RewardStatus.AVAILABLE)
-                .mapToDouble(Reward::getAmount)
-                .sum();
+        return runningTotal(userId, totals -> totals.available);
     }
     
     /**
      * Calcula el total de cashback ganado históricamente.
      * 
      * Suma todas las rewards del usuario.
+     * Lectura O(1) del contador acumulado del usuario.
      * 
      * @param userId ID del usuario
      * @return Total ganado en toda la historia
      */
     public Double calculateTotalCashbackEarned(String userId) {
-        return rewards.values().stream()
-                .filter(r -> r.getUserId().equals(userId))
-                .mapToDouble(Reward::getAmount)
-                .sum();
+        return runningTotal(userId, totals -> totals.earned);
     }
     
     /**
      * Calcula el total gastado en transacciones.
      * 
      * Solo suma transacciones CONFIRMED.
+     * Lectura O(1) del contador acumulado del usuario.
      * 
      * @param userId ID del usuario
      * @return Total gastado
      */
     public Double calculateTotalSpent(String userId) {
-        return transactions.values().stream()
-                .filter(t -> t.getUserId().equals(userId))
-                .filter(t -> t.getStatus() == TransactionStatus.CONFIRMED)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        return runningTotal(userId, totals -> totals.spent);
     }
     
+    // ─────────────────────────────────────────────────────────────────────
+    // VERSIONES BATCH (usadas por @BatchMapping)
+    // Cada usuario es una lectura O(1) de sus contadores; leen los índices
+    // directamente, sin pasar por las versiones de un solo usuario.
+    // ─────────────────────────────────────────────────────────────────────
+    
+    /**
+     * Cashback disponible (rewards AVAILABLE) de varios usuarios.
+     * 
+     * @param userIds IDs de los usuarios
+     * @return Mapa userId → monto (0.0 si no tiene rewards)
+     */
+    public Map<String, Double> calculateAvailableCashbackByUserIds(Collection<String> userIds) {
+        Map<String, Double> totals = new HashMap<>();
+        for (String userId : userIds) {
+            totals.put(userId, runningTotal(userId, running -> running.available));
+        }
+        return totals;
+    }
+    
+    /**
+     * Cashback ganado históricamente (todas las rewards) de varios usuarios.
+     * 
+     * @param userIds IDs de los usuarios
+     * @return Mapa userId → monto (0.0 si no tiene rewards)
+     */
+    public Map<String, Double> calculateTotalCashbackEarnedByUserIds(Collection<String> userIds) {
+        Map<String, Double> totals = new HashMap<>();
+        for (String userId : userIds) {
+            totals.put(userId, runningTotal(userId, running -> running.earned));
+        }
+        return totals;
+    }
+    
+    /**
+     * Total gastado (transacciones CONFIRMED) de varios usuarios.
+     * 
+     * @param userIds IDs de los usuarios
+     * @return Mapa userId → monto (0.0 si no tiene transacciones)
+     */
+    public Map<String, Double> calculateTotalSpentByUserIds(Collection<String> userIds) {
+        Map<String, Double> totals = new HashMap<>();
+        for (String userId : userIds) {
+            totals.put(userId, runningTotal(userId, running -> running.spent));
+        }
+        return totals;
+    }
+    
+    /**
+     * Copia de las transacciones indexadas de un usuario (lista vacía si no tiene).
+     */
+    private List<Transaction> indexedTransactions(String userId) {
+        Queue<Transaction> indexed = transactionsByUser.get(userId);
+        return indexed == null ? new ArrayList<>() : new ArrayList<>(indexed);
+    }
+    
+    /**
+     * Lee uno de los contadores acumulados de un usuario (0.0 si no tiene).
+     */
+    private Double runningTotal(String userId, Function<RunningTotals, LongAdder> counter) {
+        RunningTotals totals = totalsByUser.get(userId);
+        return totals == null ? 0.0 : fromUnits(counter.apply(totals).sum());
+    }
+    
+    private static <T> Map<String, List<T>> emptyGroups(Collection<String> userIds) {
+        Map<String, List<T>> grouped = new HashMap<>();
+        for (String userId : userIds) {
+            grouped.putIfAbsent(userId, new ArrayList<>());
+        }
+        return grouped;
+    }
+
     /**
      * Calcula el monto de cashback para una transacción.
      * 
@@ -320,6 +470,60 @@ public class CashbackService {
         return user.getTier().getCashbackPercentage(transaction.getCategory());
     }
     
+    /**
+     * Calcula porcentaje y monto de cashback de varias transacciones en una
+     * sola pasada (versión batch de calculateCashbackAmount/Percentage).
+     * 
+     * 🚀 OPTIMIZACIÓN:
+     * - El tier de cada usuario se busca una vez por lote, no una vez por
+     *   transacción y campo.
+     * - El porcentaje sale de la matriz precalculada de CashbackTier.
+     * 
+     * @param transactions Transacciones a calcular
+     * @return Mapa transacción → cálculo (0.0 / 0.0 si el usuario no existe)
+     */
+    public Map<Transaction, CashbackCalculation> calculateCashback(Collection<Transaction> transactions) {
+        Map<String, CashbackTier> tiersByUser = new HashMap<>();
+        Map<Transaction, CashbackCalculation> result = new HashMap<>(transactions.size() * 2);
+        for (Transaction transaction : transactions) {
+            CashbackTier tier = tiersByUser.computeIfAbsent(transaction.getUserId(), userId -> {
+                User user = users.get(userId);
+                return user != null ? user.getTier() : null;
+            });
+            if (tier == null) {
+                result.put(transaction, CashbackCalculation.NONE);
+                continue;
+            }
+            double percentage = tier.getCashbackPercentage(transaction.getCategory());
+            result.put(transaction, new CashbackCalculation(
+                    percentage, transaction.getAmount() * (percentage / 100.0)));
+        }
+        return result;
+    }
+    
+    /**
+     * Resultado de calculateCashback para una transacción.
+     */
+    public static final class CashbackCalculation {
+        static final CashbackCalculation NONE = new CashbackCalculation(0.0, 0.0);
+        
+        private final double percentage;
+        private final double amount;
+        
+        CashbackCalculation(double percentage, double amount) {
+            this.percentage = percentage;
+            this.amount = amount;
+        }
+        
+        public double getPercentage() {
+            return percentage;
+        }
+        
+        public double getAmount() {
+            return amount;
+        }
+    }
+    
     // =========================================================================
     // MÉTODOS DE MUTACIÓN - TRANSACCIONES
     // =========================================================================
@@ -354,7 +558,7 @@ public class CashbackService {
                 .status(TransactionStatus.PENDING)
                 .build();
         
-        transactions.put(id, transaction);
+        storeTransaction(transaction);
         return transaction;
     }
     
@@ -364,7 +568,8 @@ public class CashbackService {
      * 🎓 FLUJO:
      * 1. Cambia status a CONFIRMED
      * 2. Calcula cashback según tier y categoría
-     * 3. Crea Reward con status PENDING (30 días de espera)
+     * 3. Crea Reward con status PENDING (30 días de espera); la promueve
+     *    a AVAILABLE RewardMaturationScheduler al vencer ese plazo
      * 
      * @param transactionId ID de la transacción a confirmar
      * @return Transacción confirmada (o null si no existe)
@@ -373,8 +578,13 @@ public class CashbackService {
         Transaction tx = transactions.get(transactionId);
         if (tx == null) return null;
         
-        // Confirmar transacción
-        tx.setStatus(TransactionStatus.CONFIRMED);
+        // Confirmar transacción (el gasto solo se acumula en la transición)
+        synchronized (tx) {
+            if (tx.getStatus() != TransactionStatus.CONFIRMED) {
+                tx.setStatus(TransactionStatus.CONFIRMED);
+                totalsFor(tx.getUserId()).spent.add(toUnits(tx.getAmount()));
+            }
+        }
         
         // Calcular y crear reward
         double cashbackAmount = calculateCashbackAmount(tx);
@@ -389,9 +599,229 @@ public class CashbackService {
                 .status(RewardStatus.PENDING) // 30 días de espera
                 .build();
         
-        rewards.put(reward.getId(), reward);
+        storeReward(reward);
         return tx;
     }
+    
+    // =========================================================================
+    // MÉTODOS DE MUTACIÓN - REWARDS
+    // =========================================================================
+    
+    /**
+     * Cambia el status de una reward manteniendo los totales del usuario.
+     * 
+     * ⚠️ Todo cambio de status debe pasar por aquí (no por Reward.setStatus
+     * directamente) para que availableCashback siga siendo correcto.
+     * 
+     * @param rewardId ID de la reward
+     * @param newStatus Nuevo status
+     * @return Reward actualizada (o null si no existe)
+     */
+    public Reward updateRewardStatus(String rewardId, RewardStatus newStatus) {
+        Reward reward = rewards.get(rewardId);
+        if (reward == null) return null;
+        
+        synchronized (reward) {
+            applyStatusChange(reward, newStatus);
+        }
+        return reward;
+    }
+    
+    /**
+     * Obtiene las rewards PENDING cuya maduración ya venció, las más
+     * atrasadas primero.
+     * 
+     * 🚀 Recorre solo la cabeza del índice por fecha (headSet(now)):
+     * el costo depende de las rewards vencidas, no de todas las PENDING.
+     * 
+     * @param now Instante de referencia
+     * @param limit Máximo de rewards a devolver (tamaño de lote)
+     * @return Rewards a madurar, ordenadas por fecha de maduración
+     */
+    public List<Reward> findRewardsDueForMaturation(LocalDateTime now, int limit) {
+        List<Reward> due = new ArrayList<>(Math.min(limit, 64));
+        Iterator<PendingReward> it = pendingByDueDate.headSet(PendingReward.upperBound(now)).iterator();
+        while (it.hasNext() && due.size() < limit) {
+            PendingReward entry = it.next();
+            Reward reward = rewards.get(entry.rewardId());
+            if (reward == null || reward.getStatus() != RewardStatus.PENDING) {
+                pendingByDueDate.remove(entry); // entrada obsoleta
+                continue;
+            }
+            due.add(reward);
+        }
+        return due;
+    }
+    
+    /**
+     * Promueve un lote de rewards PENDING a AVAILABLE.
+     * 
+     * Cada reward se vuelve a comprobar bajo su lock: si cambió de status
+     * desde que se leyó el lote (p. ej. se canceló), no se toca.
+     * 
+     * @param due Rewards devueltas por findRewardsDueForMaturation
+     * @return Número de rewards promovidas
+     */
+    public int matureRewards(List<Reward> due) {
+        int matured = 0;
+        for (Reward reward : due) {
+            synchronized (reward) {
+                if (reward.getStatus() == RewardStatus.PENDING) {
+                    applyStatusChange(reward, RewardStatus.AVAILABLE);
+                    matured++;
+                }
+            }
+        }
+        return matured;
+    }
+    
+    /**
+     * Aplica un cambio de status manteniendo totales e índices.
+     * Debe llamarse con el lock de la reward tomado.
+     */
+    private void applyStatusChange(Reward reward, RewardStatus newStatus) {
+        RewardStatus previous = reward.getStatus();
+        if (previous == newStatus) {
+            return;
+        }
+        reward.setStatus(newStatus);
+        
+        long units = toUnits(reward.getAmount());
+        LongAdder available = totalsFor(reward.getUserId()).available;
+        if (previous == RewardStatus.AVAILABLE) {
+            available.add(-units);
+        } else if (newStatus == RewardStatus.AVAILABLE) {
+            available.add(units);
+        }
+        
+        if (previous == RewardStatus.PENDING) {
+            pendingByDueDate.remove(PendingReward.of(reward));
+        } else if (newStatus == RewardStatus.PENDING) {
+            pendingByDueDate.add(PendingReward.of(reward));
+        }
+    }
+    
+    // =========================================================================
+    // ÍNDICES SECUNDARIOS
+    // =========================================================================
+    //
+    // 🎓 Se mantienen en el mismo punto donde se guarda la entidad, así
+    // ninguna escritura puede olvidarlos. Equivalen a:
+    //   CREATE UNIQUE INDEX ON users (lower(email));
+    //   CREATE INDEX ON transactions (user_id);
+    //
+    // =========================================================================
+    
+    /**
+     * Guarda un usuario y lo indexa por email normalizado.
+     */
+    private void storeUser(User user) {
+        User previous = users.put(user.getId(), user);
+        if (previous != null && previous.getEmail() != null) {
+            userIdsByEmail.remove(normalizeEmail(previous.getEmail()), previous.getId());
+        }
+        if (user.getEmail() != null) {
+            userIdsByEmail.put(normalizeEmail(user.getEmail()), user.getId());
+        }
+    }
+    
+    /**
+     * Guarda una transacción y la añade al índice de su usuario.
+     */
+    private void storeTransaction(Transaction transaction) {
+        Transaction previous = transactions.put(transaction.getId(), transaction);
+        if (previous != null) {
+            Queue<Transaction> previousQueue = transactionsByUser.get(previous.getUserId());
+            if (previousQueue != null) {
+                previousQueue.remove(previous);
+            }
+        }
+        transactionsByUser
+                .computeIfAbsent(transaction.getUserId(), id -> new ConcurrentLinkedQueue<>())
+                .add(transaction);
+    }
+    
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Entrada del índice de maduración: (fecha de maduración, rewardId).
+     * El rewardId desempata rewards que maduran en el mismo instante.
+     */
+    private record PendingReward(LocalDateTime dueAt, String rewardId) implements Comparable<PendingReward> {
+        
+        static PendingReward of(Reward reward) {
+            return new PendingReward(reward.getEarnedAt().plus(REWARD_MATURATION_PERIOD), reward.getId());
+        }
+        
+        /** Cota superior exclusiva: todas las entradas con dueAt <= now. */
+        static PendingReward upperBound(LocalDateTime now) {
+            return new PendingReward(now.plusNanos(1), "");
+        }
+        
+        @Override
+        public int compareTo(PendingReward other) {
+            int byDate = dueAt.compareTo(other.dueAt);
+            return byDate != 0 ? byDate : rewardId.compareTo(other.rewardId);
+        }
+    }
+    
+    // =========================================================================
+    // TOTALES ACUMULADOS POR USUARIO
+    // =========================================================================
+    //
+    // 🎓 ¿POR QUÉ PUNTO FIJO + LongAdder?
+    // - Sumar/restar doubles acumula error; con enteros (1e-9 de unidad
+    //   monetaria) sumar y luego restar el mismo monto deja el contador exacto
+    // - LongAdder reparte las sumas entre celdas: confirmaciones concurrentes
+    //   del mismo usuario no compiten por un único valor atómico
+    // - El resultado coincide con la suma completa de antes hasta 1e-9
+    //   (muy por debajo de un centavo) y no depende del orden del HashMap
+    //
+    // =========================================================================
+    
+    /** Unidades de punto fijo por unidad monetaria (nano-unidades). */
+    private static final double UNITS_PER_CURRENCY = 1_000_000_000d;
+    
+    /**
+     * Contadores de un usuario, en nano-unidades monetarias.
+     */
+    private static final class RunningTotals {
+        /** SUM(rewards.amount) WHERE status = AVAILABLE */
+        final LongAdder available = new LongAdder();
+        /** SUM(rewards.amount) */
+        final LongAdder earned = new LongAdder();
+        /** SUM(transactions.amount) WHERE status = CONFIRMED */
+        final LongAdder spent = new LongAdder();
+    }
+    
+    private RunningTotals totalsFor(String userId) {
+        return totalsByUser.computeIfAbsent(userId, id -> new RunningTotals());
+    }
+    
+    /**
+     * Guarda una reward nueva y la suma a los totales de su usuario.
+     */
+    private void storeReward(Reward reward) {
+        rewards.put(reward.getId(), reward);
+        long units = toUnits(reward.getAmount());
+        RunningTotals totals = totalsFor(reward.getUserId());
+        totals.earned.add(units);
+        if (reward.getStatus() == RewardStatus.AVAILABLE) {
+            totals.available.add(units);
+        } else if (reward.getStatus() == RewardStatus.PENDING) {
+            pendingByDueDate.add(PendingReward.of(reward));
+        }
+    }
+    
+    private static long toUnits(double amount) {
+        return Math.round(amount * UNITS_PER_CURRENCY);
+    }
+    
+    private static double fromUnits(long units) {
+        return units / UNITS_PER_CURRENCY;
+    }
 }
 
 /*
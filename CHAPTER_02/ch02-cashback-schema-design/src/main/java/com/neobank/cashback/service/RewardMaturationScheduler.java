@@ -0,0 +1,162 @@
+package com.neobank.cashback.service;
+
+import com.neobank.cashback.model.Reward;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Maduración de rewards PENDING → AVAILABLE en background.
+ * 
+ * 🎓 REGLA DE NEGOCIO:
+ * Una reward queda PENDING durante CashbackService.REWARD_MATURATION_PERIOD
+ * (30 días desde earnedAt) y después pasa a estar disponible para canje.
+ * 
+ * 🚀 COSTO:
+ * Cada ejecución toma del índice por fecha de maduración (skip list en
+ * CashbackService) solo las rewards ya vencidas, en lotes acotados. Las
+ * PENDING que aún no maduran no se recorren.
+ * 
+ * El número de lotes por ejecución también está acotado: si hay backlog,
+ * se continúa en la siguiente ejecución en lugar de bloquear el scheduler.
+ * 
+ * Métricas expuestas vía Query.maturationStats:
+ * - lag: cuánto después de su fecha de maduración se promovió la reward más atrasada
+ * - throughput: rewards promovidas, último lote y lote máximo
+ */
+@Component
+public class RewardMaturationScheduler {
+    
+    private final CashbackService cashbackService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong matured = new AtomicLong();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private final AtomicLong lastRunDurationMillis = new AtomicLong();
+    private final AtomicReference<LocalDateTime> lastRunAt = new AtomicReference<>();
+    
+    public RewardMaturationScheduler(CashbackService cashbackService,
+                                     @Value("${cashback.maturation.batch-size:500}") int batchSize,
+                                     @Value("${cashback.maturation.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.cashbackService = cashbackService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+    
+    @Scheduled(fixedDelayString = "${cashback.maturation.interval:PT30S}")
+    public void matureDueRewards() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        runs.incrementAndGet();
+        lastRunAt.set(now);
+        
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<Reward> due = cashbackService.findRewardsDueForMaturation(now, batchSize);
+            if (due.isEmpty()) {
+                break;
+            }
+            
+            // El primer elemento es el de fecha de maduración más antigua del lote
+            LocalDateTime oldestDueAt = due.get(0).getEarnedAt().plus(CashbackService.REWARD_MATURATION_PERIOD);
+            long lag = Duration.between(oldestDueAt, now).toMillis();
+            lastLagMillis.set(lag);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+            
+            int count = cashbackService.matureRewards(due);
+            batches.incrementAndGet();
+            matured.addAndGet(count);
+            lastBatchSize.set(count);
+            maxBatchSize.accumulateAndGet(count, Math::max);
+            
+            if (due.size() < batchSize) {
+                break;
+            }
+        }
+        
+        lastRunDurationMillis.set((System.nanoTime() - start) / 1_000_000);
+    }
+    
+    public MaturationStats stats() {
+        return new MaturationStats(runs.get(), batches.get(), matured.get(), lastBatchSize.get(),
+                maxBatchSize.get(), lastLagMillis.get(), maxLagMillis.get(),
+                lastRunDurationMillis.get(), lastRunAt.get());
+    }
+    
+    /**
+     * Snapshot de métricas del scheduler (tipo GraphQL MaturationStats).
+     */
+    public static class MaturationStats {
+        private final long runs;
+        private final long batches;
+        private final long matured;
+        private final int lastBatchSize;
+        private final int maxBatchSize;
+        private final long lastLagMillis;
+        private final long maxLagMillis;
+        private final long lastRunDurationMillis;
+        private final LocalDateTime lastRunAt;
+        
+        MaturationStats(long runs, long batches, long matured, int lastBatchSize, int maxBatchSize,
+                        long lastLagMillis, long maxLagMillis, long lastRunDurationMillis,
+                        LocalDateTime lastRunAt) {
+            this.runs = runs;
+            this.batches = batches;
+            this.matured = matured;
+            this.lastBatchSize = lastBatchSize;
+            this.maxBatchSize = maxBatchSize;
+            this.lastLagMillis = lastLagMillis;
+            this.maxLagMillis = maxLagMillis;
+            this.lastRunDurationMillis = lastRunDurationMillis;
+            this.lastRunAt = lastRunAt;
+        }
+        
+        public long getRuns() {
+            return runs;
+        }
+        
+        public long getBatches() {
+            return batches;
+        }
+        
+        public long getMatured() {
+            return matured;
+        }
+        
+        public int getLastBatchSize() {
+            return lastBatchSize;
+        }
+        
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+        
+        public long getLastLagMillis() {
+            return lastLagMillis;
+        }
+        
+        public long getMaxLagMillis() {
+            return maxLagMillis;
+        }
+        
+        public long getLastRunDurationMillis() {
+            return lastRunDurationMillis;
+        }
+        
+        public LocalDateTime getLastRunAt() {
+            return lastRunAt;
+        }
+    }
+}
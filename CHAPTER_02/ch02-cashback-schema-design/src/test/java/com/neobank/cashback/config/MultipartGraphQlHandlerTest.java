@@ -0,0 +1,94 @@
+package com.neobank.cashback.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica la entrega incremental (@defer) sobre POST /graphql.
+ * 
+ * 🎓 QUÉ SE ESPERA:
+ * Con `Accept: multipart/mixed` la respuesta llega en DOS partes: primero
+ * los datos sin el fragmento diferido ("hasNext":true) y después el bloque
+ * con cashbackAmount ("hasNext":false), cerrado con el delimitador final.
+ * (Un @defer dentro de una lista produce una parte por elemento; por eso
+ * se consulta una sola transacción.)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MultipartGraphQlHandlerTest {
+    
+    private static final String DEFERRED_QUERY = """
+            {"query":"{ transaction(id: \\"trans-001\\") { id amount ... @defer(label: \\"cashback\\") { cashbackAmount } } }"}
+            """;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void deferredFragmentArrivesAsSecondPart() throws Exception {
+        MvcResult result = mockMvc.perform(post("/graphql")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.parseMediaType("multipart/mixed"))
+                        .content(DEFERRED_QUERY))
+                .andExpect(status().isOk())
+                .andReturn();
+        
+        assertTrue(result.getResponse().getContentType().startsWith("multipart/mixed"),
+                "Content-Type: " + result.getResponse().getContentType());
+        
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\r\n-----\r\n"), "Falta el delimitador final: " + body);
+        
+        List<String> parts = parts(body);
+        assertEquals(2, parts.size(), body);
+        
+        assertTrue(parts.get(0).contains("\"hasNext\":true"), parts.get(0));
+        assertTrue(!parts.get(0).contains("cashbackAmount"), parts.get(0));
+        
+        assertTrue(parts.get(1).contains("\"label\":\"cashback\""), parts.get(1));
+        assertTrue(parts.get(1).contains("cashbackAmount"), parts.get(1));
+        assertTrue(parts.get(1).contains("\"hasNext\":false"), parts.get(1));
+    }
+    
+    @Test
+    void plainJsonRequestsStayOnStandardHandler() throws Exception {
+        MvcResult result = mockMvc.perform(post("/graphql")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("{\"query\":\"{ transactions(userId: \\\"user-001\\\", limit: 1) { id } }\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        
+        assertTrue(result.getResponse().getContentType().startsWith("application/json"),
+                "Content-Type: " + result.getResponse().getContentType());
+    }
+    
+    /**
+     * Cuerpos JSON de cada parte (sin cabeceras ni delimitadores).
+     */
+    private static List<String> parts(String body) {
+        List<String> parts = new ArrayList<>();
+        String content = body.substring(0, body.lastIndexOf("\r\n-----\r\n"));
+        for (String part : content.split("\r\n---\r\n")) {
+            int separator = part.indexOf("\r\n\r\n");
+            if (separator >= 0) {
+                parts.add(part.substring(separator + 4).trim());
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,82 @@
+package com.neobank.cashback.graphql;
+
+import com.neobank.cashback.service.CashbackService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifica que las relaciones y campos calculados de User se resuelven con
+ * @BatchMapping: UNA llamada agrupada al servicio por campo, sin importar
+ * cuántos usuarios devuelva la query (sin N+1).
+ * 
+ * 🎓 CÓMO:
+ * CashbackService es un spy (datos reales + conteo de invocaciones) y la
+ * query se ejecuta con GraphQlTester contra el schema completo.
+ */
+@SpringBootTest
+@AutoConfigureGraphQlTester
+class UserBatchMappingTest {
+    
+    private static final String USERS_WITH_RELATIONS = """
+            query {
+              users {
+                id
+                transactions { __typename }
+                rewards { __typename }
+                availableCashback
+                totalSpent
+              }
+            }
+            """;
+    
+    @Autowired
+    private GraphQlTester graphQlTester;
+    
+    @MockitoSpyBean
+    private CashbackService cashbackService;
+    
+    @BeforeEach
+    void resetInvocations() {
+        // El scheduler de maduración puede haber tocado el servicio al arrancar
+        clearInvocations(cashbackService);
+    }
+    
+    @Test
+    void usersWithRelationsCallsEachBatchLoaderOnce() {
+        graphQlTester.document(USERS_WITH_RELATIONS)
+                .execute()
+                .path("users").entityList(Map.class)
+                .satisfies(users -> assertTrue(users.size() > 1, "Se necesitan varios usuarios para detectar N+1"))
+                .path("users[*].availableCashback").entityList(Double.class).hasSizeGreaterThan(1)
+                .path("users[*].totalSpent").entityList(Double.class).hasSizeGreaterThan(1);
+        
+        verify(cashbackService, times(1)).getAllUsers();
+        
+        // Una llamada agrupada por campo...
+        verify(cashbackService, times(1)).getTransactionsByUserIds(anyCollection());
+        verify(cashbackService, times(1)).getRewardsByUserIds(anyCollection());
+        verify(cashbackService, times(1)).calculateAvailableCashbackByUserIds(anyCollection());
+        verify(cashbackService, times(1)).calculateTotalSpentByUserIds(anyCollection());
+        
+        // ...y ninguna por usuario
+        verify(cashbackService, never()).getTransactionsByUserId(anyString());
+        verify(cashbackService, never()).getRewardsByUserId(anyString());
+        verify(cashbackService, never()).calculateAvailableCashback(anyString());
+        verify(cashbackService, never()).calculateTotalSpent(anyString());
+    }
+}
@@ -0,0 +1,126 @@
+package com.neobank.cashback.service;
+
+import com.neobank.cashback.model.Reward;
+import com.neobank.cashback.model.RewardStatus;
+import com.neobank.cashback.model.Transaction;
+import com.neobank.cashback.model.TransactionCategory;
+import com.neobank.cashback.model.TransactionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica los totales acumulados por usuario (availableCashback,
+ * totalCashbackEarned, totalSpent) contra un recorrido completo de
+ * referencia, después de crear, confirmar, madurar y cambiar de status
+ * rewards desde varios hilos a la vez.
+ * 
+ * 🎓 TOLERANCIA:
+ * Cada monto se guarda en nano-unidades (Math.round(amount × 1e9)), así
+ * que cada registro sumado puede desviarse ≤ 0.5e-9 de su double. El
+ * test admite 1e-9 por registro sumado: cualquier actualización perdida
+ * o duplicada desvía el total en un monto completo y falla.
+ */
+class CashbackServiceRunningTotalsTest {
+    
+    private static final List<String> USER_IDS = List.of("user-001", "user-002");
+    private static final TransactionCategory[] CATEGORIES = TransactionCategory.values();
+    private static final RewardStatus[] STATUSES = RewardStatus.values();
+    
+    @Test
+    void runningTotalsMatchFullScanAfterConcurrentUpdates() throws Exception {
+        CashbackService service = new CashbackService();
+        List<String> transactionIds = new CopyOnWriteArrayList<>();
+        List<String> rewardIds = new CopyOnWriteArrayList<>();
+        service.getAllTransactions().forEach(tx -> transactionIds.add(tx.getId()));
+        USER_IDS.forEach(userId -> service.getRewardsByUserId(userId).forEach(r -> rewardIds.add(r.getId())));
+        
+        int threads = 8;
+        int opsPerThread = 3_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < opsPerThread; i++) {
+                    switch (random.nextInt(4)) {
+                        case 0 -> {
+                            Transaction tx = service.createTransaction(
+                                    USER_IDS.get(random.nextInt(USER_IDS.size())),
+                                    random.nextInt(1, 50_000) / 100.0,
+                                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                                    "Merchant", null, null);
+                            transactionIds.add(tx.getId());
+                        }
+                        case 1 -> {
+                            // Confirmaciones repetidas/concurrentes de la misma transacción incluidas
+                            Transaction tx = service.confirmTransaction(
+                                    transactionIds.get(random.nextInt(transactionIds.size())));
+                            if (tx != null) {
+                                service.getRewardsByUserId(tx.getUserId()).stream()
+                                        .filter(r -> r.getTransactionId().equals(tx.getId()))
+                                        .forEach(r -> rewardIds.add(r.getId()));
+                            }
+                        }
+                        case 2 -> service.updateRewardStatus(
+                                rewardIds.get(random.nextInt(rewardIds.size())),
+                                STATUSES[random.nextInt(STATUSES.length)]);
+                        default -> service.matureRewards(service.findRewardsDueForMaturation(
+                                LocalDateTime.now().plus(CashbackService.REWARD_MATURATION_PERIOD).plusDays(1), 50));
+                    }
+                }
+                return null;
+            }));
+        }
+        
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        
+        for (String userId : USER_IDS) {
+            List<Reward> rewards = service.getRewardsByUserId(userId);
+            List<Transaction> confirmed = service.getAllTransactions().stream()
+                    .filter(tx -> tx.getUserId().equals(userId))
+                    .filter(tx -> tx.getStatus() == TransactionStatus.CONFIRMED)
+                    .toList();
+            List<Reward> available = rewards.stream()
+                    .filter(r -> r.getStatus() == RewardStatus.AVAILABLE)
+                    .toList();
+            assertTrue(!available.isEmpty() && available.size() < rewards.size(),
+                    "El escenario debe mezclar rewards AVAILABLE y de otros status");
+            
+            assertEquals(sumRewards(available), service.calculateAvailableCashback(userId),
+                    tolerance(available.size()), "availableCashback de " + userId);
+            assertEquals(sumRewards(rewards), service.calculateTotalCashbackEarned(userId),
+                    tolerance(rewards.size()), "totalCashbackEarned de " + userId);
+            assertEquals(confirmed.stream().mapToDouble(Transaction::getAmount).sum(),
+                    service.calculateTotalSpent(userId),
+                    tolerance(confirmed.size()), "totalSpent de " + userId);
+        }
+    }
+    
+    private static double sumRewards(List<Reward> rewards) {
+        return rewards.stream().mapToDouble(Reward::getAmount).sum();
+    }
+    
+    private static double tolerance(int records) {
+        return 1e-9 * Math.max(records, 1);
+    }
+}
@@ -2,6 +2,7 @@ package com.neobank.cashback;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * CAPÍTULO 3: IMPLEMENTACIÓN DE SERVICIO GRAPHQL CON NETFLIX DGS
@@ -76,6 +77,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @version 3.0.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class CashbackServiceDgsApplication {
 
     public static void main(String[] args) {
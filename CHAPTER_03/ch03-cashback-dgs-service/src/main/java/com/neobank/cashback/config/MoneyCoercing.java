@@ -0,0 +1,102 @@
+package com.neobank.cashback.config;
+
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+
+import java.math.BigDecimal;
+
+/**
+ * Coercing directo para el scalar Money (BigDecimal).
+ * 
+ * Reemplaza el alias de ExtendedScalars.GraphQLBigDecimal: el caso común
+ * (un BigDecimal que sale del dominio) se devuelve tal cual, sin pasar por
+ * la capa de alias ni por conversiones a String. Las demás entradas (Number,
+ * String, literales Int/Float/String) se aceptan igual que antes.
+ * 
+ * @see ScalarConfiguration
+ */
+public class MoneyCoercing implements Coercing<BigDecimal, BigDecimal> {
+    
+    /**
+     * Java → GraphQL (respuestas). El JSON mantiene la escala exacta (45.50).
+     */
+    @Override
+    public BigDecimal serialize(Object dataFetcherResult) throws CoercingSerializeException {
+        BigDecimal value = toBigDecimal(dataFetcherResult);
+        if (value == null) {
+            throw new CoercingSerializeException(
+                    "Expected a BigDecimal but was: " + typeOf(dataFetcherResult)
+            );
+        }
+        return value;
+    }
+    
+    /**
+     * JSON variable → Java.
+     */
+    @Override
+    public BigDecimal parseValue(Object input) throws CoercingParseValueException {
+        BigDecimal value = toBigDecimal(input);
+        if (value == null) {
+            throw new CoercingParseValueException(
+                    "Expected a Money value but was: " + typeOf(input)
+            );
+        }
+        return value;
+    }
+    
+    /**
+     * Inline literal → Java.
+     */
+    @Override
+    public BigDecimal parseLiteral(Object input) throws CoercingParseLiteralException {
+        if (input instanceof FloatValue floatValue) {
+            return floatValue.getValue();
+        }
+        if (input instanceof IntValue intValue) {
+            return new BigDecimal(intValue.getValue());
+        }
+        if (input instanceof StringValue stringValue) {
+            try {
+                return new BigDecimal(stringValue.getValue());
+            } catch (NumberFormatException e) {
+                throw new CoercingParseLiteralException("Invalid Money literal: " + stringValue.getValue(), e);
+            }
+        }
+        throw new CoercingParseLiteralException(
+                "Expected a Float, Int or String literal but was: " + typeOf(input)
+        );
+    }
+    
+    private static BigDecimal toBigDecimal(Object input) {
+        if (input instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (input instanceof Integer || input instanceof Long || input instanceof Short || input instanceof Byte) {
+            return BigDecimal.valueOf(((Number) input).longValue());
+        }
+        if (input instanceof Double || input instanceof Float) {
+            return BigDecimal.valueOf(((Number) input).doubleValue());
+        }
+        if (input instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        if (input instanceof String text) {
+            try {
+                return new BigDecimal(text);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+    
+    private static String typeOf(Object input) {
+        return input == null ? "null" : input.getClass().getSimpleName();
+    }
+}
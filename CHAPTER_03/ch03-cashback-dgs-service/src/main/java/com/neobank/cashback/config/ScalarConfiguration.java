@@ -3,17 +3,9 @@ package com.neobank.cashback.config;
 import com.netflix.graphql.dgs.DgsComponent;
 import com.netflix.graphql.dgs.DgsRuntimeWiring;
 import graphql.scalars.ExtendedScalars;
-import graphql.schema.Coercing;
-import graphql.schema.CoercingParseLiteralException;
-import graphql.schema.CoercingParseValueException;
-import graphql.schema.CoercingSerializeException;
 import graphql.schema.GraphQLScalarType;
 import graphql.schema.idl.RuntimeWiring;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-
 /**
  * Configuración de Custom Scalars para Netflix DGS.
  * 
@@ -83,9 +75,7 @@ public class ScalarConfiguration {
                 // Usa BigDecimal para precisión monetaria (evitar errores de float)
                 // Ejemplo: "45.50" → BigDecimal(45.50)
                 // ─────────────────────────────────────────────────────────
-                .scalar(ExtendedScalars.newAliasedScalar("Money")
-                        .aliasedScalar(ExtendedScalars.GraphQLBigDecimal)
-                        .build())
+                .scalar(createMoneyScalar())
                 
                 // ─────────────────────────────────────────────────────────
                 // DATE SCALAR (de graphql-java-extended-scalars)
@@ -102,6 +92,24 @@ public class ScalarConfiguration {
                 .scalar(createLocalDateTimeScalar());
     }
     
+    /**
+     * Crea el scalar Money con un Coercing directo sobre BigDecimal.
+     * 
+     * 🚀 OPTIMIZACIÓN:
+     * Antes era un alias de ExtendedScalars.GraphQLBigDecimal. Money es el
+     * scalar más serializado de la API (amount, totales, balances), así que
+     * el camino caliente devuelve el BigDecimal del dominio sin conversiones.
+     * 
+     * @return GraphQLScalarType configurado para BigDecimal
+     */
+    private GraphQLScalarType createMoneyScalar() {
+        return GraphQLScalarType.newScalar()
+                .name("Money")
+                .description("Monto monetario con precisión decimal (ej: 45.50)")
+                .coercing(new MoneyCoercing())
+                .build();
+    }
+    
     /**
      * Crea un scalar GraphQL personalizado para LocalDateTime.
      * 
@@ -114,77 +122,18 @@ public class ScalarConfiguration {
      * Nosotros usamos LocalDateTime (sin zona) que es más simple
      * para este ejemplo.
      * 
+     * 🚀 OPTIMIZACIÓN:
+     * FastDateTimeCoercing escribe/parsea la forma canónica a mano (con caché
+     * de parseo) y solo recurre a DateTimeFormatter.ISO_LOCAL_DATE_TIME en
+     * casos raros. El formato de salida es idéntico.
+     * 
      * @return GraphQLScalarType configurado para LocalDateTime
      */
     private GraphQLScalarType createLocalDateTimeScalar() {
         return GraphQLScalarType.newScalar()
                 .name("DateTime")
                 .description("Fecha y hora en formato ISO-8601 (ej: 2024-01-15T14:30:00)")
-                .coercing(new Coercing<LocalDateTime, String>() {
-                    
-                    private final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-                    
-                    /**
-                     * Java → GraphQL (respuestas).
-                     * Convierte LocalDateTime a String ISO-8601.
-                     */
-                    @Override
-                    public String serialize(Object dataFetcherResult) throws CoercingSerializeException {
-                        if (dataFetcherResult instanceof LocalDateTime) {
-                            return ((LocalDateTime) dataFetcherResult).format(formatter);
-                        }
-                        throw new CoercingSerializeException(
-                                "Expected a LocalDateTime but was: " + dataFetcherResult.getClass()
-                        );
-                    }
-                    
-                    /**
-                     * JSON variable → Java.
-                     * Convierte String de variable JSON a LocalDateTime.
-                     * 
-                     * Ejemplo en query:
-                     * mutation($date: DateTime!) { ... }
-                     * Variables: { "date": "2024-01-15T14:30:00" }
-                     */
-                    @Override
-                    public LocalDateTime parseValue(Object input) throws CoercingParseValueException {
-                        try {
-                            if (input instanceof String) {
-                                return LocalDateTime.parse((String) input, formatter);
-                            }
-                            throw new CoercingParseValueException(
-                                    "Expected a String but was: " + input.getClass()
-                            );
-                        } catch (DateTimeParseException e) {
-                            throw new CoercingParseValueException(
-                                    "Invalid DateTime format. Expected ISO-8601 (e.g., '2024-01-15T14:30:00')", e
-                            );
-                        }
-                    }
-                    
-                    /**
-                     * Inline literal → Java.
-                     * Convierte valor hardcoded en query a LocalDateTime.
-                     * 
-                     * Ejemplo en query:
-                     * { rewardsAfter(date: "2024-01-15T14:30:00") { ... } }
-                     */
-                    @Override
-                    public LocalDateTime parseLiteral(Object input) throws CoercingParseLiteralException {
-                        try {
-                            if (input instanceof String) {
-                                return LocalDateTime.parse((String) input, formatter);
-                            }
-                            throw new CoercingParseLiteralException(
-                                    "Expected a String literal but was: " + input.getClass()
-                            );
-                        } catch (DateTimeParseException e) {
-                            throw new CoercingParseLiteralException(
-                                    "Invalid DateTime format. Expected ISO-8601", e
-                            );
-                        }
-                    }
-                })
+                .coercing(new FastDateTimeCoercing())
                 .build();
     }
 }
@@ -196,9 +145,9 @@ public class ScalarConfiguration {
  * 
  * 📊 SCALARS REGISTRADOS:
  * ┌─────────────────────────────────────────────────────────────────────────┐
- * │  Money     │  BigDecimal      │  ExtendedScalars alias                 │
+ * │  Money     │  BigDecimal      │  MoneyCoercing (directo)               │
  * │  Date      │  LocalDate       │  ExtendedScalars.Date                  │
- * │  DateTime  │  LocalDateTime   │  Custom implementation                 │
+ * │  DateTime  │  LocalDateTime   │  FastDateTimeCoercing                  │
  * └─────────────────────────────────────────────────────────────────────────┘
  * 
  * 🎯 EN EL SCHEMA SE DECLARAN ASÍ:
@@ -1,6 +1,8 @@
 package com.neobank.cashback.datafetcher;
 
+import com.neobank.cashback.domain.BulkRewardsResult;
 import com.neobank.cashback.domain.Reward;
+import com.neobank.cashback.domain.RewardRequest;
 import com.neobank.cashback.domain.RewardStatus;
 import com.neobank.cashback.domain.RewardTier;
 import com.neobank.cashback.domain.RedemptionResult;
@@ -12,6 +14,8 @@ import com.netflix.graphql.dgs.DgsMutation;
 import com.netflix.graphql.dgs.InputArgument;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * SECCIÓN 3.4: Mutations y lógica de negocio integrada
@@ -59,6 +63,28 @@ public class MutationDataFetcher {
         );
     }
     
+    /**
+     * Mutation: createRewards(inputs: [CreateRewardInput!]!): BulkRewardsResult!
+     * 
+     * Versión en lote de createReward para el job de liquidación nocturna:
+     * una sola llamada para cientos de miles de transacciones.
+     * 
+     * Devuelve un resultado por input (mismo orden). Los inputs que fallan
+     * no impiden que se creen los demás.
+     */
+    @DgsMutation
+    public BulkRewardsResult createRewards(@InputArgument List<CreateRewardInput> inputs) {
+        List<RewardRequest> requests = inputs.stream()
+            .map(input -> new RewardRequest(
+                input.getUserId(),
+                input.getTransactionId(),
+                input.getTransactionAmount(),
+                input.getCategory(),
+                input.getDescription()))
+            .collect(Collectors.toList());
+        return cashbackService.createRewards(requests);
+    }
+    
     /**
      * Mutation: redeemCashback(input: RedeemCashbackInput!): RedemptionResult!
      * 
@@ -1,15 +1,24 @@
 package com.neobank.cashback.datafetcher;
 
+import com.neobank.cashback.dataloader.DataLoaderMetrics;
 import com.neobank.cashback.domain.CashbackRule;
 import com.neobank.cashback.domain.Reward;
 import com.neobank.cashback.domain.RewardStatus;
 import com.neobank.cashback.domain.RewardTier;
 import com.neobank.cashback.domain.TransactionCategory;
 import com.neobank.cashback.domain.User;
+import com.neobank.cashback.ledger.CashbackLedger;
+import com.neobank.cashback.ledger.LedgerEntry;
 import com.neobank.cashback.repository.CashbackRuleRepository;
+import com.neobank.cashback.repository.RewardOrder;
+import com.neobank.cashback.repository.RewardPage;
+import com.neobank.cashback.repository.RewardQuery;
+import com.neobank.cashback.repository.RewardQueryPlanner;
 import com.neobank.cashback.repository.RewardRepository;
 import com.neobank.cashback.repository.UserRepository;
+import com.neobank.cashback.repository.UserRewardsTotals;
 import com.neobank.cashback.service.CashbackService;
+import com.neobank.cashback.service.RewardExpiryScheduler;
 import com.netflix.graphql.dgs.DgsComponent;
 import com.netflix.graphql.dgs.DgsQuery;
 import com.netflix.graphql.dgs.InputArgument;
@@ -41,13 +50,23 @@ public class QueryDataFetcher {
 	private final RewardRepository rewardRepository;
 	private final CashbackRuleRepository ruleRepository;
 	private final CashbackService cashbackService;
+	private final DataLoaderMetrics dataLoaderMetrics;
+	private final RewardExpiryScheduler expiryScheduler;
+	private final CashbackLedger ledger;
+	private final RewardQueryPlanner queryPlanner;
 
 	public QueryDataFetcher(UserRepository userRepository, RewardRepository rewardRepository,
-			CashbackRuleRepository ruleRepository, CashbackService cashbackService) {
+			CashbackRuleRepository ruleRepository, CashbackService cashbackService,
+			DataLoaderMetrics dataLoaderMetrics, RewardExpiryScheduler expiryScheduler, CashbackLedger ledger,
+			RewardQueryPlanner queryPlanner) {
 		this.userRepository = userRepository;
 		this.rewardRepository = rewardRepository;
 		this.ruleRepository = ruleRepository;
 		this.cashbackService = cashbackService;
+		this.dataLoaderMetrics = dataLoaderMetrics;
+		this.expiryScheduler = expiryScheduler;
+		this.ledger = ledger;
+		this.queryPlanner = queryPlanner;
 	}
 
 	/**
@@ -81,27 +100,29 @@ public class QueryDataFetcher {
 	}
 
 	/**
-	 * Query: rewards(filter: RewardsFilterInput): [Reward!]!
+	 * Query: rewards(filter: RewardsFilterInput, first: Int, after: String,
+	 * orderBy: RewardOrder): RewardConnection!
 	 * 
-	 * Lista rewards con filtros opcionales. Demuestra el uso de input types
-	 * complejos.
+	 * Lista rewards con filtros opcionales, paginada con cursores keyset.
+	 * RewardQueryPlanner elige el índice más selectivo para el filtro y aplica
+	 * el resto de criterios como filtro residual.
 	 */
 	@DgsQuery
-	public List<Reward> rewards(@InputArgument RewardsFilterInput filter) {
-		List<Reward> allRewards = rewardRepository.findAll();
+	public RewardConnection rewards(@InputArgument RewardsFilterInput filter, @InputArgument Integer first,
+			@InputArgument String after, @InputArgument RewardOrder orderBy) {
+		RewardQuery query = filter == null ? RewardQuery.all()
+				: new RewardQuery(filter.getUserId(), filter.getStatus(), filter.getCategory(), filter.getMinAmount(),
+						filter.getMaxAmount(), filter.getEarnedAfter(), filter.getEarnedBefore());
 
-		if (filter == null) {
-			return allRewards;
-		}
+		RewardPage page = queryPlanner.execute(query, orderBy, first, after);
 
-		return allRewards.stream().filter(r -> filter.getUserId() == null || r.getUserId().equals(filter.getUserId()))
-				.filter(r -> filter.getStatus() == null || r.getStatus() == filter.getStatus())
-				.filter(r -> filter.getCategory() == null || r.getCategory() == filter.getCategory())
-				.filter(r -> filter.getMinAmount() == null || r.getAmount().compareTo(filter.getMinAmount()) >= 0)
-				.filter(r -> filter.getMaxAmount() == null || r.getAmount().compareTo(filter.getMaxAmount()) <= 0)
-				.filter(r -> filter.getEarnedAfter() == null || r.getEarnedAt().isAfter(filter.getEarnedAfter()))
-				.filter(r -> filter.getEarnedBefore() == null || r.getEarnedAt().isBefore(filter.getEarnedBefore()))
+		List<RewardEdge> edges = page.getItems().stream()
+				.map(reward -> new RewardEdge(reward, page.cursorOf(reward)))
 				.collect(Collectors.toList());
+		PageInfo pageInfo = new PageInfo(page.isHasNextPage(), page.isHasPreviousPage(),
+				edges.isEmpty() ? null : edges.get(0).getCursor(),
+				edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor());
+		return new RewardConnection(edges, pageInfo, page.getPlan());
 	}
 
 	/**
@@ -121,41 +142,24 @@ public class QueryDataFetcher {
 	/**
 	 * Query: rewardsSummary(userId: ID!): RewardsSummary
 	 * 
-	 * Genera un resumen agregado de las rewards del usuario. Demuestra queries
-	 * complejas con cálculos.
+	 * Genera un resumen agregado de las rewards del usuario. Lee el resumen
+	 * materializado que RewardRepository mantiene en cada escritura, así que
+	 * no recorre las rewards del usuario en cada llamada.
 	 */
 	@DgsQuery
 	public RewardsSummary rewardsSummary(@InputArgument String userId) {
-		List<Reward> userRewards = rewardRepository.findByUserId(userId);
-
-		BigDecimal totalEarned = userRewards.stream().map(Reward::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-		BigDecimal totalRedeemed = userRewards.stream().filter(r -> r.getStatus() == RewardStatus.REDEEMED)
-				.map(Reward::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-		BigDecimal totalExpired = userRewards.stream().filter(r -> r.getStatus() == RewardStatus.EXPIRED)
-				.map(Reward::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+		UserRewardsTotals totals = rewardRepository.findTotalsByUserId(userId);
 
-		BigDecimal availableBalance = userRewards.stream().filter(r -> r.getStatus() == RewardStatus.ACTIVE)
-				.map(Reward::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-		// Agrupar por categoría
-		List<CategorySummary> byCategory = userRewards.stream().collect(Collectors.groupingBy(Reward::getCategory))
-				.entrySet().stream().map(entry -> {
-					BigDecimal total = entry.getValue().stream().map(Reward::getAmount).reduce(BigDecimal.ZERO,
-							BigDecimal::add);
-					return new CategorySummary(entry.getKey(), total, entry.getValue().size());
-				}).collect(Collectors.toList());
+		List<CategorySummary> byCategory = totals.byCategory().entrySet().stream()
+				.map(entry -> new CategorySummary(entry.getKey(), entry.getValue().total(), entry.getValue().count()))
+				.collect(Collectors.toList());
 
-		// Agrupar por estado
-		List<StatusSummary> byStatus = userRewards.stream().collect(Collectors.groupingBy(Reward::getStatus)).entrySet()
-				.stream().map(entry -> {
-					BigDecimal total = entry.getValue().stream().map(Reward::getAmount).reduce(BigDecimal.ZERO,
-							BigDecimal::add);
-					return new StatusSummary(entry.getKey(), total, entry.getValue().size());
-				}).collect(Collectors.toList());
+		List<StatusSummary> byStatus = totals.byStatus().entrySet().stream()
+				.map(entry -> new StatusSummary(entry.getKey(), entry.getValue().total(), entry.getValue().count()))
+				.collect(Collectors.toList());
 
-		return new RewardsSummary(userId, totalEarned, totalRedeemed, totalExpired, availableBalance, byCategory, byStatus);
+		return new RewardsSummary(userId, totals.total(), totals.totalFor(RewardStatus.REDEEMED),
+				totals.totalFor(RewardStatus.EXPIRED), totals.totalFor(RewardStatus.ACTIVE), byCategory, byStatus);
 	}
 
 	/**
@@ -190,6 +194,38 @@ public class QueryDataFetcher {
 			@InputArgument TransactionCategory category) {
 		return cashbackService.calculateCashback(userId, transactionAmount, category);
 	}
+
+	/**
+	 * Query: dataLoaderStats: [DataLoaderStats!]!
+	 * 
+	 * Métricas acumuladas de cada DataLoader (batches, keys, tamaño máximo y
+	 * latencia media de carga).
+	 */
+	@DgsQuery
+	public List<DataLoaderMetrics.LoaderStats> dataLoaderStats() {
+		return dataLoaderMetrics.snapshot();
+	}
+
+	/**
+	 * Query: expiryStats: ExpiryStats!
+	 * 
+	 * Métricas del scheduler de expiración (lotes, lag y tamaño de lote).
+	 */
+	@DgsQuery
+	public RewardExpiryScheduler.ExpiryStats expiryStats() {
+		return expiryScheduler.stats();
+	}
+
+	/**
+	 * Query: ledgerEntries(userId: ID!, last: Int = 50): [LedgerEntry!]!
+	 * 
+	 * Auditoría: últimos movimientos del ledger de cashback del usuario, del
+	 * más reciente al más antiguo.
+	 */
+	@DgsQuery
+	public List<LedgerEntry> ledgerEntries(@InputArgument String userId, @InputArgument Integer last) {
+		return ledger.entries(userId, last != null ? last : 50);
+	}
 }
 
 /**
@@ -336,4 +372,79 @@ class RewardsSummary {
 	public List<StatusSummary> getRewardsByStatus() {
 		return rewardsByStatus;
 	}
-}
\ No newline at end of file
+}
+
+/**
+ * Conexión paginada (estilo Relay) de la query rewards.
+ */
+class RewardConnection {
+	private List<RewardEdge> edges;
+	private PageInfo pageInfo;
+	private String queryPlan;
+
+	public RewardConnection(List<RewardEdge> edges, PageInfo pageInfo, String queryPlan) {
+		this.edges = edges;
+		this.pageInfo = pageInfo;
+		this.queryPlan = queryPlan;
+	}
+
+	public List<RewardEdge> getEdges() {
+		return edges;
+	}
+
+	public PageInfo getPageInfo() {
+		return pageInfo;
+	}
+
+	public String getQueryPlan() {
+		return queryPlan;
+	}
+}
+
+class RewardEdge {
+	private Reward node;
+	private String cursor;
+
+	public RewardEdge(Reward node, String cursor) {
+		this.node = node;
+		this.cursor = cursor;
+	}
+
+	public Reward getNode() {
+		return node;
+	}
+
+	public String getCursor() {
+		return cursor;
+	}
+}
+
+class PageInfo {
+	private Boolean hasNextPage;
+	private Boolean hasPreviousPage;
+	private String startCursor;
+	private String endCursor;
+
+	public PageInfo(Boolean hasNextPage, Boolean hasPreviousPage, String startCursor, String endCursor) {
+		this.hasNextPage = hasNextPage;
+		this.hasPreviousPage = hasPreviousPage;
+		this.startCursor = startCursor;
+		this.endCursor = endCursor;
+	}
+
+	public Boolean getHasNextPage() {
+		return hasNextPage;
+	}
+
+	public Boolean getHasPreviousPage() {
+		return hasPreviousPage;
+	}
+
+	public String getStartCursor() {
+		return startCursor;
+	}
+
+	public String getEndCursor() {
+		return endCursor;
+	}
+}
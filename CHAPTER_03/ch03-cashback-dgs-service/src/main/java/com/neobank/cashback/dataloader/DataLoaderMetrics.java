@@ -0,0 +1,83 @@
+package com.neobank.cashback.dataloader;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas por DataLoader: cuántos batches se ejecutaron, cuántas keys
+ * llegaron, el batch más grande visto y el tiempo total de carga.
+ * 
+ * Permite comprobar que un batch de 10 usuarios cuesta 10 lookups y no un
+ * scan de toda la tabla (ver Query.dataLoaderStats).
+ */
+@Component
+public class DataLoaderMetrics {
+    
+    private final Map<String, LoaderStats> stats = new ConcurrentHashMap<>();
+    
+    /**
+     * Registra un batch ejecutado por el loader indicado.
+     * 
+     * @param loaderName nombre del @DgsDataLoader
+     * @param keys       número de keys del batch
+     * @param nanos      duración de la carga en nanosegundos
+     */
+    public void record(String loaderName, int keys, long nanos) {
+        LoaderStats loaderStats = stats.computeIfAbsent(loaderName, LoaderStats::new);
+        loaderStats.batches.increment();
+        loaderStats.keys.add(keys);
+        loaderStats.loadNanos.add(nanos);
+        loaderStats.maxBatchSize.accumulateAndGet(keys, Math::max);
+    }
+    
+    public List<LoaderStats> snapshot() {
+        return new ArrayList<>(stats.values());
+    }
+    
+    /**
+     * Contadores de un DataLoader (tipo GraphQL DataLoaderStats).
+     */
+    public static class LoaderStats {
+        private final String name;
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder keys = new LongAdder();
+        private final LongAdder loadNanos = new LongAdder();
+        private final AtomicInteger maxBatchSize = new AtomicInteger();
+        
+        LoaderStats(String name) {
+            this.name = name;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public long getBatches() {
+            return batches.sum();
+        }
+        
+        public long getKeys() {
+            return keys.sum();
+        }
+        
+        public int getMaxBatchSize() {
+            return maxBatchSize.get();
+        }
+        
+        public double getAvgBatchSize() {
+            long count = batches.sum();
+            return count == 0 ? 0.0 : (double) keys.sum() / count;
+        }
+        
+        public double getAvgLoadMillis() {
+            long count = batches.sum();
+            return count == 0 ? 0.0 : loadNanos.sum() / 1_000_000.0 / count;
+        }
+    }
+}
@@ -28,13 +28,21 @@ import java.util.stream.Collectors;
  * IMPORTANTE: Este DataLoader retorna una LISTA de rewards por cada userId,
  * a diferencia de UserDataLoader que retorna UN solo User por userId.
  */
-@DgsDataLoader(name = "rewards")
+@DgsDataLoader(name = "rewards", maxBatchSize = RewardsDataLoader.MAX_BATCH_SIZE)
 public class RewardsDataLoader implements BatchLoader<String, List<Reward>> {
     
+    /**
+     * Tope de usuarios por batch. Cada usuario puede arrastrar muchas
+     * rewards, por eso el tope es menor que el de UserDataLoader.
+     */
+    static final int MAX_BATCH_SIZE = 200;
+    
     private final RewardRepository rewardRepository;
+    private final DataLoaderMetrics metrics;
     
-    public RewardsDataLoader(RewardRepository rewardRepository) {
+    public RewardsDataLoader(RewardRepository rewardRepository, DataLoaderMetrics metrics) {
         this.rewardRepository = rewardRepository;
+        this.metrics = metrics;
     }
     
     /**
@@ -47,13 +55,10 @@ public class RewardsDataLoader implements BatchLoader<String, List<Reward>> {
     public CompletionStage<List<List<Reward>>> load(List<String> userIds) {
         System.out.println("🔥 DataLoader batch loading rewards for " + userIds.size() + " users: " + userIds);
         
-        // Obtener TODAS las rewards de una vez
-        List<Reward> allRewards = rewardRepository.findAll();
+        long start = System.nanoTime();
         
-        // Agrupar por userId
-        Map<String, List<Reward>> rewardsByUser = allRewards.stream()
-            .filter(reward -> userIds.contains(reward.getUserId()))
-            .collect(Collectors.groupingBy(Reward::getUserId));
+        // Solo las rewards de los usuarios pedidos (índice userId → ids)
+        Map<String, List<Reward>> rewardsByUser = rewardRepository.findByUserIds(userIds);
         
         // CRÍTICO: Devolver en el mismo orden que userIds
         // Si un usuario no tiene rewards, devolver lista vacía (NO null)
@@ -61,6 +66,7 @@ public class RewardsDataLoader implements BatchLoader<String, List<Reward>> {
             .map(userId -> rewardsByUser.getOrDefault(userId, List.of()))
             .collect(Collectors.toList());
         
+        metrics.record("rewards", userIds.size(), System.nanoTime() - start);
         return CompletableFuture.completedFuture(result);
     }
 }
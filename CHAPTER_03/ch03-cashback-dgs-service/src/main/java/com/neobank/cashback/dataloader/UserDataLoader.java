@@ -80,13 +80,21 @@ import java.util.stream.Collectors;
  * - DataLoader: Server-side, per-request caching
  * - Apollo Client: Client-side, persistent caching
  */
-@DgsDataLoader(name = "users")
+@DgsDataLoader(name = "users", maxBatchSize = UserDataLoader.MAX_BATCH_SIZE)
 public class UserDataLoader implements BatchLoader<String, User> {
     
+    /**
+     * Tope de keys por batch: DataLoader parte en varios batches las
+     * peticiones que lo superen, acotando el tamaño de cada lookup.
+     */
+    static final int MAX_BATCH_SIZE = 500;
+    
     private final UserRepository userRepository;
+    private final DataLoaderMetrics metrics;
     
-    public UserDataLoader(UserRepository userRepository) {
+    public UserDataLoader(UserRepository userRepository, DataLoaderMetrics metrics) {
         this.userRepository = userRepository;
+        this.metrics = metrics;
     }
     
     /**
@@ -105,13 +113,14 @@ public class UserDataLoader implements BatchLoader<String, User> {
         // Log para demostrar el batching en acción
         System.out.println("🔥 DataLoader batch loading " + userIds.size() + " users: " + userIds);
         
-        // Obtener todos los usuarios en UNA SOLA operación
-        List<User> allUsers = userRepository.findAll();
+        long start = System.nanoTime();
         
-        // Crear mapa para lookup eficiente
-        Map<String, User> userMap = allUsers.stream()
-            .filter(user -> userIds.contains(user.getId()))
-            .collect(Collectors.toMap(User::getId, user -> user));
+        // Lookup por hash SOLO de las keys pedidas (no findAll + contains).
+        // Con el cache del DataLoader desactivado la misma key puede llegar
+        // repetida: el merge se queda con la primera en vez de lanzar
+        // IllegalStateException por clave duplicada.
+        Map<String, User> userMap = userRepository.findAllById(userIds).stream()
+            .collect(Collectors.toMap(User::getId, user -> user, (first, duplicate) -> first));
         
         // CRÍTICO: Devolver usuarios en el MISMO ORDEN que las keys
         // Si key no existe, devolver null
@@ -119,6 +128,7 @@ public class UserDataLoader implements BatchLoader<String, User> {
             .map(userMap::get)
             .collect(Collectors.toList());
         
+        metrics.record("users", userIds.size(), System.nanoTime() - start);
         return CompletableFuture.completedFuture(result);
     }
 }
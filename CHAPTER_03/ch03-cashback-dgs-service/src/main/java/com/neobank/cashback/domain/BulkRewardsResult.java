@@ -0,0 +1,45 @@
+package com.neobank.cashback.domain;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Respuesta de la mutation createRewards.
+ * 
+ * El lote es de éxito parcial: cada input tiene su CreateRewardResult en el
+ * mismo orden en que llegó, y los fallos no revierten los demás elementos.
+ */
+public class BulkRewardsResult {
+    
+    private List<CreateRewardResult> results;
+    private Integer createdCount;
+    private Integer failedCount;
+    private BigDecimal totalCashback;
+    
+    public BulkRewardsResult() {
+    }
+    
+    public BulkRewardsResult(List<CreateRewardResult> results, Integer createdCount,
+                             Integer failedCount, BigDecimal totalCashback) {
+        this.results = results;
+        this.createdCount = createdCount;
+        this.failedCount = failedCount;
+        this.totalCashback = totalCashback;
+    }
+    
+    public List<CreateRewardResult> getResults() {
+        return results;
+    }
+    
+    public Integer getCreatedCount() {
+        return createdCount;
+    }
+    
+    public Integer getFailedCount() {
+        return failedCount;
+    }
+    
+    public BigDecimal getTotalCashback() {
+        return totalCashback;
+    }
+}
@@ -0,0 +1,49 @@
+package com.neobank.cashback.domain;
+
+/**
+ * Resultado de un elemento de la mutation createRewards.
+ * 
+ * index apunta a la posición del input original; si success es false,
+ * reward es null y message explica el motivo.
+ */
+public class CreateRewardResult {
+    
+    private Integer index;
+    private Boolean success;
+    private String message;
+    private Reward reward;
+    
+    public CreateRewardResult() {
+    }
+    
+    public CreateRewardResult(Integer index, Boolean success, String message, Reward reward) {
+        this.index = index;
+        this.success = success;
+        this.message = message;
+        this.reward = reward;
+    }
+    
+    public static CreateRewardResult created(int index, Reward reward) {
+        return new CreateRewardResult(index, true, "Reward created", reward);
+    }
+    
+    public static CreateRewardResult failed(int index, String message) {
+        return new CreateRewardResult(index, false, message, null);
+    }
+    
+    public Integer getIndex() {
+        return index;
+    }
+    
+    public Boolean getSuccess() {
+        return success;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public Reward getReward() {
+        return reward;
+    }
+}
@@ -0,0 +1,49 @@
+package com.neobank.cashback.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Solicitud de creación de una reward dentro de un lote (createRewards).
+ * 
+ * Equivale a un CreateRewardInput ya desacoplado de la capa GraphQL.
+ */
+public class RewardRequest {
+    
+    private String userId;
+    private String transactionId;
+    private BigDecimal transactionAmount;
+    private TransactionCategory category;
+    private String description;
+    
+    public RewardRequest() {
+    }
+    
+    public RewardRequest(String userId, String transactionId, BigDecimal transactionAmount,
+                         TransactionCategory category, String description) {
+        this.userId = userId;
+        this.transactionId = transactionId;
+        this.transactionAmount = transactionAmount;
+        this.category = category;
+        this.description = description;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public BigDecimal getTransactionAmount() {
+        return transactionAmount;
+    }
+    
+    public TransactionCategory getCategory() {
+        return category;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
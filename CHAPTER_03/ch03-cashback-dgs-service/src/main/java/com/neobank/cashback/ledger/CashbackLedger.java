@@ -0,0 +1,180 @@
+package com.neobank.cashback.ledger;
+
+import com.neobank.cashback.domain.User;
+import com.neobank.cashback.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Ledger de balances de cashback por usuario.
+ * 
+ * 🎓 PROBLEMA QUE RESUELVE:
+ * Antes cada operación hacía "leer availableCashback → aritmética BigDecimal →
+ * userRepository.save". Dos redenciones concurrentes podían pasar ambas la
+ * validación de saldo y dejar la cuenta en negativo.
+ * 
+ * 🔒 ESTRATEGIA:
+ * - Balance inmutable en centavos (long) por usuario
+ * - Cada movimiento se aplica dentro de balances.compute(userId, ...): el
+ *   lock es por entrada del mapa (striping del ConcurrentHashMap), así que
+ *   usuarios distintos no compiten entre sí y no hay lock global
+ * - Validación de saldo + débito + asiento de auditoría ocurren en el mismo
+ *   paso atómico
+ * - El User se actualiza dentro del mismo paso (write-through), por lo que
+ *   User.availableCashback nunca queda desordenado respecto del ledger
+ * 
+ * El balance de un usuario se inicializa perezosamente desde su User la
+ * primera vez que se mueve.
+ */
+@Component
+public class CashbackLedger {
+    
+    private final UserRepository userRepository;
+    private final Map<String, Balance> balances = new ConcurrentHashMap<>();
+    private final Map<String, Deque<LedgerEntry>> entriesByUser = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    
+    public CashbackLedger(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Acredita cashback ganado.
+     * 
+     * @return Balance disponible después del movimiento
+     */
+    public BigDecimal credit(String userId, BigDecimal amount, String reference) {
+        long cents = toCents(amount);
+        Balance after = apply(userId, LedgerEntryType.CREDIT, cents, reference,
+                current -> new Balance(current.earnedCents + cents, current.availableCents + cents));
+        return fromCents(after.availableCents);
+    }
+    
+    /**
+     * Debita el importe solo si el saldo disponible alcanza. La validación y
+     * el débito son atómicos respecto de cualquier otro movimiento del usuario.
+     * 
+     * @return Balance disponible después del débito, o vacío si el saldo era insuficiente
+     */
+    public Optional<BigDecimal> debitIfSufficient(String userId, BigDecimal amount, String reference) {
+        long cents = toCents(amount);
+        boolean[] debited = {false};
+        Balance after = apply(userId, LedgerEntryType.DEBIT, cents, reference, current -> {
+            if (current.availableCents < cents) {
+                return null;
+            }
+            debited[0] = true;
+            return new Balance(current.earnedCents, current.availableCents - cents);
+        });
+        return debited[0] ? Optional.of(fromCents(after.availableCents)) : Optional.empty();
+    }
+    
+    /**
+     * Revierte cashback de una reward cancelada o expirada. No valida saldo:
+     * el cashback ya estaba acreditado y se retira tal cual.
+     */
+    public BigDecimal reverse(String userId, BigDecimal amount, String reference) {
+        long cents = toCents(amount);
+        Balance after = apply(userId, LedgerEntryType.REVERSAL, cents, reference,
+                current -> new Balance(current.earnedCents, current.availableCents - cents));
+        return fromCents(after.availableCents);
+    }
+    
+    public BigDecimal availableBalance(String userId) {
+        Balance balance = balances.get(userId);
+        if (balance != null) {
+            return fromCents(balance.availableCents);
+        }
+        return userRepository.findById(userId)
+                .map(User::getAvailableCashback)
+                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+    }
+    
+    /**
+     * Últimos movimientos del usuario, del más reciente al más antiguo.
+     */
+    public List<LedgerEntry> entries(String userId, int limit) {
+        Deque<LedgerEntry> entries = entriesByUser.get(userId);
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+        List<LedgerEntry> result = new ArrayList<>(Math.min(limit, 64));
+        Iterator<LedgerEntry> it = entries.descendingIterator();
+        while (it.hasNext() && result.size() < limit) {
+            result.add(it.next());
+        }
+        return result;
+    }
+    
+    /**
+     * Aplica un movimiento de forma atómica para el usuario.
+     * 
+     * Si 'transition' devuelve null el movimiento se rechaza: el balance no
+     * cambia y no se asienta nada.
+     */
+    private Balance apply(String userId, LedgerEntryType type, long cents, String reference,
+                          UnaryOperator<Balance> transition) {
+        return balances.compute(userId, (key, current) -> {
+            Balance before = current != null ? current : loadBalance(key);
+            Balance after = transition.apply(before);
+            if (after == null) {
+                return before;
+            }
+            
+            User user = userRepository.findById(key).orElseThrow();
+            user.setTotalCashbackEarned(fromCents(after.earnedCents));
+            user.setAvailableCashback(fromCents(after.availableCents));
+            userRepository.save(user);
+            
+            entriesByUser.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>())
+                    .addLast(new LedgerEntry(sequence.incrementAndGet(), key, type, cents,
+                            after.availableCents, reference, LocalDateTime.now()));
+            return after;
+        });
+    }
+    
+    private Balance loadBalance(String userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        return new Balance(toCents(user.getTotalCashbackEarned()), toCents(user.getAvailableCashback()));
+    }
+    
+    /**
+     * Convierte a centavos sin redondear: un monto con más de 2 decimales se
+     * rechaza en vez de ajustarse en silencio (el ledger nunca inventa ni
+     * pierde fracciones de centavo).
+     * 
+     * @throws IllegalArgumentException si el monto tiene más de 2 decimales
+     */
+    static long toCents(BigDecimal amount) {
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most 2 decimals: " + amount);
+        }
+    }
+    
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    /**
+     * Balance inmutable en centavos.
+     */
+    private record Balance(long earnedCents, long availableCents) {
+    }
+}
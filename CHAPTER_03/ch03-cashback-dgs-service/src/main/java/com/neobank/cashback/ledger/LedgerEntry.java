@@ -0,0 +1,59 @@
+package com.neobank.cashback.ledger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento inmutable del ledger de cashback (auditoría).
+ * 
+ * Los importes se guardan en centavos; los getters los exponen como Money.
+ */
+public class LedgerEntry {
+    
+    private final long sequence;
+    private final String userId;
+    private final LedgerEntryType type;
+    private final long amountCents;
+    private final long availableAfterCents;
+    private final String reference;
+    private final LocalDateTime createdAt;
+    
+    LedgerEntry(long sequence, String userId, LedgerEntryType type, long amountCents,
+                long availableAfterCents, String reference, LocalDateTime createdAt) {
+        this.sequence = sequence;
+        this.userId = userId;
+        this.type = type;
+        this.amountCents = amountCents;
+        this.availableAfterCents = availableAfterCents;
+        this.reference = reference;
+        this.createdAt = createdAt;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public LedgerEntryType getType() {
+        return type;
+    }
+    
+    public BigDecimal getAmount() {
+        return CashbackLedger.fromCents(amountCents);
+    }
+    
+    public BigDecimal getAvailableAfter() {
+        return CashbackLedger.fromCents(availableAfterCents);
+    }
+    
+    public String getReference() {
+        return reference;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.neobank.cashback.ledger;
+
+/**
+ * Tipos de movimiento del ledger de cashback.
+ */
+public enum LedgerEntryType {
+    /**
+     * Cashback ganado: suma a totalEarned y a available
+     */
+    CREDIT,
+    
+    /**
+     * Redención: resta de available (solo si hay saldo suficiente)
+     */
+    DEBIT,
+    
+    /**
+     * Reversión de una reward ACTIVE cancelada o expirada: resta de available
+     */
+    REVERSAL
+}
@@ -13,14 +13,19 @@ import java.util.concurrent.ConcurrentHashMap;
  * Repositorio de reglas de cashback.
  * 
  * Define cuánto cashback se otorga por cada categoría de transacción.
+ * 
+ * Mantiene además una CompiledRuleTable que se recompila y reemplaza de una
+ * vez (referencia volatile) cada vez que cambia una regla.
  */
 @Repository
 public class CashbackRuleRepository {
     
     private final Map<TransactionCategory, CashbackRule> rules = new ConcurrentHashMap<>();
+    private volatile CompiledRuleTable compiledTable;
     
     public CashbackRuleRepository() {
         initializeRules();
+        compiledTable = CompiledRuleTable.compile(rules.values());
     }
     
     private void initializeRules() {
@@ -143,6 +148,22 @@ public class CashbackRuleRepository {
         return new ArrayList<>(rules.values());
     }
     
+    /**
+     * Guarda (o reemplaza) la regla de su categoría y recompila la tabla.
+     */
+    public synchronized CashbackRule save(CashbackRule rule) {
+        rules.put(rule.getCategory(), rule);
+        compiledTable = CompiledRuleTable.compile(rules.values());
+        return rule;
+    }
+    
+    /**
+     * Tabla compilada vigente (inmutable, segura para leer sin locks).
+     */
+    public CompiledRuleTable compiledTable() {
+        return compiledTable;
+    }
+    
     public List<CashbackRule> findActive() {
         return rules.values().stream()
             .filter(CashbackRule::getIsActive)
@@ -0,0 +1,226 @@
+package com.neobank.cashback.repository;
+
+import com.neobank.cashback.domain.CashbackRule;
+import com.neobank.cashback.domain.RewardTier;
+import com.neobank.cashback.domain.TierMultipliers;
+import com.neobank.cashback.domain.TransactionCategory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+
+/**
+ * Tabla compilada e inmutable de reglas de cashback.
+ * 
+ * 🎓 ¿POR QUÉ?
+ * calculateCashback es la lectura más caliente del checkout. La versión
+ * original resolvía usuario y regla vía Optional, hacía un switch por tier y
+ * creaba cuatro BigDecimal intermedios por llamada.
+ * 
+ * Aquí cada regla se compila a enteros en punto fijo (escala 4) indexados por
+ * [TransactionCategory.ordinal][RewardTier.ordinal], y el cálculo se hace en
+ * long. Produce exactamente el mismo redondeo que la fórmula original:
+ * ```
+ * round2_HALF_UP( round2_HALF_UP(amount × base / 100) × multiplier )
+ * ```
+ * (la división por 100 se redondea ANTES de multiplicar por el tier).
+ * 
+ * Si algún valor no cabe en escala 4 o el producto desborda un long, se usa
+ * la fórmula BigDecimal original (reference), que sigue siendo la verdad.
+ * 
+ * CashbackRuleRepository reemplaza la tabla completa (referencia volatile)
+ * cuando cambian las reglas: los lectores nunca ven una tabla a medias.
+ */
+public final class CompiledRuleTable {
+    
+    private static final int SCALE = 4;
+    // amount(escala 4) × base(escala 4) = escala 8; /100 → escala 10; a centavos → dividir por 10^8
+    private static final long STEP1_DIVISOR = 100_000_000L;
+    // centavos(escala 2) × multiplier(escala 4) = escala 6; a centavos → dividir por 10^4
+    private static final long STEP2_DIVISOR = 10_000L;
+    
+    private static final int TIERS = RewardTier.values().length;
+    
+    private final CashbackRule[] rules;
+    private final boolean[] compiled;
+    private final boolean[] active;
+    private final long[] baseScaled;
+    private final long[] minScaled;
+    private final long[] maxScaled;
+    private final BigDecimal[] maxAmount;
+    private final long[] multiplierScaled;
+    
+    private CompiledRuleTable(int categories) {
+        this.rules = new CashbackRule[categories];
+        this.compiled = new boolean[categories];
+        this.active = new boolean[categories];
+        this.baseScaled = new long[categories];
+        this.minScaled = new long[categories];
+        this.maxScaled = new long[categories];
+        this.maxAmount = new BigDecimal[categories];
+        this.multiplierScaled = new long[categories * TIERS];
+    }
+    
+    static CompiledRuleTable compile(Collection<CashbackRule> source) {
+        CompiledRuleTable table = new CompiledRuleTable(TransactionCategory.values().length);
+        for (CashbackRule rule : source) {
+            table.compileRule(rule);
+        }
+        return table;
+    }
+    
+    private void compileRule(CashbackRule rule) {
+        int c = rule.getCategory().ordinal();
+        rules[c] = rule;
+        active[c] = Boolean.TRUE.equals(rule.getIsActive());
+        
+        TierMultipliers multipliers = rule.getTierMultipliers();
+        if (rule.getBasePercentage() == null || multipliers == null
+                || rule.getMinTransactionAmount() == null || rule.getMaxCashbackPerTransaction() == null) {
+            return; // se resuelve con la fórmula de referencia
+        }
+        
+        try {
+            baseScaled[c] = scaled(BigDecimal.valueOf(rule.getBasePercentage()));
+            minScaled[c] = scaled(rule.getMinTransactionAmount());
+            maxScaled[c] = scaled(rule.getMaxCashbackPerTransaction());
+            maxAmount[c] = rule.getMaxCashbackPerTransaction();
+            for (RewardTier tier : RewardTier.values()) {
+                Double multiplier = multiplierFor(tier, multipliers);
+                if (multiplier == null) {
+                    return;
+                }
+                multiplierScaled[c * TIERS + tier.ordinal()] = scaled(BigDecimal.valueOf(multiplier));
+            }
+            compiled[c] = true;
+        } catch (ArithmeticException notRepresentable) {
+            compiled[c] = false;
+        }
+    }
+    
+    public boolean hasRule(TransactionCategory category) {
+        return rules[category.ordinal()] != null;
+    }
+    
+    public CashbackRule ruleFor(TransactionCategory category) {
+        return rules[category.ordinal()];
+    }
+    
+    /**
+     * ¿La regla de la categoría se resuelve en long (true) o con reference (false)?
+     */
+    boolean isCompiled(TransactionCategory category) {
+        return compiled[category.ordinal()];
+    }
+    
+    /**
+     * Cashback para una transacción. Devuelve BigDecimal.ZERO si la regla está
+     * inactiva o el monto no llega al mínimo, y el tope de la regla si se
+     * supera (mismo contrato que la fórmula original).
+     * 
+     * @throws IllegalArgumentException si no hay regla para la categoría
+     */
+    public BigDecimal calculate(TransactionCategory category, RewardTier tier, BigDecimal transactionAmount) {
+        int c = category.ordinal();
+        CashbackRule rule = rules[c];
+        if (rule == null) {
+            throw new IllegalArgumentException("Rule not found for category: " + category);
+        }
+        if (!active[c]) {
+            return BigDecimal.ZERO;
+        }
+        if (!compiled[c] || transactionAmount.scale() > SCALE) {
+            return reference(rule, tier, transactionAmount);
+        }
+        
+        long amountScaled;
+        try {
+            amountScaled = scaled(transactionAmount);
+        } catch (ArithmeticException tooLarge) {
+            return reference(rule, tier, transactionAmount);
+        }
+        
+        if (amountScaled < minScaled[c]) {
+            return BigDecimal.ZERO;
+        }
+        
+        long cents = cashbackCents(c, tier.ordinal(), amountScaled);
+        if (cents == Long.MIN_VALUE) {
+            return reference(rule, tier, transactionAmount);
+        }
+        if (cents * 100 > maxScaled[c]) {
+            return maxAmount[c];
+        }
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    /**
+     * Núcleo sin asignaciones: monto en escala 4 → cashback en centavos antes
+     * del tope. Devuelve Long.MIN_VALUE si la aritmética desborda (el
+     * llamador recurre a reference).
+     */
+    long cashbackCents(int category, int tier, long amountScaled) {
+        long product;
+        long cents;
+        try {
+            product = Math.multiplyExact(amountScaled, baseScaled[category]);
+            cents = divideHalfUp(product, STEP1_DIVISOR);
+            product = Math.multiplyExact(cents, multiplierScaled[category * TIERS + tier]);
+        } catch (ArithmeticException overflow) {
+            return Long.MIN_VALUE;
+        }
+        return divideHalfUp(product, STEP2_DIVISOR);
+    }
+    
+    /**
+     * Fórmula BigDecimal original, usada como respaldo y como referencia para
+     * verificar que la tabla compilada redondea igual.
+     */
+    public static BigDecimal reference(CashbackRule rule, RewardTier tier, BigDecimal transactionAmount) {
+        if (!rule.getIsActive()) {
+            return BigDecimal.ZERO;
+        }
+        if (transactionAmount.compareTo(rule.getMinTransactionAmount()) < 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal cashback = transactionAmount
+                .multiply(BigDecimal.valueOf(rule.getBasePercentage()))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(multiplierFor(tier, rule.getTierMultipliers())))
+                .setScale(2, RoundingMode.HALF_UP);
+        if (cashback.compareTo(rule.getMaxCashbackPerTransaction()) > 0) {
+            cashback = rule.getMaxCashbackPerTransaction();
+        }
+        return cashback;
+    }
+    
+    /**
+     * División entera con redondeo HALF_UP (empates se alejan de cero), igual
+     * que RoundingMode.HALF_UP de BigDecimal.
+     */
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+    
+    /**
+     * Valor en punto fijo escala 4 (1.5 → 15000). Lanza ArithmeticException si
+     * tiene más de 4 decimales o no cabe en un long.
+     */
+    private static long scaled(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+    
+    private static Double multiplierFor(RewardTier tier, TierMultipliers multipliers) {
+        return switch (tier) {
+            case BRONZE -> multipliers.getBronze();
+            case SILVER -> multipliers.getSilver();
+            case GOLD -> multipliers.getGold();
+            case PLATINUM -> multipliers.getPlatinum();
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.neobank.cashback.repository;
+
+import com.neobank.cashback.domain.Reward;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Orden de la query paginada de rewards. Todas las variantes desempatan por
+ * id, así el par (valor, id) identifica una posición única para el cursor.
+ */
+public enum RewardOrder {
+    EARNED_AT_DESC(Comparator.comparing(Reward::getEarnedAt), true),
+    EARNED_AT_ASC(Comparator.comparing(Reward::getEarnedAt), false),
+    AMOUNT_DESC(Comparator.comparing(Reward::getAmount), true),
+    AMOUNT_ASC(Comparator.comparing(Reward::getAmount), false);
+    
+    private final Comparator<Reward> comparator;
+    private final boolean descending;
+    
+    RewardOrder(Comparator<Reward> byValue, boolean descending) {
+        Comparator<Reward> ascending = byValue.thenComparing(Reward::getId);
+        this.comparator = descending ? ascending.reversed() : ascending;
+        this.descending = descending;
+    }
+    
+    public Comparator<Reward> comparator() {
+        return comparator;
+    }
+    
+    boolean isDescending() {
+        return descending;
+    }
+    
+    boolean isByEarnedAt() {
+        return this == EARNED_AT_DESC || this == EARNED_AT_ASC;
+    }
+    
+    String valueOf(Reward reward) {
+        return isByEarnedAt() ? reward.getEarnedAt().toString() : reward.getAmount().toPlainString();
+    }
+    
+    /**
+     * Reward "sonda" con el valor y el id del cursor, para comparar con
+     * comparator() sin materializar la reward original.
+     */
+    Reward probe(String value, String id) {
+        Reward probe = new Reward();
+        probe.setId(id);
+        if (isByEarnedAt()) {
+            probe.setEarnedAt(LocalDateTime.parse(value));
+        } else {
+            probe.setAmount(new BigDecimal(value));
+        }
+        return probe;
+    }
+}
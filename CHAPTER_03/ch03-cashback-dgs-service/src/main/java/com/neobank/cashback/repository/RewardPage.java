@@ -0,0 +1,81 @@
+package com.neobank.cashback.repository;
+
+import com.neobank.cashback.domain.Reward;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Página de resultados de RewardQueryPlanner.
+ * 
+ * Los cursores son opacos (Base64url de "ORDEN|valor|id") y de tipo keyset:
+ * la siguiente página arranca justo después de la última (valor, id) vista,
+ * sin offset.
+ */
+public class RewardPage {
+    
+    private final List<Reward> items;
+    private final boolean hasNextPage;
+    private final boolean hasPreviousPage;
+    private final RewardOrder order;
+    private final String plan;
+    
+    RewardPage(List<Reward> items, boolean hasNextPage, boolean hasPreviousPage, RewardOrder order, String plan) {
+        this.items = items;
+        this.hasNextPage = hasNextPage;
+        this.hasPreviousPage = hasPreviousPage;
+        this.order = order;
+        this.plan = plan;
+    }
+    
+    public List<Reward> getItems() {
+        return items;
+    }
+    
+    public boolean isHasNextPage() {
+        return hasNextPage;
+    }
+    
+    public boolean isHasPreviousPage() {
+        return hasPreviousPage;
+    }
+    
+    /**
+     * Plan elegido (índice de acceso + estimación), útil para diagnosticar
+     * queries lentas.
+     */
+    public String getPlan() {
+        return plan;
+    }
+    
+    public String cursorOf(Reward reward) {
+        return encode(order, reward);
+    }
+    
+    static String encode(RewardOrder order, Reward reward) {
+        String raw = order.name() + "|" + order.valueOf(reward) + "|" + reward.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodifica un cursor a una reward sonda comparable con el orden pedido.
+     * 
+     * @throws IllegalArgumentException si el cursor es inválido o se generó
+     *                                  con otro orden
+     */
+    static Reward decode(String cursor, RewardOrder order) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !parts[0].equals(order.name())) {
+                throw new IllegalArgumentException("Cursor does not match orderBy " + order);
+            }
+            return order.probe(parts[1], parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.neobank.cashback.repository;
+
+import com.neobank.cashback.domain.Reward;
+import com.neobank.cashback.domain.RewardStatus;
+import com.neobank.cashback.domain.TransactionCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Criterios de búsqueda de rewards (equivalente a RewardsFilterInput).
+ * 
+ * Todos los criterios son opcionales y se combinan con AND. earnedAfter y
+ * earnedBefore son exclusivos, igual que en la query original.
+ */
+public class RewardQuery {
+    
+    private final String userId;
+    private final RewardStatus status;
+    private final TransactionCategory category;
+    private final BigDecimal minAmount;
+    private final BigDecimal maxAmount;
+    private final LocalDateTime earnedAfter;
+    private final LocalDateTime earnedBefore;
+    
+    public RewardQuery(String userId, RewardStatus status, TransactionCategory category,
+                       BigDecimal minAmount, BigDecimal maxAmount,
+                       LocalDateTime earnedAfter, LocalDateTime earnedBefore) {
+        this.userId = userId;
+        this.status = status;
+        this.category = category;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.earnedAfter = earnedAfter;
+        this.earnedBefore = earnedBefore;
+    }
+    
+    public static RewardQuery all() {
+        return new RewardQuery(null, null, null, null, null, null, null);
+    }
+    
+    /**
+     * Predicado completo. El planner lo aplica como filtro residual sobre
+     * los candidatos del índice elegido (revalida también la reward viva).
+     */
+    public boolean matches(Reward r) {
+        return (userId == null || userId.equals(r.getUserId()))
+            && (status == null || r.getStatus() == status)
+            && (category == null || r.getCategory() == category)
+            && (minAmount == null || r.getAmount().compareTo(minAmount) >= 0)
+            && (maxAmount == null || r.getAmount().compareTo(maxAmount) <= 0)
+            && (earnedAfter == null || r.getEarnedAt().isAfter(earnedAfter))
+            && (earnedBefore == null || r.getEarnedAt().isBefore(earnedBefore));
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public RewardStatus getStatus() {
+        return status;
+    }
+    
+    public TransactionCategory getCategory() {
+        return category;
+    }
+    
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+    
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+    
+    public LocalDateTime getEarnedAfter() {
+        return earnedAfter;
+    }
+    
+    public LocalDateTime getEarnedBefore() {
+        return earnedBefore;
+    }
+    
+    boolean hasEarnedAtRange() {
+        return earnedAfter != null || earnedBefore != null;
+    }
+    
+    boolean hasAmountRange() {
+        return minAmount != null || maxAmount != null;
+    }
+}
@@ -0,0 +1,253 @@
+package com.neobank.cashback.repository;
+
+import com.neobank.cashback.domain.Reward;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Planificador mínimo para la query paginada de rewards.
+ * 
+ * 🎓 ESTRATEGIA:
+ * 1. Estima la cardinalidad de cada índice aplicable (userId + status,
+ *    userId, status, category, rango de earnedAt, rango de amount) y elige
+ *    el más selectivo.
+ * 2. El resto de criterios se aplican como filtro residual (RewardQuery.matches).
+ * 3. Según el orden pedido:
+ *    - Índice hash: se recorren sus candidatos manteniendo solo los mejores
+ *      first + 1 en un heap acotado → O(candidatos · log página)
+ *    - Orden por earnedAt o amount sin índice más selectivo: se recorre el
+ *      índice ordenado de esa columna desde el cursor y se corta al llenar
+ *      la página (orderBy: AMOUNT_* ya no hace full scan + top-N)
+ * 4. El cursor (keyset) descarta todo lo que ya se entregó sin usar offset.
+ * 
+ * El coste depende del índice elegido y del tamaño de página, no del
+ * tamaño total de la tabla.
+ */
+@Component
+public class RewardQueryPlanner {
+    
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    private final RewardRepository repository;
+    
+    public RewardQueryPlanner(RewardRepository repository) {
+        this.repository = repository;
+    }
+    
+    enum AccessPath {
+        USER_STATUS, USER, STATUS, CATEGORY, EARNED_AT_RANGE, AMOUNT_RANGE,
+        EARNED_AT_ORDERED_SCAN, AMOUNT_ORDERED_SCAN, FULL_SCAN
+    }
+    
+    /**
+     * Plan elegido: ruta de acceso y estimación de candidatos a examinar.
+     */
+    record Plan(AccessPath path, long estimate, Set<String> ids) {
+        
+        String describe() {
+            return path + " (~" + estimate + " candidates)";
+        }
+    }
+    
+    public RewardPage execute(RewardQuery query, RewardOrder order, Integer first, String after) {
+        RewardOrder effectiveOrder = order != null ? order : RewardOrder.EARNED_AT_DESC;
+        int limit = first == null ? DEFAULT_PAGE_SIZE : Math.max(0, Math.min(first, MAX_PAGE_SIZE));
+        Reward cursor = after != null ? RewardPage.decode(after, effectiveOrder) : null;
+        
+        Plan plan = plan(query, effectiveOrder, limit);
+        List<Reward> rows = switch (plan.path()) {
+            case EARNED_AT_ORDERED_SCAN -> orderedScan(earnedAtRange(query),
+                cursor != null ? cursor.getEarnedAt() : null, query, effectiveOrder, cursor, limit);
+            case AMOUNT_ORDERED_SCAN -> orderedScan(amountRange(query),
+                cursor != null ? cursor.getAmount() : null, query, effectiveOrder, cursor, limit);
+            default -> topN(candidates(plan, query), query, effectiveOrder.comparator(), cursor, limit);
+        };
+        
+        boolean hasNext = rows.size() > limit;
+        List<Reward> items = hasNext ? rows.subList(0, limit) : rows;
+        return new RewardPage(new ArrayList<>(items), hasNext, cursor != null, effectiveOrder, plan.describe());
+    }
+    
+    Plan plan(RewardQuery query, RewardOrder order, int limit) {
+        long tableSize = repository.size();
+        Plan best = new Plan(AccessPath.FULL_SCAN, tableSize, null);
+        
+        if (query.getUserId() != null && query.getStatus() != null) {
+            best = cheaper(best, AccessPath.USER_STATUS,
+                repository.idsForUserAndStatus(query.getUserId(), query.getStatus()));
+        }
+        if (query.getUserId() != null) {
+            best = cheaper(best, AccessPath.USER, repository.idsForUser(query.getUserId()));
+        }
+        if (query.getStatus() != null) {
+            best = cheaper(best, AccessPath.STATUS, repository.idsForStatus(query.getStatus()));
+        }
+        if (query.getCategory() != null) {
+            best = cheaper(best, AccessPath.CATEGORY, repository.idsForCategory(query.getCategory()));
+        }
+        if (query.hasEarnedAtRange()) {
+            // Contar el rango cortando en cuanto supera al mejor plan actual
+            long inRange = countUpTo(earnedAtRange(query), best.estimate());
+            if (inRange < best.estimate()) {
+                best = new Plan(AccessPath.EARNED_AT_RANGE, inRange, null);
+            }
+        }
+        if (query.hasAmountRange()) {
+            long inRange = countUpTo(amountRange(query), best.estimate());
+            if (inRange < best.estimate()) {
+                best = new Plan(AccessPath.AMOUNT_RANGE, inRange, null);
+            }
+        }
+        
+        // Orden por la columna de un índice ordenado (earnedAt o amount):
+        // recorrerlo y cortar al llenar la página cuesta ≈ (limit + 1) /
+        // selectividad. Si es menor que examinar todos los candidatos del
+        // mejor índice, gana. Si el mejor plan ya es el rango de esa misma
+        // columna, el recorrido ordenado lo incluye.
+        AccessPath orderedScan = order.isByEarnedAt()
+            ? AccessPath.EARNED_AT_ORDERED_SCAN : AccessPath.AMOUNT_ORDERED_SCAN;
+        AccessPath sameColumnRange = order.isByEarnedAt()
+            ? AccessPath.EARNED_AT_RANGE : AccessPath.AMOUNT_RANGE;
+        double selectivity = tableSize == 0 ? 1.0 : Math.max(best.estimate(), 1) / (double) tableSize;
+        long scanCost = (long) Math.ceil((limit + 1) / selectivity);
+        if (best.path() == AccessPath.FULL_SCAN || best.path() == sameColumnRange
+                || scanCost < best.estimate()) {
+            return new Plan(orderedScan, Math.min(scanCost, best.estimate()), null);
+        }
+        return best;
+    }
+    
+    private static Plan cheaper(Plan best, AccessPath path, Set<String> ids) {
+        return ids.size() < best.estimate() ? new Plan(path, ids.size(), ids) : best;
+    }
+    
+    private Iterable<String> candidates(Plan plan, RewardQuery query) {
+        if (plan.ids() != null) {
+            return plan.ids();
+        }
+        NavigableMap<?, Set<String>> source = switch (plan.path()) {
+            case EARNED_AT_RANGE -> earnedAtRange(query);
+            case AMOUNT_RANGE -> amountRange(query);
+            default -> repository.earnedAtIndex();
+        };
+        return () -> source.values().stream().flatMap(Set::stream).iterator();
+    }
+    
+    /**
+     * Heap acotado con los mejores limit + 1 candidatos posteriores al cursor.
+     */
+    private List<Reward> topN(Iterable<String> ids, RewardQuery query, Comparator<Reward> comparator,
+                              Reward cursor, int limit) {
+        PriorityQueue<Reward> worstFirst = new PriorityQueue<>(comparator.reversed());
+        for (String id : ids) {
+            Reward reward = repository.get(id);
+            if (reward == null || !query.matches(reward)) {
+                continue;
+            }
+            if (cursor != null && comparator.compare(reward, cursor) <= 0) {
+                continue;
+            }
+            worstFirst.offer(reward);
+            if (worstFirst.size() > limit + 1) {
+                worstFirst.poll();
+            }
+        }
+        List<Reward> rows = new ArrayList<>(worstFirst);
+        rows.sort(comparator);
+        return rows;
+    }
+    
+    /**
+     * Recorre un índice ordenado (earnedAt o amount, ya recortado al rango
+     * del filtro) en el sentido pedido, empezando en la clave del cursor, y
+     * se detiene al reunir limit + 1 coincidencias.
+     */
+    private <K> List<Reward> orderedScan(NavigableMap<K, Set<String>> index, K cursorKey, RewardQuery query,
+                                         RewardOrder order, Reward cursor, int limit) {
+        if (cursorKey != null) {
+            index = order.isDescending()
+                ? index.headMap(cursorKey, true)
+                : index.tailMap(cursorKey, true);
+        }
+        if (order.isDescending()) {
+            index = index.descendingMap();
+        }
+        
+        Comparator<Reward> comparator = order.comparator();
+        List<Reward> rows = new ArrayList<>(limit + 1);
+        for (Set<String> bucket : index.values()) {
+            // Misma clave: ordenar el bucket (normalmente 1 elemento) por id
+            List<Reward> sameInstant = new ArrayList<>(bucket.size());
+            for (String id : bucket) {
+                Reward reward = repository.get(id);
+                if (reward != null && query.matches(reward)
+                        && (cursor == null || comparator.compare(reward, cursor) > 0)) {
+                    sameInstant.add(reward);
+                }
+            }
+            sameInstant.sort(comparator);
+            for (Reward reward : sameInstant) {
+                rows.add(reward);
+                if (rows.size() > limit) {
+                    return rows;
+                }
+            }
+        }
+        return rows;
+    }
+    
+    private NavigableMap<LocalDateTime, Set<String>> earnedAtRange(RewardQuery query) {
+        NavigableMap<LocalDateTime, Set<String>> index = repository.earnedAtIndex();
+        if (query.getEarnedAfter() != null && query.getEarnedBefore() != null
+                && !query.getEarnedAfter().isBefore(query.getEarnedBefore())) {
+            return Collections.emptyNavigableMap();
+        }
+        if (query.getEarnedAfter() != null) {
+            index = index.tailMap(query.getEarnedAfter(), false);
+        }
+        if (query.getEarnedBefore() != null) {
+            index = index.headMap(query.getEarnedBefore(), false);
+        }
+        return index;
+    }
+    
+    /**
+     * Rango [minAmount, maxAmount] del índice por monto (ambos inclusivos,
+     * igual que RewardQuery.matches).
+     */
+    private NavigableMap<BigDecimal, Set<String>> amountRange(RewardQuery query) {
+        NavigableMap<BigDecimal, Set<String>> index = repository.amountIndex();
+        if (query.getMinAmount() != null && query.getMaxAmount() != null
+                && query.getMinAmount().compareTo(query.getMaxAmount()) > 0) {
+            return Collections.emptyNavigableMap();
+        }
+        if (query.getMinAmount() != null) {
+            index = index.tailMap(query.getMinAmount(), true);
+        }
+        if (query.getMaxAmount() != null) {
+            index = index.headMap(query.getMaxAmount(), true);
+        }
+        return index;
+    }
+    
+    private static long countUpTo(NavigableMap<?, Set<String>> range, long cap) {
+        long count = 0;
+        for (Set<String> ids : range.values()) {
+            count += ids.size();
+            if (count >= cap) {
+                return count;
+            }
+        }
+        return count;
+    }
+}
@@ -9,13 +9,27 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Repositorio in-memory para rewards.
  * 
  * Simula una base de datos con rewards ya generadas.
+ * 
+ * Además de la tabla principal mantiene índices secundarios concurrentes
+ * (userId → ids, userId + status → ids, status → ids, category → ids,
+ * earnedAt ordenado y amount ordenado) para que las consultas escalen con las rewards que
+ * coinciden y no con toda la tabla. También mantiene un índice por expiresAt
+ * con las rewards ACTIVE, para que la expiración solo toque las vencidas, y
+ * por usuario una cola de prioridad de sus ACTIVE por expiresAt para la
+ * redención.
+ * 
+ * En el mismo paso de reindexado mantiene el resumen materializado por
+ * usuario (UserRewardsTotals) que consume la query rewardsSummary.
  */
 @Repository
 public class RewardRepository {
@@ -23,6 +37,21 @@ public class RewardRepository {
     private final Map<String, Reward> rewards = new ConcurrentHashMap<>();
     private final AtomicInteger idGenerator = new AtomicInteger(100);
     
+    // Índices secundarios: solo guardan ids, la Reward vive en 'rewards'
+    private final Map<String, Set<String>> idsByUser = new ConcurrentHashMap<>();
+    private final Map<String, Map<RewardStatus, Set<String>>> idsByUserAndStatus = new ConcurrentHashMap<>();
+    private final Map<RewardStatus, Set<String>> idsByStatus = new ConcurrentHashMap<>();
+    private final Map<TransactionCategory, Set<String>> idsByCategory = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<LocalDateTime, Set<String>> idsByEarnedAt = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<BigDecimal, Set<String>> idsByAmount = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDateTime, Set<String>> activeIdsByExpiry = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableSet<ActiveSlot>> activeQueueByUser = new ConcurrentHashMap<>();
+    
+    private final Map<String, UserRewardsTotals> totalsByUser = new ConcurrentHashMap<>();
+    
+    // Última posición indexada de cada reward (los servicios mutan la Reward antes de save)
+    private final Map<String, IndexedPosition> positions = new ConcurrentHashMap<>();
+    
     public RewardRepository() {
         initializeData();
     }
@@ -82,7 +111,7 @@ public class RewardRepository {
             transactionId, category.name() + " cashback", multiplier
         );
         
-        rewards.put(id, reward);
+        save(reward);
     }
     
     public Optional<Reward> findById(String id) {
@@ -94,34 +123,285 @@ public class RewardRepository {
     }
     
     public List<Reward> findByUserId(String userId) {
-        return rewards.values().stream()
-            .filter(r -> r.getUserId().equals(userId))
-            .collect(Collectors.toList());
+        return resolve(idsByUser.get(userId), r -> r.getUserId().equals(userId));
+    }
+    
+    /**
+     * Rewards de varios usuarios agrupadas por userId. Solo toca las
+     * entradas de los usuarios pedidos; los usuarios sin rewards no
+     * aparecen en el mapa.
+     */
+    public Map<String, List<Reward>> findByUserIds(Collection<String> userIds) {
+        Map<String, List<Reward>> result = new HashMap<>();
+        for (String userId : userIds) {
+            List<Reward> userRewards = findByUserId(userId);
+            if (!userRewards.isEmpty()) {
+                result.put(userId, userRewards);
+            }
+        }
+        return result;
     }
     
     public List<Reward> findByUserIdAndStatus(String userId, RewardStatus status) {
-        return rewards.values().stream()
-            .filter(r -> r.getUserId().equals(userId))
-            .filter(r -> r.getStatus() == status)
-            .collect(Collectors.toList());
+        Map<RewardStatus, Set<String>> byStatus = idsByUserAndStatus.get(userId);
+        return resolve(byStatus != null ? byStatus.get(status) : null,
+            r -> r.getUserId().equals(userId) && r.getStatus() == status);
     }
     
     public List<Reward> findByStatus(RewardStatus status) {
-        return rewards.values().stream()
-            .filter(r -> r.getStatus() == status)
-            .collect(Collectors.toList());
+        return resolve(idsByStatus.get(status), r -> r.getStatus() == status);
+    }
+    
+    /**
+     * Resumen materializado del usuario (copia inmutable). Coste O(1): no
+     * recorre sus rewards.
+     */
+    public UserRewardsTotals findTotalsByUserId(String userId) {
+        UserRewardsTotals totals = totalsByUser.get(userId);
+        return totals != null ? totals.snapshot() : UserRewardsTotals.empty();
     }
     
+    /**
+     * Prefijo más corto de la cola ACTIVE del usuario (de la que vence antes a
+     * la que vence después; sin expiresAt al final) cuya suma cubre 'amount'.
+     * Solo materializa las rewards que se van a consumir, no todas las activas.
+     */
+    public List<Reward> findActiveToCover(String userId, BigDecimal amount) {
+        NavigableSet<ActiveSlot> queue = activeQueueByUser.get(userId);
+        List<Reward> result = new ArrayList<>();
+        if (queue == null) {
+            return result;
+        }
+        BigDecimal covered = BigDecimal.ZERO;
+        for (ActiveSlot slot : queue) {
+            if (covered.compareTo(amount) >= 0) {
+                break;
+            }
+            Reward reward = rewards.get(slot.id());
+            if (reward != null && reward.getStatus() == RewardStatus.ACTIVE) {
+                result.add(reward);
+                covered = covered.add(reward.getAmount());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Rewards ACTIVE con expiresAt anterior a 'now', de la más antigua a la
+     * más reciente y como máximo 'limit'. Recorre solo la cabeza del índice
+     * por expiración: el coste depende de las vencidas, no de las activas.
+     */
+    public List<Reward> findDueForExpiry(LocalDateTime now, int limit) {
+        List<Reward> due = new ArrayList<>(Math.min(limit, 256));
+        for (Set<String> ids : activeIdsByExpiry.headMap(now, false).values()) {
+            for (Reward reward : resolve(ids, r -> r.getStatus() == RewardStatus.ACTIVE
+                    && r.getExpiresAt() != null && r.getExpiresAt().isBefore(now))) {
+                if (due.size() == limit) {
+                    return due;
+                }
+                due.add(reward);
+            }
+        }
+        return due;
+    }
+    
+    /**
+     * Guarda la reward y actualiza los índices secundarios.
+     * 
+     * El reindexado se hace dentro de positions.compute(), que bloquea la
+     * entrada de ese id: dos saves concurrentes de la misma reward no pueden
+     * intercalarse y una transición de estado (ACTIVE → REDEEMED) mueve el id
+     * de bucket en un solo paso.
+     */
     public Reward save(Reward reward) {
         if (reward.getId() == null) {
             reward.setId("reward-" + String.format("%03d", idGenerator.getAndIncrement()));
         }
-        rewards.put(reward.getId(), reward);
+        String id = reward.getId();
+        positions.compute(id, (key, previous) -> {
+            rewards.put(key, reward);
+            IndexedPosition current = new IndexedPosition(reward.getUserId(), reward.getStatus(),
+                reward.getExpiresAt(), reward.getCategory(), reward.getAmount(), reward.getEarnedAt());
+            if (current.equals(previous)) {
+                return previous;
+            }
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            index(key, current);
+            return current;
+        });
         return reward;
     }
     
     public void delete(String id) {
-        rewards.remove(id);
+        positions.compute(id, (key, previous) -> {
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            rewards.remove(key);
+            return null;
+        });
+    }
+    
+    private void index(String id, IndexedPosition position) {
+        idsByUser.computeIfAbsent(position.userId(), k -> ConcurrentHashMap.newKeySet()).add(id);
+        idsByUserAndStatus.computeIfAbsent(position.userId(), k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(position.status(), k -> ConcurrentHashMap.newKeySet()).add(id);
+        idsByStatus.computeIfAbsent(position.status(), k -> ConcurrentHashMap.newKeySet()).add(id);
+        idsByCategory.computeIfAbsent(position.category(), k -> ConcurrentHashMap.newKeySet()).add(id);
+        if (position.earnedAt() != null) {
+            addToSortedIndex(idsByEarnedAt, position.earnedAt(), id);
+        }
+        if (position.amount() != null) {
+            addToSortedIndex(idsByAmount, position.amount(), id);
+        }
+        if (position.expires()) {
+            addToSortedIndex(activeIdsByExpiry, position.expiresAt(), id);
+        }
+        if (position.status() == RewardStatus.ACTIVE) {
+            activeQueueByUser.computeIfAbsent(position.userId(), k -> new ConcurrentSkipListSet<>())
+                .add(new ActiveSlot(position.expiresAt(), id));
+        }
+        totalsByUser.computeIfAbsent(position.userId(), k -> new UserRewardsTotals())
+            .add(position.status(), position.category(), position.amount());
+    }
+    
+    private void unindex(String id, IndexedPosition position) {
+        Set<String> userIds = idsByUser.get(position.userId());
+        if (userIds != null) {
+            userIds.remove(id);
+        }
+        Map<RewardStatus, Set<String>> byStatus = idsByUserAndStatus.get(position.userId());
+        if (byStatus != null && byStatus.get(position.status()) != null) {
+            byStatus.get(position.status()).remove(id);
+        }
+        Set<String> statusIds = idsByStatus.get(position.status());
+        if (statusIds != null) {
+            statusIds.remove(id);
+        }
+        Set<String> categoryIds = idsByCategory.get(position.category());
+        if (categoryIds != null) {
+            categoryIds.remove(id);
+        }
+        if (position.earnedAt() != null) {
+            removeFromSortedIndex(idsByEarnedAt, position.earnedAt(), id);
+        }
+        if (position.amount() != null) {
+            removeFromSortedIndex(idsByAmount, position.amount(), id);
+        }
+        if (position.expires()) {
+            removeFromSortedIndex(activeIdsByExpiry, position.expiresAt(), id);
+        }
+        if (position.status() == RewardStatus.ACTIVE) {
+            NavigableSet<ActiveSlot> queue = activeQueueByUser.get(position.userId());
+            if (queue != null) {
+                queue.remove(new ActiveSlot(position.expiresAt(), id));
+            }
+        }
+        UserRewardsTotals totals = totalsByUser.get(position.userId());
+        if (totals != null) {
+            totals.remove(position.status(), position.category(), position.amount());
+        }
+    }
+    
+    /**
+     * Alta y baja en los índices ordenados se serializan por clave con el
+     * monitor del bucket.
+     * 
+     * ⚠️ compute() de ConcurrentSkipListMap NO es atómico (reintenta con CAS):
+     * un add() dentro de compute podía caer en un bucket que
+     * removeFromSortedIndex acababa de vaciar y desmontar, y el id quedaba
+     * fuera de los recorridos ordenados (y de la expiración). Un bucket
+     * desmontado nunca vuelve al mapa, así que si ya no es el mapeado se
+     * reintenta con uno nuevo.
+     */
+    private static <K> void addToSortedIndex(ConcurrentSkipListMap<K, Set<String>> index,
+                                             K key, String id) {
+        while (true) {
+            Set<String> ids = index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+            synchronized (ids) {
+                if (index.get(key) == ids) {
+                    ids.add(id);
+                    return;
+                }
+            }
+        }
+    }
+    
+    private static <K> void removeFromSortedIndex(ConcurrentSkipListMap<K, Set<String>> index,
+                                                  K key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids == null) {
+            return;
+        }
+        synchronized (ids) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key, ids);
+            }
+        }
+    }
+    
+    // ─────────────────────────────────────────────────────────────────────
+    // Accesos a índices para RewardQueryPlanner (mismo paquete)
+    // ─────────────────────────────────────────────────────────────────────
+    
+    Reward get(String id) {
+        return rewards.get(id);
+    }
+    
+    int size() {
+        return rewards.size();
+    }
+    
+    Set<String> idsForUser(String userId) {
+        return idsByUser.getOrDefault(userId, Set.of());
+    }
+    
+    Set<String> idsForUserAndStatus(String userId, RewardStatus status) {
+        Map<RewardStatus, Set<String>> byStatus = idsByUserAndStatus.get(userId);
+        Set<String> ids = byStatus != null ? byStatus.get(status) : null;
+        return ids != null ? ids : Set.of();
+    }
+    
+    Set<String> idsForStatus(RewardStatus status) {
+        return idsByStatus.getOrDefault(status, Set.of());
+    }
+    
+    Set<String> idsForCategory(TransactionCategory category) {
+        return idsByCategory.getOrDefault(category, Set.of());
+    }
+    
+    ConcurrentSkipListMap<LocalDateTime, Set<String>> earnedAtIndex() {
+        return idsByEarnedAt;
+    }
+    
+    /**
+     * Índice ordenado por monto. Las claves se comparan con compareTo, así
+     * 10.5 y 10.50 caen en el mismo bucket.
+     */
+    ConcurrentSkipListMap<BigDecimal, Set<String>> amountIndex() {
+        return idsByAmount;
+    }
+    
+    /**
+     * Materializa los ids de un índice. Se revalida el predicado sobre la
+     * Reward viva porque los servicios pueden haberla mutado y aún no
+     * haber llamado a save().
+     */
+    private List<Reward> resolve(Set<String> ids, Predicate<Reward> stillMatches) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Reward> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Reward reward = rewards.get(id);
+            if (reward != null && stillMatches.test(reward)) {
+                result.add(reward);
+            }
+        }
+        return result;
     }
     
     public List<String> findUserIdsWithRewards(List<String> rewardIds) {
@@ -132,4 +412,28 @@ public class RewardRepository {
             .distinct()
             .collect(Collectors.toList());
     }
+    
+    /**
+     * Entrada de la cola ACTIVE por usuario: orden por expiresAt (null al
+     * final) y desempate por id.
+     */
+    private record ActiveSlot(LocalDateTime expiresAt, String id) implements Comparable<ActiveSlot> {
+        
+        private static final Comparator<ActiveSlot> ORDER = Comparator
+            .comparing(ActiveSlot::expiresAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ActiveSlot::id);
+        
+        @Override
+        public int compareTo(ActiveSlot other) {
+            return ORDER.compare(this, other);
+        }
+    }
+    
+    private record IndexedPosition(String userId, RewardStatus status, LocalDateTime expiresAt,
+                                   TransactionCategory category, BigDecimal amount, LocalDateTime earnedAt) {
+        
+        boolean expires() {
+            return status == RewardStatus.ACTIVE && expiresAt != null;
+        }
+    }
 }
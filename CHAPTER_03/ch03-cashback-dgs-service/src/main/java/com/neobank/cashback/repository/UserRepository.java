@@ -90,6 +90,21 @@ public class UserRepository {
         return new ArrayList<>(users.values());
     }
     
+    /**
+     * Carga en bloque por id: un lookup por key pedida, sin recorrer la
+     * tabla. Los ids inexistentes se omiten del resultado.
+     */
+    public List<User> findAllById(Collection<String> ids) {
+        List<User> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+    
     public List<User> findByTier(RewardTier tier) {
         return users.values().stream()
             .filter(user -> user.getTier() == tier)
@@ -0,0 +1,89 @@
+package com.neobank.cashback.repository;
+
+import com.neobank.cashback.domain.RewardStatus;
+import com.neobank.cashback.domain.TransactionCategory;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resumen materializado de las rewards de un usuario: total y cantidad por
+ * estado y por categoría.
+ * 
+ * RewardRepository lo mantiene en cada save()/delete() aplicando el delta
+ * entre la posición anterior y la nueva de la reward, de modo que
+ * rewardsSummary se lee en O(1) en lugar de recorrer las rewards del usuario.
+ * 
+ * Las instancias vivas se modifican bajo su propio monitor; snapshot()
+ * devuelve una copia inmutable para la capa GraphQL.
+ */
+public class UserRewardsTotals {
+    
+    private final Map<RewardStatus, Bucket> byStatus;
+    private final Map<TransactionCategory, Bucket> byCategory;
+    
+    UserRewardsTotals() {
+        this(new EnumMap<>(RewardStatus.class), new EnumMap<>(TransactionCategory.class));
+    }
+    
+    private UserRewardsTotals(Map<RewardStatus, Bucket> byStatus, Map<TransactionCategory, Bucket> byCategory) {
+        this.byStatus = byStatus;
+        this.byCategory = byCategory;
+    }
+    
+    static UserRewardsTotals empty() {
+        return new UserRewardsTotals(Collections.emptyMap(), Collections.emptyMap());
+    }
+    
+    synchronized void add(RewardStatus status, TransactionCategory category, BigDecimal amount) {
+        byStatus.merge(status, new Bucket(amount, 1), Bucket::plus);
+        byCategory.merge(category, new Bucket(amount, 1), Bucket::plus);
+    }
+    
+    synchronized void remove(RewardStatus status, TransactionCategory category, BigDecimal amount) {
+        byStatus.computeIfPresent(status, (k, bucket) -> bucket.minus(amount));
+        byCategory.computeIfPresent(category, (k, bucket) -> bucket.minus(amount));
+    }
+    
+    synchronized UserRewardsTotals snapshot() {
+        return new UserRewardsTotals(
+            Collections.unmodifiableMap(new EnumMap<>(byStatus)),
+            Collections.unmodifiableMap(new EnumMap<>(byCategory)));
+    }
+    
+    /** Totales por estado (solo estados con al menos una reward). */
+    public Map<RewardStatus, Bucket> byStatus() {
+        return byStatus;
+    }
+    
+    /** Totales por categoría (solo categorías con al menos una reward). */
+    public Map<TransactionCategory, Bucket> byCategory() {
+        return byCategory;
+    }
+    
+    public BigDecimal totalFor(RewardStatus status) {
+        Bucket bucket = byStatus.get(status);
+        return bucket != null ? bucket.total() : BigDecimal.ZERO;
+    }
+    
+    public BigDecimal total() {
+        return byStatus.values().stream().map(Bucket::total).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+    
+    /**
+     * Suma y cantidad de rewards de un grupo. Un bucket que llega a 0
+     * rewards se elimina del mapa.
+     */
+    public record Bucket(BigDecimal total, int count) {
+        
+        Bucket plus(Bucket other) {
+            return new Bucket(total.add(other.total), count + other.count);
+        }
+        
+        Bucket minus(BigDecimal amount) {
+            return count <= 1 ? null : new Bucket(total.subtract(amount), count - 1);
+        }
+    }
+}
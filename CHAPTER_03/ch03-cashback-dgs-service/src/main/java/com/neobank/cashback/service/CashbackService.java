@@ -1,22 +1,33 @@
 package com.neobank.cashback.service;
 
+import com.neobank.cashback.domain.BulkRewardsResult;
 import com.neobank.cashback.domain.CashbackRule;
+import com.neobank.cashback.domain.CreateRewardResult;
 import com.neobank.cashback.domain.RedemptionResult;
 import com.neobank.cashback.domain.Reward;
+import com.neobank.cashback.domain.RewardRequest;
 import com.neobank.cashback.domain.RewardStatus;
 import com.neobank.cashback.domain.RewardTier;
 import com.neobank.cashback.domain.TierMultipliers;
 import com.neobank.cashback.domain.TransactionCategory;
 import com.neobank.cashback.domain.User;
+import com.neobank.cashback.ledger.CashbackLedger;
 import com.neobank.cashback.repository.CashbackRuleRepository;
+import com.neobank.cashback.repository.CompiledRuleTable;
 import com.neobank.cashback.repository.RewardRepository;
 import com.neobank.cashback.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -76,24 +87,40 @@ import java.util.UUID;
 @Service
 public class CashbackService {
     
+    private static final int EXPIRY_BATCH_SIZE = 500;
+    
+    /**
+     * Locks por usuario para todo cambio de estado de rewards (redención,
+     * cancelación, expiración). Conjunto acotado: el usuario se asigna a un
+     * stripe por hash, así la memoria no crece con la cantidad de usuarios.
+     */
+    private static final int REWARD_LOCK_STRIPES = 64;
+    
     private final UserRepository userRepository;
     private final RewardRepository rewardRepository;
     private final CashbackRuleRepository ruleRepository;
+    private final CashbackLedger ledger;
+    private final Object[] rewardLocks = new Object[REWARD_LOCK_STRIPES];
     
     public CashbackService(UserRepository userRepository,
                            RewardRepository rewardRepository,
-                           CashbackRuleRepository ruleRepository) {
+                           CashbackRuleRepository ruleRepository,
+                           CashbackLedger ledger) {
         this.userRepository = userRepository;
         this.rewardRepository = rewardRepository;
         this.ruleRepository = ruleRepository;
+        this.ledger = ledger;
+        for (int i = 0; i < rewardLocks.length; i++) {
+            rewardLocks[i] = new Object();
+        }
     }
     
     /**
      * Calcula cuánto cashback se debe otorgar por una transacción.
      * 
-     * 🎓 LÓGICA DE CÁLCULO:
+     * 🎓 LÓGICA DE CÁLCULO (CompiledRuleTable, aritmética en long):
      * 1. Obtener usuario y su tier
-     * 2. Obtener regla de la categoría
+     * 2. Obtener regla compilada de la categoría
      * 3. Verificar que la regla esté activa
      * 4. Verificar monto mínimo de transacción
      * 5. Aplicar fórmula: amount × (base% / 100) × tierMultiplier
@@ -119,36 +146,23 @@ public class CashbackService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
         
-        // Obtener regla de la categoría
-        CashbackRule rule = ruleRepository.findByCategory(category)
-                .orElseThrow(() -> new RuntimeException("Rule not found for category: " + category));
-        
-        // Verificar que la regla esté activa
-        if (!rule.getIsActive()) {
-            return BigDecimal.ZERO;
-        }
-        
-        // Verificar monto mínimo de transacción
-        if (transactionAmount.compareTo(rule.getMinTransactionAmount()) < 0) {
-            return BigDecimal.ZERO;
-        }
-        
-        // Obtener multiplicador según tier del usuario
-        Double tierMultiplier = getTierMultiplier(user.getTier(), rule.getTierMultipliers());
-        
-        // Calcular cashback: amount × (percentage / 100) × multiplier
-        BigDecimal cashback = transactionAmount
-                .multiply(BigDecimal.valueOf(rule.getBasePercentage()))
-                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(tierMultiplier))
-                .setScale(2, RoundingMode.HALF_UP);
-        
-        // Aplicar tope máximo por transacción
-        if (cashback.compareTo(rule.getMaxCashbackPerTransaction()) > 0) {
-            cashback = rule.getMaxCashbackPerTransaction();
+        // Regla compilada de la categoría (sin Optional ni BigDecimal intermedios)
+        CompiledRuleTable rules = ruleRepository.compiledTable();
+        if (!rules.hasRule(category)) {
+            throw new RuntimeException("Rule not found for category: " + category);
         }
         
-        return cashback;
+        return rules.calculate(category, user.getTier(), transactionAmount);
+    }
+    
+    /**
+     * Aplica la fórmula de cashback con usuario y regla ya resueltos.
+     * 
+     * Compartido por calculateCashback, createReward y createRewards: todos
+     * pasan por la tabla compilada, así que el redondeo es idéntico.
+     */
+    private BigDecimal computeCashback(RewardTier tier, CashbackRule rule, BigDecimal transactionAmount) {
+        return ruleRepository.compiledTable().calculate(rule.getCategory(), tier, transactionAmount);
     }
     
     /**
@@ -174,42 +188,155 @@ public class CashbackService {
     public Reward createReward(String userId, String transactionId,
                                BigDecimal transactionAmount, TransactionCategory category,
                                String description) {
-        // Validar usuario
+        // Validar usuario y regla (una sola búsqueda de cada uno)
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        CashbackRule rule = ruleRepository.findByCategory(category)
+                .orElseThrow(() -> new RuntimeException("Rule not found for category: " + category));
         
         // Calcular cashback
-        BigDecimal cashbackAmount = calculateCashback(userId, transactionAmount, category);
+        BigDecimal cashbackAmount = computeCashback(user.getTier(), rule, transactionAmount);
         
         if (cashbackAmount.compareTo(BigDecimal.ZERO) == 0) {
             throw new RuntimeException("Transaction does not qualify for cashback");
         }
         
-        // Obtener multiplicador para guardar en la reward
-        CashbackRule rule = ruleRepository.findByCategory(category).orElseThrow();
-        Double tierMultiplier = getTierMultiplier(user.getTier(), rule.getTierMultipliers());
+        // Crear y guardar reward
+        Reward saved = rewardRepository.save(buildReward(user, rule, transactionId, cashbackAmount,
+                category, description, LocalDateTime.now()));
+        
+        // Acreditar en el ledger (actualiza el balance del usuario de forma atómica)
+        ledger.credit(userId, cashbackAmount, "reward:" + saved.getId());
+        
+        return saved;
+    }
+    
+    /**
+     * Crea rewards en lote (liquidación nocturna).
+     * 
+     * 🎓 MUTATION: createRewards
+     * 
+     * A diferencia de llamar createReward N veces:
+     * 1. Agrupa los inputs por usuario y carga todos los usuarios de una vez
+     * 2. Resuelve cada CashbackRule una sola vez por categoría
+     * 3. Calcula y guarda las rewards del usuario en una pasada
+     * 4. Aplica UNA actualización de balance agregada por usuario
+     * 
+     * Éxito parcial: un input inválido (usuario inexistente, sin regla, no
+     * califica) o un error al guardarlo produce un resultado fallido en su
+     * posición sin afectar al resto del lote. Solo se acredita el cashback
+     * de las rewards que se guardaron.
+     * 
+     * @param requests Inputs en el orden recibido
+     * @return Resultado por elemento más totales del lote
+     */
+    public BulkRewardsResult createRewards(List<RewardRequest> requests) {
+        CreateRewardResult[] results = new CreateRewardResult[requests.size()];
+        
+        // 1. Agrupar posiciones por usuario (conservando orden de llegada)
+        Map<String, List<Integer>> positionsByUser = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            RewardRequest request = requests.get(i);
+            if (request.getUserId() == null || request.getCategory() == null
+                    || request.getTransactionAmount() == null) {
+                results[i] = CreateRewardResult.failed(i, "userId, category and transactionAmount are required");
+                continue;
+            }
+            positionsByUser.computeIfAbsent(request.getUserId(), k -> new ArrayList<>()).add(i);
+        }
+        
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(positionsByUser.keySet())) {
+            users.put(user.getId(), user);
+        }
+        
+        // 2. Reglas resueltas una vez por categoría
+        Map<TransactionCategory, Optional<CashbackRule>> rules = new EnumMap<>(TransactionCategory.class);
+        
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal totalCashback = BigDecimal.ZERO;
+        int created = 0;
+        
+        for (Map.Entry<String, List<Integer>> entry : positionsByUser.entrySet()) {
+            User user = users.get(entry.getKey());
+            if (user == null) {
+                for (int i : entry.getValue()) {
+                    results[i] = CreateRewardResult.failed(i, "User not found: " + entry.getKey());
+                }
+                continue;
+            }
+            
+            // 3. Rewards del usuario en una pasada. Cada elemento se aísla:
+            //    un fallo al calcular o guardar solo afecta a su posición.
+            BigDecimal userCashback = BigDecimal.ZERO;
+            List<Integer> savedPositions = new ArrayList<>();
+            synchronized (rewardLock(user.getId())) {
+                for (int i : entry.getValue()) {
+                    RewardRequest request = requests.get(i);
+                    try {
+                        Optional<CashbackRule> rule = rules.computeIfAbsent(request.getCategory(),
+                                ruleRepository::findByCategory);
+                        if (rule.isEmpty()) {
+                            results[i] = CreateRewardResult.failed(i,
+                                    "Rule not found for category: " + request.getCategory());
+                            continue;
+                        }
+                        
+                        BigDecimal cashbackAmount = computeCashback(user.getTier(), rule.get(),
+                                request.getTransactionAmount());
+                        if (cashbackAmount.compareTo(BigDecimal.ZERO) == 0) {
+                            results[i] = CreateRewardResult.failed(i, "Transaction does not qualify for cashback");
+                            continue;
+                        }
+                        
+                        Reward saved = rewardRepository.save(buildReward(user, rule.get(),
+                                request.getTransactionId(), cashbackAmount, request.getCategory(),
+                                request.getDescription(), now));
+                        results[i] = CreateRewardResult.created(i, saved);
+                        userCashback = userCashback.add(cashbackAmount);
+                        savedPositions.add(i);
+                    } catch (RuntimeException e) {
+                        results[i] = CreateRewardResult.failed(i, "Reward could not be created: " + e.getMessage());
+                    }
+                }
+                
+                // 4. Una sola actualización de balance por usuario, solo con lo
+                //    que se guardó. Si el ledger falla, las rewards del usuario
+                //    se cancelan: no queda cashback ACTIVE sin acreditar.
+                if (userCashback.signum() > 0) {
+                    try {
+                        ledger.credit(user.getId(), userCashback, "bulk-rewards");
+                        totalCashback = totalCashback.add(userCashback);
+                        created += savedPositions.size();
+                    } catch (RuntimeException e) {
+                        for (int i : savedPositions) {
+                            Reward orphan = results[i].getReward();
+                            orphan.setStatus(RewardStatus.CANCELLED);
+                            orphan.setDescription(orphan.getDescription() + " [Ledger credit failed]");
+                            rewardRepository.save(orphan);
+                            results[i] = CreateRewardResult.failed(i, "Cashback could not be credited: " + e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
         
-        // Crear reward
+        return new BulkRewardsResult(Arrays.asList(results), created, requests.size() - created, totalCashback);
+    }
+    
+    private Reward buildReward(User user, CashbackRule rule, String transactionId, BigDecimal cashbackAmount,
+                               TransactionCategory category, String description, LocalDateTime earnedAt) {
         Reward reward = new Reward();
-        reward.setUserId(userId);
+        reward.setUserId(user.getId());
         reward.setAmount(cashbackAmount);
-        reward.setEarnedAt(LocalDateTime.now());
-        reward.setExpiresAt(LocalDateTime.now().plusDays(90)); // 90 días de vigencia
+        reward.setEarnedAt(earnedAt);
+        reward.setExpiresAt(earnedAt.plusDays(90)); // 90 días de vigencia
         reward.setStatus(RewardStatus.ACTIVE);
         reward.setCategory(category);
         reward.setTransactionId(transactionId);
         reward.setDescription(description != null ? description : category.name() + " cashback");
-        reward.setMultiplier(tierMultiplier);
-        
-        // Guardar reward
-        Reward saved = rewardRepository.save(reward);
-        
-        // Actualizar balance del usuario
-        user.setTotalCashbackEarned(user.getTotalCashbackEarned().add(cashbackAmount));
-        user.setAvailableCashback(user.getAvailableCashback().add(cashbackAmount));
-        userRepository.save(user);
-        
-        return saved;
+        reward.setMultiplier(getTierMultiplier(user.getTier(), rule.getTierMultipliers()));
+        return reward;
     }
     
     /**
@@ -224,9 +351,9 @@ public class CashbackService {
      * 
      * FLUJO:
      * 1. Validar usuario y balance
-     * 2. Marcar rewards como REDEEMED hasta cubrir el monto
-     * 3. Actualizar balance del usuario
-     * 4. Generar ID de transacción de redención
+     * 2. Debitar el balance de forma atómica (CashbackLedger)
+     * 3. Consumir rewards ACTIVE por orden de expiración hasta cubrir el
+     *    monto, dividiendo la última si se usa parcialmente de redención
      * 
      * @param userId ID del usuario
      * @param amount Monto a redimir
@@ -235,19 +362,12 @@ public class CashbackService {
      */
     public RedemptionResult redeemCashback(String userId, BigDecimal amount,
                                            String destinationAccount) {
-        // Validar usuario
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        // Validar usuario (lanza si no existe)
+        BigDecimal available = ledger.availableBalance(userId);
         
         // Validar balance suficiente
-        if (user.getAvailableCashback().compareTo(amount) < 0) {
-            return new RedemptionResult(
-                    false,
-                    "Insufficient cashback balance. Available: " + user.getAvailableCashback(),
-                    null,
-                    user.getAvailableCashback(),
-                    null
-            );
+        if (available.compareTo(amount) < 0) {
+            return insufficientBalance(available);
         }
         
         // Validar monto mínimo
@@ -257,39 +377,88 @@ public class CashbackService {
                     false,
                     "Minimum redemption amount is " + minRedemption,
                     null,
-                    user.getAvailableCashback(),
+                    available,
                     null
             );
         }
         
-        // Marcar rewards como REDEEMED
-        List<Reward> activeRewards = rewardRepository.findByUserIdAndStatus(userId, RewardStatus.ACTIVE);
-        BigDecimal remaining = amount;
-        
-        for (Reward reward : activeRewards) {
-            if (remaining.compareTo(BigDecimal.ZERO) <= 0) break;
-            
-            reward.setStatus(RewardStatus.REDEEMED);
-            remaining = remaining.subtract(reward.getAmount());
-            rewardRepository.save(reward);
+        // El ledger trabaja en centavos exactos: no se redondea el monto pedido
+        if (amount.stripTrailingZeros().scale() > 2) {
+            return new RedemptionResult(
+                    false,
+                    "Redemption amount must have at most 2 decimals",
+                    null,
+                    available,
+                    null
+            );
         }
         
-        // Actualizar balance del usuario
-        user.setAvailableCashback(user.getAvailableCashback().subtract(amount));
-        userRepository.save(user);
-        
         // Generar ID de transacción
         String transactionId = "redemption-" + UUID.randomUUID().toString().substring(0, 8);
         
+        // Débito atómico: la validación de saldo se repite dentro del ledger,
+        // así dos redenciones concurrentes no pueden sobregirar la cuenta.
+        // El lock por usuario serializa además el consumo de rewards.
+        Optional<BigDecimal> newBalance;
+        synchronized (rewardLock(userId)) {
+            newBalance = ledger.debitIfSufficient(userId, amount, transactionId);
+            if (newBalance.isEmpty()) {
+                return insufficientBalance(ledger.availableBalance(userId));
+            }
+            consumeActiveRewards(userId, amount);
+        }
+        
         return new RedemptionResult(
                 true,
                 "Cashback redeemed successfully to account " + destinationAccount,
                 amount,
-                user.getAvailableCashback(),
+                newBalance.get(),
                 transactionId
         );
     }
     
+    /**
+     * Marca como REDEEMED las rewards ACTIVE que cubren 'amount', empezando
+     * por la que vence antes. Si la última solo se consume en parte, se divide:
+     * la porción canjeada pasa a una nueva reward REDEEMED y el resto sigue
+     * ACTIVE con la misma fecha de expiración.
+     */
+    private void consumeActiveRewards(String userId, BigDecimal amount) {
+        BigDecimal remaining = amount;
+        
+        for (Reward reward : rewardRepository.findActiveToCover(userId, amount)) {
+            if (remaining.compareTo(reward.getAmount()) >= 0) {
+                reward.setStatus(RewardStatus.REDEEMED);
+                rewardRepository.save(reward);
+                remaining = remaining.subtract(reward.getAmount());
+                continue;
+            }
+            
+            Reward redeemedPart = new Reward(null, reward.getUserId(), remaining, reward.getEarnedAt(),
+                    reward.getExpiresAt(), RewardStatus.REDEEMED, reward.getCategory(),
+                    reward.getTransactionId(), reward.getDescription() + " [partial redemption]",
+                    reward.getMultiplier());
+            reward.setAmount(reward.getAmount().subtract(remaining));
+            rewardRepository.save(reward);
+            rewardRepository.save(redeemedPart);
+            break;
+        }
+    }
+    
+    private Object rewardLock(String userId) {
+        return rewardLocks[Math.floorMod(userId.hashCode(), rewardLocks.length)];
+    }
+    
+    private RedemptionResult insufficientBalance(BigDecimal available) {
+        return new RedemptionResult(
+                false,
+                "Insufficient cashback balance. Available: " + available,
+                null,
+                available,
+                null
+        );
+    }
+    
     /**
      * Actualiza el estado de una reward.
      * 
@@ -309,24 +478,27 @@ public class CashbackService {
         Reward reward = rewardRepository.findById(rewardId)
                 .orElseThrow(() -> new RuntimeException("Reward not found: " + rewardId));
         
-        RewardStatus oldStatus = reward.getStatus();
-        reward.setStatus(newStatus);
-        
-        if (reason != null) {
-            reward.setDescription(reward.getDescription() + " [" + reason + "]");
-        }
-        
-        Reward updated = rewardRepository.save(reward);
-        
-        // Si se cancela o expira una reward ACTIVE, ajustar balance
-        if ((newStatus == RewardStatus.CANCELLED || newStatus == RewardStatus.EXPIRED)
-                && oldStatus == RewardStatus.ACTIVE) {
-            User user = userRepository.findById(reward.getUserId()).orElseThrow();
-            user.setAvailableCashback(user.getAvailableCashback().subtract(reward.getAmount()));
-            userRepository.save(user);
+        // Mismo lock que redeemCashback: el estado y el monto se leen y cambian
+        // sin que una redención concurrente consuma o divida la reward.
+        synchronized (rewardLock(reward.getUserId())) {
+            RewardStatus oldStatus = reward.getStatus();
+            reward.setStatus(newStatus);
+            
+            if (reason != null) {
+                reward.setDescription(reward.getDescription() + " [" + reason + "]");
+            }
+            
+            Reward updated = rewardRepository.save(reward);
+            
+            // Si se cancela o expira una reward ACTIVE, ajustar balance
+            if ((newStatus == RewardStatus.CANCELLED || newStatus == RewardStatus.EXPIRED)
+                    && oldStatus == RewardStatus.ACTIVE) {
+                ledger.reverse(reward.getUserId(), reward.getAmount(),
+                        newStatus.name().toLowerCase() + ":" + rewardId);
+            }
+            
+            return updated;
         }
-        
-        return updated;
     }
     
     /**
@@ -336,20 +508,61 @@ public class CashbackService {
      * 
      * Este método típicamente se ejecuta via:
      * - Cron job diario
-     * - Spring @Scheduled
+     * - Spring @Scheduled (ver RewardExpiryScheduler)
      * - Manualmente por admin
      * 
+     * Solo recorre el índice por expiración, en lotes de EXPIRY_BATCH_SIZE.
+     * 
      * @return Cantidad de rewards expiradas
      */
     public int expireOldRewards() {
         LocalDateTime now = LocalDateTime.now();
-        List<Reward> activeRewards = rewardRepository.findByStatus(RewardStatus.ACTIVE);
         
         int count = 0;
-        for (Reward reward : activeRewards) {
-            if (reward.getExpiresAt() != null && reward.getExpiresAt().isBefore(now)) {
-                updateRewardStatus(reward.getId(), RewardStatus.EXPIRED, "Auto-expired");
-                count++;
+        List<Reward> due;
+        do {
+            due = rewardRepository.findDueForExpiry(now, EXPIRY_BATCH_SIZE);
+            count += expireRewards(due);
+        } while (due.size() == EXPIRY_BATCH_SIZE);
+        
+        return count;
+    }
+    
+    /**
+     * Expira un lote de rewards vencidas.
+     * 
+     * Usado por expireOldRewards y por RewardExpiryScheduler. En vez de pasar
+     * por updateRewardStatus (un lookup y un save de usuario por reward),
+     * acumula los importes y aplica UN ajuste de balance por usuario.
+     * 
+     * @param due Rewards obtenidas de RewardRepository.findDueForExpiry
+     * @return Cantidad de rewards expiradas
+     */
+    public int expireRewards(List<Reward> due) {
+        Map<String, List<Reward>> dueByUser = new HashMap<>();
+        for (Reward reward : due) {
+            dueByUser.computeIfAbsent(reward.getUserId(), k -> new ArrayList<>()).add(reward);
+        }
+        
+        int count = 0;
+        for (Map.Entry<String, List<Reward>> entry : dueByUser.entrySet()) {
+            // Estado, monto y reversión bajo el lock del usuario: una reward
+            // redimida o dividida en paralelo no se revierte dos veces
+            synchronized (rewardLock(entry.getKey())) {
+                BigDecimal expired = BigDecimal.ZERO;
+                for (Reward reward : entry.getValue()) {
+                    if (reward.getStatus() != RewardStatus.ACTIVE) {
+                        continue;
+                    }
+                    reward.setStatus(RewardStatus.EXPIRED);
+                    reward.setDescription(reward.getDescription() + " [Auto-expired]");
+                    rewardRepository.save(reward);
+                    expired = expired.add(reward.getAmount());
+                    count++;
+                }
+                if (expired.signum() > 0) {
+                    ledger.reverse(entry.getKey(), expired, "expiry-batch");
+                }
             }
         }
         
@@ -399,6 +612,7 @@ public class CashbackService {
  * ┌─────────────────────────────────────────────────────────────────────────┐
  * │  calculateCashback     │  Calcula cashback por transacción             │
  * │  createReward          │  Crea reward y actualiza balance              │
+ * │  createRewards         │  Lote agrupado por usuario y categoría        │
  * │  redeemCashback        │  Canjea cashback disponible                   │
  * │  updateRewardStatus    │  Cambia estado de una reward                  │
  * │  expireOldRewards      │  Expira rewards vencidas (batch)              │
@@ -0,0 +1,148 @@
+package com.neobank.cashback.service;
+
+import com.neobank.cashback.domain.Reward;
+import com.neobank.cashback.repository.RewardRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Expiración incremental de rewards en background.
+ * 
+ * Cada ejecución toma del índice por expiresAt (RewardRepository) solo las
+ * rewards ACTIVE ya vencidas, en lotes acotados, y delega en
+ * CashbackService.expireRewards, que agrupa el ajuste de balance por usuario.
+ * 
+ * El número de lotes por ejecución también está acotado: si hay backlog,
+ * se continúa en la siguiente ejecución en lugar de bloquear el scheduler.
+ * 
+ * Métricas expuestas vía Query.expiryStats:
+ * - lag: cuánto después de su expiresAt se expiró la reward más atrasada
+ * - tamaño de lote: último y máximo
+ */
+@Component
+public class RewardExpiryScheduler {
+    
+    private final RewardRepository rewardRepository;
+    private final CashbackService cashbackService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private final AtomicReference<LocalDateTime> lastRunAt = new AtomicReference<>();
+    
+    public RewardExpiryScheduler(RewardRepository rewardRepository,
+                                 CashbackService cashbackService,
+                                 @Value("${cashback.expiry.batch-size:500}") int batchSize,
+                                 @Value("${cashback.expiry.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.rewardRepository = rewardRepository;
+        this.cashbackService = cashbackService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+    
+    @Scheduled(fixedDelayString = "${cashback.expiry.interval:PT30S}")
+    public void expireDueRewards() {
+        LocalDateTime now = LocalDateTime.now();
+        runs.incrementAndGet();
+        lastRunAt.set(now);
+        
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<Reward> due = rewardRepository.findDueForExpiry(now, batchSize);
+            if (due.isEmpty()) {
+                break;
+            }
+            
+            // El primer elemento es el de expiresAt más antiguo del lote
+            long lag = Duration.between(due.get(0).getExpiresAt(), now).toMillis();
+            lastLagMillis.set(lag);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+            
+            int count = cashbackService.expireRewards(due);
+            batches.incrementAndGet();
+            expired.addAndGet(count);
+            lastBatchSize.set(count);
+            maxBatchSize.accumulateAndGet(count, Math::max);
+            
+            if (due.size() < batchSize) {
+                break;
+            }
+        }
+    }
+    
+    public ExpiryStats stats() {
+        return new ExpiryStats(runs.get(), batches.get(), expired.get(), lastBatchSize.get(),
+                maxBatchSize.get(), lastLagMillis.get(), maxLagMillis.get(), lastRunAt.get());
+    }
+    
+    /**
+     * Snapshot de métricas del scheduler (tipo GraphQL ExpiryStats).
+     */
+    public static class ExpiryStats {
+        private final long runs;
+        private final long batches;
+        private final long expired;
+        private final int lastBatchSize;
+        private final int maxBatchSize;
+        private final long lastLagMillis;
+        private final long maxLagMillis;
+        private final LocalDateTime lastRunAt;
+        
+        ExpiryStats(long runs, long batches, long expired, int lastBatchSize, int maxBatchSize,
+                    long lastLagMillis, long maxLagMillis, LocalDateTime lastRunAt) {
+            this.runs = runs;
+            this.batches = batches;
+            this.expired = expired;
+            this.lastBatchSize = lastBatchSize;
+            this.maxBatchSize = maxBatchSize;
+            this.lastLagMillis = lastLagMillis;
+            this.maxLagMillis = maxLagMillis;
+            this.lastRunAt = lastRunAt;
+        }
+        
+        public long getRuns() {
+            return runs;
+        }
+        
+        public long getBatches() {
+            return batches;
+        }
+        
+        public long getExpired() {
+            return expired;
+        }
+        
+        public int getLastBatchSize() {
+            return lastBatchSize;
+        }
+        
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+        
+        public long getLastLagMillis() {
+            return lastLagMillis;
+        }
+        
+        public long getMaxLagMillis() {
+            return maxLagMillis;
+        }
+        
+        public LocalDateTime getLastRunAt() {
+            return lastRunAt;
+        }
+    }
+}
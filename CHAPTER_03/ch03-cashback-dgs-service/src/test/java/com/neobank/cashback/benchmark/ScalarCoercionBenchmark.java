@@ -0,0 +1,72 @@
+package com.neobank.cashback.benchmark;
+
+import com.neobank.cashback.config.FastDateTimeCoercing;
+import com.neobank.cashback.config.MoneyCoercing;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Micro-benchmark de coerción de scalars: DateTimeFormatter vs FastDateTimeCoercing.
+ * 
+ * 🎓 ¿QUÉ MIDE?
+ * - serialize DateTime:  LocalDateTime.format(ISO_LOCAL_DATE_TIME) vs writer manual
+ * - parse DateTime:      LocalDateTime.parse(ISO_LOCAL_DATE_TIME) vs parser + caché
+ * - serialize Money:     identidad de MoneyCoercing sobre BigDecimal
+ * 
+ * 🏃 CÓMO EJECUTARLO (tras mvn test-compile; vive en src/test para no
+ * viajar en el artefacto):
+ * ```bash
+ * java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath \
+ *      -Dmdep.outputFile=/dev/stdout) com.neobank.cashback.benchmark.ScalarCoercionBenchmark
+ * ```
+ * 
+ * La equivalencia de resultados la verifican FastDateTimeCoercingTest y
+ * MoneyCoercingTest; este main solo mide tiempos.
+ * 
+ * 💡 Es un benchmark casero (warmup + varias rondas, ns/op). Para cifras
+ * publicables usar JMH; aquí basta para comparar órdenes de magnitud.
+ */
+public class ScalarCoercionBenchmark {
+    
+    private static final int SAMPLES = 4096;
+    private static final int OPERATIONS = 2_000_000;
+    private static final int ROUNDS = 5;
+    
+    public static void main(String[] args) {
+        FastDateTimeCoercing dateTimeCoercing = new FastDateTimeCoercing();
+        MoneyCoercing moneyCoercing = new MoneyCoercing();
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        
+        LocalDateTime[] dates = new LocalDateTime[SAMPLES];
+        String[] texts = new String[SAMPLES];
+        BigDecimal[] amounts = new BigDecimal[SAMPLES];
+        LocalDateTime base = LocalDateTime.of(2024, 1, 15, 14, 30);
+        for (int i = 0; i < SAMPLES; i++) {
+            dates[i] = base.plusMinutes(i * 37L).plusNanos((i % 3) * 1_000_000L);
+            texts[i] = dates[i].format(formatter);
+            amounts[i] = BigDecimal.valueOf(i * 125L, 2);
+        }
+        
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("── Ronda %d ──%n", round);
+            run("serialize DateTime (formatter)", i -> dates[i].format(formatter).length());
+            run("serialize DateTime (fast)     ", i -> dateTimeCoercing.serialize(dates[i]).length());
+            run("parse DateTime (formatter)    ", i -> LocalDateTime.parse(texts[i], formatter).getMinute());
+            run("parse DateTime (fast+cache)   ", i -> dateTimeCoercing.parseValue(texts[i]).getMinute());
+            run("serialize Money (direct)      ", i -> moneyCoercing.serialize(amounts[i]).scale());
+        }
+    }
+    
+    private static void run(String name, IntUnaryOperator operation) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            sink += operation.applyAsInt(i & (SAMPLES - 1));
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("  %s %8.1f ns/op  (sink=%d)%n", name, (double) elapsed / OPERATIONS, sink);
+    }
+}
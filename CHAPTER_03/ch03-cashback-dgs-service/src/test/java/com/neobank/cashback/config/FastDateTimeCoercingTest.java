@@ -0,0 +1,150 @@
+package com.neobank.cashback.config;
+
+import graphql.language.StringValue;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * FastDateTimeCoercing debe comportarse EXACTAMENTE como el coercing
+ * original basado en DateTimeFormatter.ISO_LOCAL_DATE_TIME.
+ * 
+ * 🎓 QUÉ VERIFICA:
+ * - serialize: mismo texto que LocalDateTime.format(ISO_LOCAL_DATE_TIME),
+ *   incluidos segundos en cero, nanos con y sin ceros a la derecha y años
+ *   fuera de 0..9999 (que van al formatter)
+ * - parseValue/parseLiteral: mismo LocalDateTime que LocalDateTime.parse
+ *   para todo texto válido, y error para todo texto que el formatter rechaza
+ * - La caché de parseo no cambia resultados aunque dos textos compartan slot
+ */
+class FastDateTimeCoercingTest {
+    
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final long SEED = 20_240_115L;
+    private static final int SAMPLES = 100_000;
+    
+    private final FastDateTimeCoercing coercing = new FastDateTimeCoercing();
+    
+    @Test
+    void serializeMatchesFormatterOnEdgeCases() {
+        List<LocalDateTime> edges = List.of(
+                LocalDateTime.of(2024, 1, 15, 14, 30),                       // segundos en cero → ":00"
+                LocalDateTime.of(2024, 1, 15, 0, 0, 0),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59),
+                LocalDateTime.of(2024, 1, 15, 14, 30, 0, 1),                 // 1 ns → 9 dígitos
+                LocalDateTime.of(2024, 1, 15, 14, 30, 0, 10),
+                LocalDateTime.of(2024, 1, 15, 14, 30, 5, 500_000_000),       // ".5"
+                LocalDateTime.of(2024, 1, 15, 14, 30, 5, 1_000_000),         // milisegundos
+                LocalDateTime.of(2024, 1, 15, 14, 30, 5, 123_456_789),
+                LocalDateTime.of(2024, 1, 15, 14, 30, 5, 999_999_999),
+                LocalDateTime.of(0, 1, 1, 0, 0),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(10_000, 1, 1, 0, 0),                        // "+10000-..."
+                LocalDateTime.of(-1, 6, 15, 12, 0),
+                LocalDateTime.MIN,
+                LocalDateTime.MAX);
+        for (LocalDateTime dateTime : edges) {
+            assertEquals(dateTime.format(ISO), coercing.serialize(dateTime), dateTime::toString);
+        }
+    }
+    
+    @Test
+    void serializeAndParseMatchFormatterOnRandomValues() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            LocalDateTime dateTime = randomDateTime(random);
+            String expected = dateTime.format(ISO);
+            assertEquals(expected, coercing.serialize(dateTime));
+            assertEquals(LocalDateTime.parse(expected, ISO), coercing.parseValue(expected), expected);
+        }
+    }
+    
+    @Test
+    void parseMatchesFormatterOnValidTexts() {
+        List<String> valid = List.of(
+                "2024-01-15T14:30",
+                "2024-01-15T14:30:00",
+                "2024-01-15T14:30:00.",                                      // fracción vacía: el formatter la acepta
+                "2024-01-15T14:30:00.0",
+                "2024-01-15T14:30:00.000",
+                "2024-01-15T14:30:00.5",
+                "2024-01-15T14:30:00.000000001",
+                "2024-01-15T14:30:00.123456789",
+                "2024-02-29T23:59:59.999999999",
+                "0000-01-01T00:00",
+                "9999-12-31T23:59:59",
+                "+10000-01-01T00:00:00",
+                "-0001-06-15T12:00",
+                "-2024-01-15T14:30",
+                "2024-01-15t14:30:00");                                      // 't' minúscula → formatter
+        for (String text : valid) {
+            LocalDateTime expected = LocalDateTime.parse(text, ISO);
+            assertEquals(expected, coercing.parseValue(text), text);
+            assertEquals(expected, coercing.parseLiteral(new StringValue(text)), text);
+            // segunda lectura desde la caché
+            assertEquals(expected, coercing.parseValue(text), text);
+        }
+    }
+    
+    @Test
+    void parseRejectsWhatFormatterRejects() {
+        List<String> invalid = List.of(
+                "",
+                "2024-01-15",
+                "2024-01-15 14:30:00",
+                "2024-01-15T14",
+                "2024-01-15T14:30:",
+                "2024-01-15T14:30:00.1234567890",
+                "2024-02-30T10:00",
+                "2023-02-29T10:00",
+                "2024-13-01T00:00",
+                "2024-01-15T24:00",
+                "2024-01-15T14:60",
+                "2024-01-15T14:30:60",
+                "2024-01-15T14:30Z",
+                "２０２４-01-15T14:30");
+        for (String text : invalid) {
+            assertThrows(DateTimeParseException.class, () -> LocalDateTime.parse(text, ISO), text);
+            assertThrows(CoercingParseValueException.class, () -> coercing.parseValue(text), text);
+            assertThrows(CoercingParseLiteralException.class, () -> coercing.parseLiteral(new StringValue(text)), text);
+        }
+    }
+    
+    @Test
+    void parseCacheCollisionsReturnTheRightValue() {
+        // Busca otro texto que caiga en el mismo slot de la caché (1024 slots)
+        String first = "2024-01-15T14:30:00";
+        LocalDateTime probe = LocalDateTime.parse(first, ISO);
+        String second;
+        do {
+            probe = probe.plusSeconds(1);
+            second = probe.format(ISO);
+        } while ((second.hashCode() & 1023) != (first.hashCode() & 1023));
+        
+        for (int i = 0; i < 100; i++) {
+            assertEquals(LocalDateTime.parse(first, ISO), coercing.parseValue(first));
+            assertEquals(LocalDateTime.parse(second, ISO), coercing.parseValue(second));
+        }
+    }
+    
+    private static LocalDateTime randomDateTime(Random random) {
+        LocalDateTime dateTime = LocalDateTime.of(
+                random.nextInt(10_000), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(4) == 0 ? 0 : random.nextInt(60));
+        return switch (random.nextInt(4)) {
+            case 0 -> dateTime;
+            case 1 -> dateTime.withNano(random.nextInt(1_000) * 1_000_000);
+            case 2 -> dateTime.withNano(random.nextInt(1_000_000) * 1_000);
+            default -> dateTime.withNano(random.nextInt(1_000_000_000));
+        };
+    }
+}
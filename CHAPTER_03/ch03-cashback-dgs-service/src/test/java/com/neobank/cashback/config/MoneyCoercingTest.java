@@ -0,0 +1,105 @@
+package com.neobank.cashback.config;
+
+import graphql.language.BooleanValue;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.scalars.ExtendedScalars;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * MoneyCoercing debe devolver lo mismo que el alias anterior de
+ * ExtendedScalars.GraphQLBigDecimal, incluida la escala (equals, no compareTo).
+ * 
+ * 🎓 QUÉ VERIFICA:
+ * - serialize/parseValue: BigDecimal, enteros, doubles y Strings, con
+ *   negativos, cero, escalas largas y notación científica
+ * - parseLiteral: literales Float, Int y String del AST
+ * - Las entradas que GraphQLBigDecimal rechaza también se rechazan
+ */
+@SuppressWarnings("deprecation") // API Coercing sin GraphQLContext, la que usa el coercing de referencia
+class MoneyCoercingTest {
+    
+    private static final Coercing<?, ?> REFERENCE = ExtendedScalars.GraphQLBigDecimal.getCoercing();
+    
+    private final MoneyCoercing coercing = new MoneyCoercing();
+    
+    private static final List<Object> VALUES = List.of(
+            new BigDecimal("45.50"),
+            new BigDecimal("-45.50"),
+            new BigDecimal("0"),
+            new BigDecimal("0.00"),
+            new BigDecimal("-0.01"),
+            new BigDecimal("1E+3"),
+            new BigDecimal("123456789012345678901234567890.123456789"),
+            5,
+            -7L,
+            (short) 3,
+            0.1,
+            -2.5,
+            1.0E-7,
+            12.5f,
+            new BigInteger("-98765432109876543210"),
+            "12.340",
+            "-0.01",
+            "1e3",
+            "0");
+    
+    @Test
+    void serializeMatchesBigDecimalScalar() {
+        for (Object value : VALUES) {
+            assertEquals(REFERENCE.serialize(value), coercing.serialize(value), () -> describe(value));
+        }
+    }
+    
+    @Test
+    void parseValueMatchesBigDecimalScalar() {
+        for (Object value : VALUES) {
+            assertEquals(REFERENCE.parseValue(value), coercing.parseValue(value), () -> describe(value));
+        }
+    }
+    
+    @Test
+    void parseLiteralMatchesBigDecimalScalar() {
+        List<Value<?>> literals = List.of(
+                new FloatValue(new BigDecimal("45.50")),
+                new FloatValue(new BigDecimal("-0.001")),
+                new IntValue(BigInteger.valueOf(-12)),
+                new IntValue(BigInteger.ZERO),
+                new StringValue("99.990"),
+                new StringValue("-1.5"));
+        for (Value<?> literal : literals) {
+            assertEquals(REFERENCE.parseLiteral(literal), coercing.parseLiteral(literal), literal::toString);
+        }
+    }
+    
+    @Test
+    void rejectsWhatBigDecimalScalarRejects() {
+        for (Object invalid : List.<Object>of("abc", "12,50", "", true, new Object())) {
+            assertThrows(CoercingSerializeException.class, () -> REFERENCE.serialize(invalid), () -> describe(invalid));
+            assertThrows(CoercingSerializeException.class, () -> coercing.serialize(invalid), () -> describe(invalid));
+            assertThrows(CoercingParseValueException.class, () -> REFERENCE.parseValue(invalid), () -> describe(invalid));
+            assertThrows(CoercingParseValueException.class, () -> coercing.parseValue(invalid), () -> describe(invalid));
+        }
+        for (Value<?> invalid : List.<Value<?>>of(new StringValue("abc"), new BooleanValue(true))) {
+            assertThrows(CoercingParseLiteralException.class, () -> REFERENCE.parseLiteral(invalid), invalid::toString);
+            assertThrows(CoercingParseLiteralException.class, () -> coercing.parseLiteral(invalid), invalid::toString);
+        }
+    }
+    
+    private static String describe(Object value) {
+        return value.getClass().getSimpleName() + " " + value;
+    }
+}
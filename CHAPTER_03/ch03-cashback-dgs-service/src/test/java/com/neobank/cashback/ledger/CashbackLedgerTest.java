@@ -0,0 +1,104 @@
+package com.neobank.cashback.ledger;
+
+import com.neobank.cashback.domain.User;
+import com.neobank.cashback.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests del ledger de cashback.
+ * 
+ * 🎓 QUÉ VERIFICA:
+ * - Los montos se convierten a centavos sin redondeo silencioso
+ * - Bajo concurrencia, créditos y débitos sobre el MISMO usuario nunca
+ *   sobregiran la cuenta y el balance final cuadra al centavo con la suma
+ *   de movimientos aceptados
+ */
+class CashbackLedgerTest {
+    
+    private static final String USER_ID = "user-001"; // availableCashback inicial: 450.30
+    
+    private UserRepository userRepository;
+    private CashbackLedger ledger;
+    
+    @BeforeEach
+    void setUp() {
+        userRepository = new UserRepository();
+        ledger = new CashbackLedger(userRepository);
+    }
+    
+    @Test
+    void toCentsRejectsMoreThanTwoDecimals() {
+        assertEquals(1234L, CashbackLedger.toCents(new BigDecimal("12.34")));
+        assertEquals(1234L, CashbackLedger.toCents(new BigDecimal("12.3400")));
+        assertThrows(IllegalArgumentException.class, () -> CashbackLedger.toCents(new BigDecimal("12.345")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.credit(USER_ID, new BigDecimal("0.005"), "half-cent"));
+        assertEquals(new BigDecimal("450.30"), ledger.availableBalance(USER_ID));
+    }
+    
+    @Test
+    void concurrentCreditsAndDebitsNeverOverdraw() throws Exception {
+        int threads = 16;
+        int opsPerThread = 2_000;
+        BigDecimal credit = new BigDecimal("0.07");
+        BigDecimal debit = new BigDecimal("0.25");
+        
+        AtomicLong acceptedDebits = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        for (int t = 0; t < threads; t++) {
+            boolean debitor = t % 2 == 0;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < opsPerThread; i++) {
+                    if (debitor) {
+                        ledger.debitIfSufficient(USER_ID, debit, "stress-debit")
+                                .ifPresent(after -> {
+                                    assertTrue(after.signum() >= 0, "Balance went negative: " + after);
+                                    acceptedDebits.incrementAndGet();
+                                });
+                    } else {
+                        ledger.credit(USER_ID, credit, "stress-credit");
+                    }
+                }
+                return null;
+            }));
+        }
+        
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        
+        long credits = (long) (threads / 2) * opsPerThread;
+        long expectedCents = 45_030 + credits * 7 - acceptedDebits.get() * 25;
+        BigDecimal expected = BigDecimal.valueOf(expectedCents, 2);
+        
+        assertTrue(acceptedDebits.get() > 0, "No debit was accepted");
+        assertEquals(expected, ledger.availableBalance(USER_ID));
+        
+        // El User (write-through) y el historial cuadran con el balance del ledger
+        User user = userRepository.findById(USER_ID).orElseThrow();
+        assertEquals(expected, user.getAvailableCashback());
+        assertEquals(BigDecimal.valueOf(125_050 + credits * 7, 2), user.getTotalCashbackEarned());
+        assertEquals(credits + acceptedDebits.get(), ledger.entries(USER_ID, Integer.MAX_VALUE).size());
+    }
+}
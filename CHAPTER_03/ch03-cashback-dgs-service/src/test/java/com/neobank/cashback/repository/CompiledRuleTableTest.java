@@ -0,0 +1,165 @@
+package com.neobank.cashback.repository;
+
+import com.neobank.cashback.domain.CashbackRule;
+import com.neobank.cashback.domain.RewardTier;
+import com.neobank.cashback.domain.TierMultipliers;
+import com.neobank.cashback.domain.TransactionCategory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test de propiedad: la tabla compilada (aritmética en long) devuelve
+ * EXACTAMENTE lo mismo que la fórmula BigDecimal original de
+ * calculateCashback, incluida la escala del resultado.
+ * 
+ * 🎓 POR QUÉ UN TEST DE PROPIEDAD:
+ * Los errores de punto fijo aparecen en casos borde (empates de redondeo,
+ * montos con 3-4 decimales, topes). En vez de elegir ejemplos a mano se
+ * generan cientos de miles de entradas aleatorias con semilla fija
+ * (reproducible) y se comparan contra la fórmula de referencia.
+ * 
+ * ⚠️ Cada test verifica primero que las reglas SÍ se compilaron: si cayeran
+ * todas a reference, el test compararía la fórmula consigo misma.
+ */
+class CompiledRuleTableTest {
+    
+    private static final long SEED = 20_240_611L;
+    private static final int SAMPLES = 200_000;
+    
+    @Test
+    void matchesLegacyFormulaForRepositoryRules() {
+        CashbackRuleRepository repository = new CashbackRuleRepository();
+        List<CashbackRule> rules = repository.findAll();
+        assertAllCompiled(rules);
+        assertMatchesLegacy(rules, new Random(SEED));
+    }
+    
+    @Test
+    void compiledResultsMatchHandComputedValues() {
+        // 2% base, multiplicadores 1 / 1.5 / 2 / 3, mínimo $10, tope $50
+        CashbackRule rule = new CashbackRule("rule-hand", TransactionCategory.GROCERIES, 2.0,
+                new TierMultipliers(1.0, 1.5, 2.0, 3.0), new BigDecimal("10.00"), new BigDecimal("50.00"), true);
+        CompiledRuleTable table = CompiledRuleTable.compile(List.of(rule));
+        assertTrue(table.isCompiled(TransactionCategory.GROCERIES));
+        
+        assertEquals(new BigDecimal("2.00"), table.calculate(TransactionCategory.GROCERIES, RewardTier.BRONZE, new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("3.00"), table.calculate(TransactionCategory.GROCERIES, RewardTier.SILVER, new BigDecimal("100.00")));
+        // 33.33 × 2% = 0.6666 → 0.67; × 1.5 = 1.005 → 1.01
+        assertEquals(new BigDecimal("1.01"), table.calculate(TransactionCategory.GROCERIES, RewardTier.SILVER, new BigDecimal("33.33")));
+        assertEquals(new BigDecimal("50.00"), table.calculate(TransactionCategory.GROCERIES, RewardTier.PLATINUM, new BigDecimal("5000.00")));
+        assertEquals(BigDecimal.ZERO, table.calculate(TransactionCategory.GROCERIES, RewardTier.GOLD, new BigDecimal("9.99")));
+    }
+    
+    @Test
+    void ratesBeyondScaleFallBackToReference() {
+        CashbackRule rule = new CashbackRule("rule-third", TransactionCategory.TRAVEL, 1.0 / 3,
+                new TierMultipliers(1.0, 1.5, 2.0, 3.0), BigDecimal.ZERO, new BigDecimal("500.00"), true);
+        CompiledRuleTable table = CompiledRuleTable.compile(List.of(rule));
+        assertFalse(table.isCompiled(TransactionCategory.TRAVEL));
+        assertMatchesLegacy(List.of(rule), new Random(SEED + 2));
+    }
+    
+    @Test
+    void matchesLegacyFormulaForNonTrivialRates() {
+        List<CashbackRule> rules = new ArrayList<>();
+        TransactionCategory[] categories = TransactionCategory.values();
+        Random random = new Random(SEED + 1);
+        for (int i = 0; i < categories.length; i++) {
+            rules.add(new CashbackRule(
+                    "rule-prop-" + i,
+                    categories[i],
+                    randomRate(random),
+                    new TierMultipliers(randomRate(random), randomRate(random), randomRate(random), randomRate(random)),
+                    BigDecimal.valueOf(random.nextInt(2_000), 2),
+                    BigDecimal.valueOf(1 + random.nextInt(20_000), 2),
+                    i % 7 != 0));
+        }
+        assertAllCompiled(rules);
+        assertMatchesLegacy(rules, random);
+    }
+    
+    private static void assertAllCompiled(List<CashbackRule> rules) {
+        CompiledRuleTable table = CompiledRuleTable.compile(rules);
+        for (CashbackRule rule : rules) {
+            assertTrue(table.isCompiled(rule.getCategory()), "Rule not compiled: " + rule.getCategory());
+        }
+    }
+    
+    private static void assertMatchesLegacy(List<CashbackRule> rules, Random random) {
+        CompiledRuleTable table = CompiledRuleTable.compile(rules);
+        RewardTier[] tiers = RewardTier.values();
+        
+        for (int i = 0; i < SAMPLES; i++) {
+            CashbackRule rule = rules.get(random.nextInt(rules.size()));
+            RewardTier tier = tiers[random.nextInt(tiers.length)];
+            BigDecimal amount = randomAmount(random);
+            
+            BigDecimal expected = legacyCalculateCashback(rule, tier, amount);
+            BigDecimal actual = table.calculate(rule.getCategory(), tier, amount);
+            
+            // equals (no compareTo): también la escala debe coincidir
+            assertEquals(expected, actual,
+                    "category=" + rule.getCategory() + " tier=" + tier + " amount=" + amount);
+        }
+    }
+    
+    /**
+     * Copia literal de la fórmula de CashbackService.calculateCashback antes
+     * de la tabla compilada.
+     */
+    private static BigDecimal legacyCalculateCashback(CashbackRule rule, RewardTier tier, BigDecimal amount) {
+        if (!rule.getIsActive()) {
+            return BigDecimal.ZERO;
+        }
+        if (amount.compareTo(rule.getMinTransactionAmount()) < 0) {
+            return BigDecimal.ZERO;
+        }
+        Double tierMultiplier = switch (tier) {
+            case BRONZE -> rule.getTierMultipliers().getBronze();
+            case SILVER -> rule.getTierMultipliers().getSilver();
+            case GOLD -> rule.getTierMultipliers().getGold();
+            case PLATINUM -> rule.getTierMultipliers().getPlatinum();
+        };
+        BigDecimal cashback = amount
+                .multiply(BigDecimal.valueOf(rule.getBasePercentage()))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(tierMultiplier))
+                .setScale(2, RoundingMode.HALF_UP);
+        if (cashback.compareTo(rule.getMaxCashbackPerTransaction()) > 0) {
+            cashback = rule.getMaxCashbackPerTransaction();
+        }
+        return cashback;
+    }
+    
+    /**
+     * Montos de 0 a 100,000 con 0 a 5 decimales (escala > 4 ejercita el
+     * respaldo BigDecimal) y algunos valores enormes (desborde de long).
+     */
+    private static BigDecimal randomAmount(Random random) {
+        if (random.nextInt(1_000) == 0) {
+            return new BigDecimal("92233720368547758.07").add(BigDecimal.valueOf(random.nextInt(1_000)));
+        }
+        int scale = random.nextInt(6);
+        long unscaled = (long) (random.nextDouble() * 100_000 * Math.pow(10, scale));
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+    
+    /**
+     * Tasas de 0 a 5 con 0 a 4 decimales: todas representables en escala 4,
+     * así que la regla se compila (los valores no representables los cubre
+     * ratesBeyondScaleFallBackToReference).
+     */
+    private static double randomRate(Random random) {
+        int scale = random.nextInt(5);
+        return BigDecimal.valueOf(random.nextInt(5 * (int) Math.pow(10, scale) + 1), scale).doubleValue();
+    }
+}
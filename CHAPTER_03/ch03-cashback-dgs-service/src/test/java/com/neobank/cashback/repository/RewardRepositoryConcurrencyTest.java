@@ -0,0 +1,100 @@
+package com.neobank.cashback.repository;
+
+import com.neobank.cashback.domain.Reward;
+import com.neobank.cashback.domain.RewardStatus;
+import com.neobank.cashback.domain.TransactionCategory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Índices ordenados de RewardRepository bajo altas y bajas concurrentes.
+ * 
+ * 🎓 QUÉ VERIFICA:
+ * En cada ronda todos los hilos usan la MISMA clave (earnedAt, amount y
+ * expiresAt) y caen en el mismo bucket de cada índice ordenado. Un hilo da de
+ * alta la reward que se queda; los demás dan de alta y de baja otras rewards
+ * sin parar, vaciando y desmontando el bucket una y otra vez. Al final la
+ * reward de cada ronda debe seguir en los tres índices; si faltara en
+ * activeIdsByExpiry, nunca expiraría.
+ */
+class RewardRepositoryConcurrencyTest {
+    
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 2_000;
+    private static final int CHURN_PER_ROUND = 20;
+    
+    private static final LocalDateTime EARNED_AT = LocalDateTime.of(2001, 1, 1, 0, 0);
+    private static final LocalDateTime EXPIRES_AT = LocalDateTime.of(2001, 6, 1, 0, 0);
+    
+    @Test
+    void concurrentAddAndRemoveOnSameKeyKeepEveryIndexedId() throws Exception {
+        RewardRepository repository = new RewardRepository();
+        CyclicBarrier round = new CyclicBarrier(THREADS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int r = 0; r < ROUNDS; r++) {
+                    round.await(10, TimeUnit.SECONDS);
+                    if (thread == 0) {
+                        // Entra a mitad de la rotación de los demás hilos
+                        Thread.onSpinWait();
+                        repository.save(reward("race-kept-" + r, r));
+                    } else {
+                        String churn = "race-churn-" + thread;
+                        for (int i = 0; i < CHURN_PER_ROUND; i++) {
+                            repository.save(reward(churn, r));
+                            repository.delete(churn);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        
+        Set<String> dueForExpiry = new HashSet<>();
+        for (Reward reward : repository.findDueForExpiry(EXPIRES_AT.plusSeconds(ROUNDS), Integer.MAX_VALUE)) {
+            if (reward.getId().startsWith("race-")) {
+                dueForExpiry.add(reward.getId());
+            }
+        }
+        
+        for (int r = 0; r < ROUNDS; r++) {
+            String kept = "race-kept-" + r;
+            assertEquals(Set.of(kept), repository.earnedAtIndex().get(EARNED_AT.plusSeconds(r)), "earnedAt, round " + r);
+            assertTrue(repository.amountIndex().get(amount(r)).contains(kept), "amount, round " + r);
+            assertTrue(dueForExpiry.contains(kept), "expiry, round " + r);
+        }
+        assertEquals(ROUNDS, dueForExpiry.size());
+    }
+    
+    private static Reward reward(String id, int round) {
+        return new Reward(id, "user-race", amount(round), EARNED_AT.plusSeconds(round), EXPIRES_AT.plusSeconds(round),
+                RewardStatus.ACTIVE, TransactionCategory.OTHER, null, "race", 1.0);
+    }
+    
+    /** Montos enormes para no compartir bucket con las rewards iniciales */
+    private static BigDecimal amount(int round) {
+        return BigDecimal.valueOf(1_000_000_000L + round, 2);
+    }
+}
@@ -573,7 +573,7 @@ print_concept "   Los Input types permiten agrupar múltiples parámetros en un
    rewards(filter: RewardsFilterInput)  }"
 
 run_graphql_test "Filtro complejo con RewardsFilterInput" \
-    '{ rewards(filter: { status: ACTIVE, category: TRAVEL }) { amount category status } }' \
+    '{ rewards(filter: { status: ACTIVE, category: TRAVEL }) { edges { node { amount category status } } } }' \
     '"status".*"ACTIVE".*"category".*"TRAVEL"'
 
 # Test 16: @DgsData para campo anidado (Reward -> User)
@@ -886,7 +886,7 @@ print_concept "   DataLoader también funciona en dirección inversa (Reward →
    }"
 
 run_graphql_test "Múltiples rewards con su user (DataLoader activo)" \
-    '{ rewards(filter: { status: ACTIVE }) { amount user { fullName tier } } }' \
+    '{ rewards(filter: { status: ACTIVE }) { edges { node { amount user { fullName tier } } } } }' \
     '"amount".*"user".*"fullName"'
 
 # Test 27: Query profunda anidada
@@ -2,6 +2,7 @@ package com.neobank.savings;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * CAPÍTULO 4: SMART SAVINGS GOALS CON PERSISTENCIA JPA + POSTGRESQL
@@ -79,6 +80,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @version 4.0.0
  */
 @SpringBootApplication
+@EnableScheduling  // RoundUpIngestionPipeline.flush()
 public class SavingsApplication {
     
     public static void main(String[] args) {
@@ -0,0 +1,106 @@
+package com.neobank.savings.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Redondeos que NO se pudieron aplicar a su meta y quedan pendientes de
+ * devolver al usuario.
+ * 
+ * 🎯 ¿POR QUÉ EXISTE?
+ * RoundUpIngestionPipeline acumula centavos ya cobrados al usuario. Si la
+ * meta dejó de estar ACTIVE (pausada, cancelada o completada por un
+ * redondeo anterior) o su fila falla una y otra vez, ese dinero no puede
+ * desaparecer: se registra aquí, en la misma transacción que el resto del
+ * lote, para reembolsarlo o redirigirlo después.
+ * 
+ * 📦 MAPEO A BASE DE DATOS:
+ * ```
+ * RoundUpRefundEntity    →      round_up_refunds
+ * refundId (Long)        →      refund_id (BIGSERIAL PK)
+ * goalId (Long)          →      goal_id (BIGINT NOT NULL)
+ * userId (Long)          →      user_id (BIGINT, null si la meta no existe)
+ * amount (BigDec)        →      amount (NUMERIC(15,2))
+ * contributions (int)    →      contributions (INTEGER)
+ * reason (Enum)          →      reason (VARCHAR)
+ * createdAt              →      created_at (TIMESTAMP)
+ * ```
+ * 
+ * Las filas las inserta el pipeline con JDBC; esta entidad se usa para
+ * crear la tabla y para leerla (RoundUpRefundRepository).
+ * 
+ * @see com.neobank.savings.service.RoundUpIngestionPipeline
+ */
+@Entity
+@Table(name = "round_up_refunds",
+       indexes = @Index(name = "idx_round_up_refunds_user_refund",
+                        columnList = "user_id, refund_id"))
+public class RoundUpRefundEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long refundId;
+    
+    @Column(nullable = false)
+    private Long goalId;
+    
+    private Long userId;
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(nullable = false)
+    private int contributions;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RefundReason reason;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    /**
+     * Motivo por el que el redondeo no llegó a la meta.
+     */
+    public enum RefundReason {
+        /** La meta no existe o ya no está ACTIVE (0 filas actualizadas) */
+        GOAL_NOT_ACTIVE,
+        /** La fila falló en todos los reintentos (dead letter) */
+        APPLY_FAILED
+    }
+    
+    /**
+     * Constructor vacío requerido por JPA.
+     */
+    public RoundUpRefundEntity() {
+    }
+    
+    public Long getRefundId() {
+        return refundId;
+    }
+    
+    public Long getGoalId() {
+        return goalId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public int getContributions() {
+        return contributions;
+    }
+    
+    public RefundReason getReason() {
+        return reason;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
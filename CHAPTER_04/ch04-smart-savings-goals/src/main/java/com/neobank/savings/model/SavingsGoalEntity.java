@@ -45,12 +45,15 @@ import java.util.Objects;
  * - @GeneratedValue: Auto-generación de ID
  * - @Column: Configuración de columna
  * - @Enumerated: Cómo persistir enums
+ * - @Index: Índice (user_id, status, goal_id) para la paginación keyset
  * 
  * @see SavingsGoalRepository (acceso a datos)
  * @see SavingsGoalService (lógica de negocio)
  */
 @Entity
-@Table(name = "savings_goals")
+@Table(name = "savings_goals",
+       indexes = @Index(name = "idx_savings_goals_user_status_goal",
+                        columnList = "user_id, status, goal_id"))
 public class SavingsGoalEntity {
     
     /**
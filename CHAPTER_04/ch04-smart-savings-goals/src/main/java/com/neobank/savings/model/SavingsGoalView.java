@@ -0,0 +1,45 @@
+package com.neobank.savings.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección de solo lectura de una meta de ahorro (interface projection).
+ * 
+ * 🎓 SECCIÓN 4.4: PROYECCIONES VS ENTIDADES
+ * 
+ * Spring Data JPA implementa esta interfaz sobre cada fila de una query
+ * nativa (SavingsGoalRepository.findPage*):
+ * - Solo trae las columnas del SELECT
+ * - No es una entidad administrada: sin dirty checking ni snapshot en el
+ *   persistence context
+ * - progressPercentage viene calculado por SQL
+ * 
+ * Los getters coinciden con los campos del type SavingsGoal del schema,
+ * así que el resolver la devuelve tal cual (sin copiar a un Map).
+ * 
+ * @see SavingsGoalEntity (entidad para escrituras)
+ */
+public interface SavingsGoalView {
+    
+    /** goal_id (alias "id" en el SELECT) */
+    Long getId();
+    
+    Long getUserId();
+    
+    String getName();
+    
+    String getDescription();
+    
+    BigDecimal getTargetAmount();
+    
+    BigDecimal getCurrentAmount();
+    
+    /** Nombre de SavingsGoalEntity.GoalCategory */
+    String getCategory();
+    
+    /** Nombre de SavingsGoalEntity.GoalStatus */
+    String getStatus();
+    
+    /** ROUND(current_amount / target_amount, 4) × 100, calculado en SQL */
+    BigDecimal getProgressPercentage();
+}
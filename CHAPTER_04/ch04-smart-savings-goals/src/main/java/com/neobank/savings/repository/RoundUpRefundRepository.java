@@ -0,0 +1,29 @@
+package com.neobank.savings.repository;
+
+import com.neobank.savings.model.RoundUpRefundEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio de solo lectura para los redondeos pendientes de reembolso.
+ * 
+ * ```
+ * findByUserIdOrderByRefundIdDesc(userId, PageRequest.of(0, n))
+ *    ↓
+ * SELECT * FROM round_up_refunds WHERE user_id = ?
+ * ORDER BY refund_id DESC LIMIT n      -- usa idx_round_up_refunds_user_refund
+ * ```
+ * 
+ * @see RoundUpRefundEntity
+ */
+@Repository
+public interface RoundUpRefundRepository extends JpaRepository<RoundUpRefundEntity, Long> {
+    
+    /**
+     * Reembolsos de un usuario, del más reciente al más antiguo.
+     */
+    List<RoundUpRefundEntity> findByUserIdOrderByRefundIdDesc(Long userId, Pageable pageable);
+}
@@ -2,10 +2,15 @@ package com.neobank.savings.repository;
 
 import com.neobank.savings.model.SavingsGoalEntity;
 import com.neobank.savings.model.SavingsGoalEntity.GoalStatus;
+import com.neobank.savings.model.SavingsGoalView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio JPA para acceso a datos de Metas de Ahorro.
@@ -56,6 +61,29 @@ import java.util.List;
 @Repository
 public interface SavingsGoalRepository extends JpaRepository<SavingsGoalEntity, Long> {
     
+    /**
+     * Progreso en SQL, misma fórmula que SavingsGoalEntity.getProgressPercentage():
+     * (currentAmount / targetAmount redondeado a 4 decimales HALF_UP) × 100.
+     */
+    String PROGRESS_SQL =
+            "(CASE WHEN target_amount = 0 THEN 0 " +
+            "      ELSE ROUND(current_amount / target_amount, 4) * 100 END)";
+    
+    /** Columnas de SavingsGoalView (alias entre comillas: PostgreSQL respeta mayúsculas). */
+    String VIEW_COLUMNS =
+            "SELECT goal_id AS \"id\", user_id AS \"userId\", name, description, " +
+            "       target_amount AS \"targetAmount\", current_amount AS \"currentAmount\", " +
+            "       category, status, " + PROGRESS_SQL + " AS \"progressPercentage\" " +
+            "FROM savings_goals ";
+    
+    /** Filtro común: usuario + status opcional (ANY_STATUS = todos). */
+    String PAGE_FILTER =
+            "WHERE user_id = :userId " +
+            "  AND (:status = '' OR status = :status) ";
+    
+    /** Valor de :status para no filtrar por estado. */
+    String ANY_STATUS = "";
+    
     /**
      * Busca todas las metas de un usuario.
      * 
@@ -85,6 +113,157 @@ public interface SavingsGoalRepository extends JpaRepository<SavingsGoalEntity,
      */
     List<SavingsGoalEntity> findByUserIdAndStatus(Long userId, GoalStatus status);
     
+    // =========================================================================
+    // PAGINACIÓN KEYSET (PROYECCIONES DE SOLO LECTURA)
+    // =========================================================================
+    //
+    // 🎓 ¿POR QUÉ KEYSET Y NO OFFSET?
+    // OFFSET 1000 obliga a PostgreSQL a leer y descartar 1000 filas.
+    // Keyset continúa desde la última fila vista:
+    // ```
+    // WHERE (orden, goal_id) "después de" (valor del cursor, id del cursor)
+    // ORDER BY orden, goal_id
+    // LIMIT :limit
+    // ```
+    // El costo depende del tamaño de página, no de la posición.
+    //
+    // - goal_id desempata: el orden es total y el cursor, único.
+    // - :afterId = 0 indica primera página (los IDs empiezan en 1).
+    // - El índice (user_id, status, goal_id) resuelve el filtro y, para
+    //   CREATED, también el orden.
+    //
+    // =========================================================================
+    
+    /**
+     * Página ordenada por progreso (mayor primero), desempate por goal_id.
+     * 
+     * @param userId ID del usuario
+     * @param status Nombre del GoalStatus, o ANY_STATUS
+     * @param afterProgress Progreso del cursor (ignorado si afterId = 0)
+     * @param afterId goal_id del cursor, 0 para la primera página
+     * @param limit Filas a devolver
+     * @return Proyecciones de la página
+     */
+    @Query(value = VIEW_COLUMNS + PAGE_FILTER +
+                   "  AND (:afterId = 0 OR " + PROGRESS_SQL + " < :afterProgress " +
+                   "       OR (" + PROGRESS_SQL + " = :afterProgress AND goal_id > :afterId)) " +
+                   "ORDER BY \"progressPercentage\" DESC, goal_id ASC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<SavingsGoalView> findPageByProgress(@Param("userId") Long userId,
+                                             @Param("status") String status,
+                                             @Param("afterProgress") BigDecimal afterProgress,
+                                             @Param("afterId") long afterId,
+                                             @Param("limit") int limit);
+    
+    /**
+     * Página ordenada por monto objetivo (mayor primero), desempate por goal_id.
+     * 
+     * @param userId ID del usuario
+     * @param status Nombre del GoalStatus, o ANY_STATUS
+     * @param afterTarget targetAmount del cursor (ignorado si afterId = 0)
+     * @param afterId goal_id del cursor, 0 para la primera página
+     * @param limit Filas a devolver
+     * @return Proyecciones de la página
+     */
+    @Query(value = VIEW_COLUMNS + PAGE_FILTER +
+                   "  AND (:afterId = 0 OR target_amount < :afterTarget " +
+                   "       OR (target_amount = :afterTarget AND goal_id > :afterId)) " +
+                   "ORDER BY target_amount DESC, goal_id ASC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<SavingsGoalView> findPageByTarget(@Param("userId") Long userId,
+                                           @Param("status") String status,
+                                           @Param("afterTarget") BigDecimal afterTarget,
+                                           @Param("afterId") long afterId,
+                                           @Param("limit") int limit);
+    
+    /**
+     * Página en orden de creación (goal_id IDENTITY es creciente).
+     * 
+     * 🚀 Con status, recorre el índice (user_id, status, goal_id) en orden:
+     * sin sort y se detiene al llegar a :limit.
+     * 
+     * @param userId ID del usuario
+     * @param status Nombre del GoalStatus, o ANY_STATUS
+     * @param afterId goal_id del cursor, 0 para la primera página
+     * @param limit Filas a devolver
+     * @return Proyecciones de la página
+     */
+    @Query(value = VIEW_COLUMNS + PAGE_FILTER +
+                   "  AND goal_id > :afterId " +
+                   "ORDER BY goal_id ASC " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<SavingsGoalView> findPageByCreated(@Param("userId") Long userId,
+                                            @Param("status") String status,
+                                            @Param("afterId") long afterId,
+                                            @Param("limit") int limit);
+    
+    // =========================================================================
+    // ACTUALIZACIONES ATÓMICAS (SQL NATIVO)
+    // =========================================================================
+    //
+    // 🎓 ¿POR QUÉ NO findById + save?
+    //
+    // Read-modify-write en Java con dos depósitos concurrentes:
+    // ```
+    // T1: lee current_amount = 100        T2: lee current_amount = 100
+    // T1: guarda 100 + 50 = 150           T2: guarda 100 + 30 = 130  ❌ (se pierden 50)
+    // ```
+    //
+    // Con un único UPDATE condicional, PostgreSQL bloquea la fila durante
+    // la sentencia y cada depósito suma sobre el valor vigente:
+    // ```
+    // UPDATE ... SET current_amount = current_amount + ?   ✅ (150 + 30 = 180)
+    // ```
+    //
+    // - Las condiciones (status, saldo) se evalúan en la misma sentencia.
+    // - La transición a COMPLETED también: en el SET, current_amount es el
+    //   valor anterior a la actualización.
+    // - RETURNING devuelve la fila actualizada (sin un SELECT extra).
+    // - Si no devuelve fila, la meta no existe o no cumple las condiciones.
+    //
+    // =========================================================================
+    
+    /**
+     * Suma un depósito a una meta ACTIVE y la marca COMPLETED si alcanza
+     * targetAmount, en una sola sentencia.
+     * 
+     * @param goalId ID de la meta
+     * @param amount Monto a depositar (positivo)
+     * @return Meta actualizada, o vacío si no existe o no está ACTIVE
+     */
+    @Query(value = "UPDATE savings_goals " +
+                   "SET current_amount = current_amount + :amount, " +
+                   "    status = CASE WHEN current_amount + :amount >= target_amount " +
+                   "                  THEN 'COMPLETED' ELSE status END " +
+                   "WHERE goal_id = :goalId AND status = 'ACTIVE' " +
+                   "RETURNING goal_id, user_id, name, description, target_amount, " +
+                   "          current_amount, category, status",
+           nativeQuery = true)
+    Optional<SavingsGoalEntity> depositIfActive(@Param("goalId") Long goalId,
+                                                @Param("amount") BigDecimal amount);
+    
+    /**
+     * Resta un retiro de una meta ACTIVE con saldo suficiente, en una sola
+     * sentencia.
+     * 
+     * @param goalId ID de la meta
+     * @param amount Monto a retirar (positivo)
+     * @return Meta actualizada, o vacío si no existe, no está ACTIVE o el
+     *         saldo es insuficiente
+     */
+    @Query(value = "UPDATE savings_goals " +
+                   "SET current_amount = current_amount - :amount " +
+                   "WHERE goal_id = :goalId AND status = 'ACTIVE' " +
+                   "  AND current_amount >= :amount " +
+                   "RETURNING goal_id, user_id, name, description, target_amount, " +
+                   "          current_amount, category, status",
+           nativeQuery = true)
+    Optional<SavingsGoalEntity> withdrawIfActive(@Param("goalId") Long goalId,
+                                                 @Param("amount") BigDecimal amount);
+    
     // =========================================================================
     // EJEMPLOS DE QUERIES QUE PODRÍAS AGREGAR:
     // =========================================================================
@@ -118,6 +297,9 @@ public interface SavingsGoalRepository extends JpaRepository<SavingsGoalEntity,
  * ├─────────────────────────────────────────────────────────────────────────┤
  * │  findByUserId(1L)                │  WHERE user_id = 1                  │
  * │  findByUserIdAndStatus(1L, ACT)  │  WHERE user_id = 1 AND status='ACT' │
+ * │  depositIfActive(1L, 50)         │  UPDATE ... RETURNING (atómico)     │
+ * │  findPageByProgress(...)         │  Keyset + proyección, LIMIT :limit  │
+ * │  withdrawIfActive(1L, 50)        │  UPDATE ... RETURNING (atómico)     │
  * └─────────────────────────────────────────────────────────────────────────┘
  * 
  * 💡 VENTAJAS DE SPRING DATA JPA:
@@ -0,0 +1,135 @@
+package com.neobank.savings.resolver;
+
+import com.netflix.graphql.dgs.*;
+import com.neobank.savings.model.RoundUpRefundEntity;
+import com.neobank.savings.repository.RoundUpRefundRepository;
+import com.neobank.savings.service.RoundUpIngestionPipeline;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolver GraphQL para la ingesta de redondeos (round-ups).
+ * 
+ * Los aportes no se aplican en la mutation: se encolan en
+ * RoundUpIngestionPipeline, que los agrupa por meta y los escribe en lotes
+ * JDBC en cada ventana de flush.
+ * 
+ * 💡 EJEMPLO:
+ * ```graphql
+ * mutation {
+ *   submitRoundUps(contributions: [
+ *     { goalId: "1", amount: 0.60 }
+ *     { goalId: "2", amount: 0.15 }
+ *   ])
+ * }
+ * 
+ * query {
+ *   roundUpStats {
+ *     backlogContributions
+ *     lastFlushGoals
+ *     maxFlushLatencyMillis
+ *   }
+ *   roundUpRefunds(userId: "1") {
+ *     goalId
+ *     amount
+ *     reason
+ *   }
+ * }
+ * ```
+ * 
+ * @see RoundUpIngestionPipeline
+ */
+@DgsComponent
+public class RoundUpResolver {
+    
+    private static final int MAX_REFUNDS_PAGE = 100;
+    
+    private final RoundUpIngestionPipeline pipeline;
+    private final RoundUpRefundRepository refundRepository;
+    
+    public RoundUpResolver(RoundUpIngestionPipeline pipeline, RoundUpRefundRepository refundRepository) {
+        this.pipeline = pipeline;
+        this.refundRepository = refundRepository;
+    }
+    
+    /**
+     * Mutation: submitRoundUps(contributions: [RoundUpInput!]!): Int!
+     * 
+     * La lista se valida completa antes de encolar: si un aporte es
+     * inválido la mutation falla sin encolar ninguno, así el reintento del
+     * cliente no duplica los anteriores.
+     * 
+     * @param dfe Entorno DGS (lista de inputs como Map)
+     * @return Número de aportes aceptados en la cola
+     */
+    @DgsMutation
+    public int submitRoundUps(DgsDataFetchingEnvironment dfe) {
+        List<Map<String, Object>> contributions = dfe.getArgument("contributions");
+        List<RoundUpIngestionPipeline.RoundUp> roundUps = new ArrayList<>(contributions.size());
+        for (int i = 0; i < contributions.size(); i++) {
+            roundUps.add(parseRoundUp(i, contributions.get(i)));
+        }
+        pipeline.submitAll(roundUps);
+        return roundUps.size();
+    }
+    
+    private static RoundUpIngestionPipeline.RoundUp parseRoundUp(int index, Map<String, Object> contribution) {
+        try {
+            return RoundUpIngestionPipeline.RoundUp.of(
+                    Long.parseLong(contribution.get("goalId").toString()),
+                    new BigDecimal(contribution.get("amount").toString()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException incluida: goalId o amount mal formados
+            throw new IllegalArgumentException("Invalid contribution at index " + index + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Query: roundUpStats: RoundUpStats!
+     * 
+     * @return Backlog y latencia de flush del pipeline
+     */
+    @DgsQuery
+    public RoundUpIngestionPipeline.RoundUpStats roundUpStats() {
+        return pipeline.stats();
+    }
+    
+    /**
+     * Query: roundUpRefunds(userId: ID!, first: Int = 20): [RoundUpRefund!]!
+     * 
+     * @param userId ID del usuario
+     * @param first Máximo de reembolsos (1..100, mayores se ajustan a 100)
+     * @return Redondeos que no llegaron a su meta, más recientes primero
+     */
+    @DgsQuery
+    public List<Map<String, Object>> roundUpRefunds(@InputArgument String userId,
+                                                    @InputArgument Integer first) {
+        int size = first == null ? 20 : first;
+        if (size < 1) {
+            throw new IllegalArgumentException("first must be at least 1");
+        }
+        return refundRepository
+                .findByUserIdOrderByRefundIdDesc(Long.parseLong(userId),
+                        PageRequest.of(0, Math.min(size, MAX_REFUNDS_PAGE)))
+                .stream()
+                .map(this::toGraphQL)
+                .toList();
+    }
+    
+    private Map<String, Object> toGraphQL(RoundUpRefundEntity refund) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", refund.getRefundId().toString());
+        map.put("goalId", refund.getGoalId().toString());
+        map.put("userId", refund.getUserId() != null ? refund.getUserId().toString() : null);
+        map.put("amount", refund.getAmount());
+        map.put("contributions", refund.getContributions());
+        map.put("reason", refund.getReason().name());
+        map.put("createdAt", refund.getCreatedAt().toString());
+        return map;
+    }
+}
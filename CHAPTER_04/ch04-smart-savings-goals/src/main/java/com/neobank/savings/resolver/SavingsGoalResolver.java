@@ -2,10 +2,14 @@ package com.neobank.savings.resolver;
 
 import com.netflix.graphql.dgs.*;
 import com.neobank.savings.model.SavingsGoalEntity;
+import com.neobank.savings.model.SavingsGoalView;
 import com.neobank.savings.service.SavingsGoalService;
+import com.neobank.savings.service.SavingsGoalService.GoalOrder;
+import com.neobank.savings.service.SavingsGoalService.GoalPage;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -92,29 +96,60 @@ public class SavingsGoalResolver {
     }
     
     /**
-     * Query: savingsGoals(userId: ID!): [SavingsGoal!]!
+     * Query: savingsGoals(userId, status, first, after, orderBy): SavingsGoalConnection!
      * 
-     * Obtiene todas las metas de un usuario.
+     * Obtiene las metas de un usuario, paginadas con cursor (keyset).
+     * 
+     * 🚀 Los nodos son proyecciones SavingsGoalView (progressPercentage ya
+     * viene calculado por SQL): se devuelven sin copiarlos a un Map.
+     * Memoria y latencia dependen del tamaño de página, no del total de metas.
      * 
      * 💡 EJEMPLO:
      * ```graphql
      * query {
-     *   savingsGoals(userId: "1") {
-     *     name
-     *     status
-     *     progressPercentage
+     *   savingsGoals(userId: "1", status: ACTIVE, first: 10, orderBy: PROGRESS) {
+     *     edges {
+     *       cursor
+     *       node { name status progressPercentage }
+     *     }
+     *     pageInfo { hasNextPage endCursor }
      *   }
      * }
      * ```
      * 
      * @param userId ID del usuario
-     * @return Lista de metas del usuario
+     * @param status Estado a filtrar (opcional)
+     * @param first Tamaño de página (opcional)
+     * @param after Cursor de la página anterior (opcional)
+     * @param orderBy Criterio de orden (opcional, CREATED por defecto)
+     * @return Map con edges y pageInfo (SavingsGoalConnection)
      */
     @DgsQuery
-    public List<Map<String, Object>> savingsGoals(@InputArgument String userId) {
-        return service.getGoalsByUserId(Long.parseLong(userId)).stream()
-                .map(this::toGraphQL)
-                .collect(Collectors.toList());
+    public Map<String, Object> savingsGoals(@InputArgument String userId,
+                                            @InputArgument SavingsGoalEntity.GoalStatus status,
+                                            @InputArgument Integer first,
+                                            @InputArgument String after,
+                                            @InputArgument GoalOrder orderBy) {
+        GoalPage page = service.getGoalsPage(Long.parseLong(userId), status, first, after, orderBy);
+        
+        List<Map<String, Object>> edges = new ArrayList<>(page.getGoals().size());
+        for (SavingsGoalView goal : page.getGoals()) {
+            Map<String, Object> edge = new HashMap<>();
+            edge.put("cursor", page.cursorOf(goal));
+            edge.put("node", goal);
+            edges.add(edge);
+        }
+        
+        Map<String, Object> pageInfo = new HashMap<>();
+        pageInfo.put("hasNextPage", page.hasNextPage());
+        pageInfo.put("hasPreviousPage", page.hasPreviousPage());
+        pageInfo.put("startCursor", edges.isEmpty() ? null : edges.get(0).get("cursor"));
+        pageInfo.put("endCursor", edges.isEmpty() ? null : edges.get(edges.size() - 1).get("cursor"));
+        
+        Map<String, Object> connection = new HashMap<>();
+        connection.put("edges", edges);
+        connection.put("pageInfo", pageInfo);
+        return connection;
     }
     
     /**
@@ -202,6 +237,72 @@ public class SavingsGoalResolver {
         }
     }
     
+    /**
+     * Mutation: depositToGoal(goalId: ID!, amount: Money!): SavingsGoalResponse!
+     * 
+     * Deposita dinero en una meta ACTIVE. Si alcanza targetAmount, la meta
+     * pasa a COMPLETED en la misma operación.
+     * 
+     * 🚀 Seguro ante depósitos concurrentes a la misma meta: el servicio
+     * ejecuta un único UPDATE condicional (sin read-modify-write).
+     * 
+     * 💡 EJEMPLO:
+     * ```graphql
+     * mutation {
+     *   depositToGoal(goalId: "2", amount: 150.00) {
+     *     success
+     *     message
+     *     goal { currentAmount status progressPercentage }
+     *   }
+     * }
+     * ```
+     * 
+     * @param goalId ID de la meta
+     * @param amount Monto a depositar
+     * @return SavingsGoalResponse con success, message y goal
+     */
+    @DgsMutation
+    public Map<String, Object> depositToGoal(@InputArgument String goalId,
+                                             @InputArgument BigDecimal amount) {
+        try {
+            SavingsGoalEntity updated = service.deposit(Long.parseLong(goalId), amount);
+            return goalResponse(true, "Deposit applied successfully", toGraphQL(updated));
+        } catch (Exception e) {
+            return goalResponse(false, "Error: " + e.getMessage(), null);
+        }
+    }
+    
+    /**
+     * Mutation: withdrawFromGoal(goalId: ID!, amount: Money!): SavingsGoalResponse!
+     * 
+     * Retira dinero de una meta ACTIVE con saldo suficiente.
+     * 
+     * @param goalId ID de la meta
+     * @param amount Monto a retirar
+     * @return SavingsGoalResponse con success, message y goal
+     */
+    @DgsMutation
+    public Map<String, Object> withdrawFromGoal(@InputArgument String goalId,
+                                                @InputArgument BigDecimal amount) {
+        try {
+            SavingsGoalEntity updated = service.withdraw(Long.parseLong(goalId), amount);
+            return goalResponse(true, "Withdrawal applied successfully", toGraphQL(updated));
+        } catch (Exception e) {
+            return goalResponse(false, "Error: " + e.getMessage(), null);
+        }
+    }
+    
+    /**
+     * Construye un SavingsGoalResponse (success/message/goal).
+     */
+    private Map<String, Object> goalResponse(boolean success, String message, Map<String, Object> goal) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", success);
+        response.put("message", message);
+        response.put("goal", goal);
+        return response;
+    }
+    
     // =========================================================================
     // TRANSFORMACIÓN ENTITY → GRAPHQL
     // =========================================================================
@@ -278,13 +379,15 @@ public class SavingsGoalResolver {
  * 📊 QUERIES IMPLEMENTADAS:
  * ┌─────────────────────────────────────────────────────────────────────────┐
  * │  savingsGoal(id)        │  Obtener meta por ID                         │
- * │  savingsGoals(userId)   │  Todas las metas de un usuario               │
+ * │  savingsGoals(userId,…) │  Metas de un usuario (keyset, proyecciones)  │
  * │  activeSavingsGoals()   │  Solo metas activas                          │
  * └─────────────────────────────────────────────────────────────────────────┘
  * 
  * 📊 MUTATIONS IMPLEMENTADAS:
  * ┌─────────────────────────────────────────────────────────────────────────┐
  * │  createSavingsGoal      │  Crear nueva meta                            │
+ * │  depositToGoal          │  Depósito atómico (completa la meta)         │
+ * │  withdrawFromGoal       │  Retiro atómico (valida saldo)               │
  * └─────────────────────────────────────────────────────────────────────────┘
  * 
  * 📊 CAMPOS CALCULADOS:
@@ -0,0 +1,446 @@
+package com.neobank.savings.service;
+
+import com.neobank.savings.model.RoundUpRefundEntity.RefundReason;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pipeline de ingesta de redondeos (round-ups) hacia metas de ahorro.
+ * 
+ * 🎯 CASO DE USO:
+ * Cada compra con tarjeta redondea al entero siguiente y aporta los
+ * centavos a una meta ACTIVE: $23.40 → $0.60 a "Vacaciones".
+ * 
+ * 🚀 ¿POR QUÉ NO SavingsGoalService.deposit() POR CADA COMPRA?
+ * Una transacción JPA por evento escala con el número de compras.
+ * Este pipeline:
+ * 1. Acumula los aportes por meta en memoria (submit)
+ * 2. Cada ventana (savings.round-up.flush-interval) vacía lo acumulado
+ * 3. Aplica un UPDATE por meta, enviados en lotes JDBC en una sola transacción
+ * 
+ * Resultado: los round-trips a la BD escalan con las metas activas por
+ * ventana, no con las compras.
+ * 
+ * 🔑 DETALLES:
+ * - El UPDATE es el mismo condicional de SavingsGoalRepository.depositIfActive:
+ *   solo metas ACTIVE y transición a COMPLETED en la misma sentencia.
+ * - Las filas se ordenan por goal_id: todos los flushes bloquean las filas
+ *   en el mismo orden (sin deadlocks entre flushes concurrentes).
+ * - Aportes a metas que ya no están ACTIVE (0 filas actualizadas) NO se
+ *   pierden: se insertan en round_up_refunds (GOAL_NOT_ACTIVE) en la misma
+ *   transacción que el lote y se cuentan en rejectedGoals.
+ * - Si el lote falla, se reaplica fila por fila (una transacción por meta):
+ *   una fila mala ya no arrastra a las demás. La fila que falla vuelve a la
+ *   cola con su contador de intentos; tras MAX_ATTEMPTS se registra como
+ *   reembolso APPLY_FAILED (dead letter) en lugar de reintentarse siempre.
+ * 
+ * Métricas expuestas vía Query.roundUpStats:
+ * - backlog: aportes y metas pendientes de flush
+ * - latencia del flush: último y máximo
+ */
+@Component
+public class RoundUpIngestionPipeline {
+    
+    private static final String DEPOSIT_IF_ACTIVE_SQL =
+            "UPDATE savings_goals " +
+            "SET current_amount = current_amount + ?, " +
+            "    status = CASE WHEN current_amount + ? >= target_amount " +
+            "                  THEN 'COMPLETED' ELSE status END " +
+            "WHERE goal_id = ? AND status = 'ACTIVE'";
+    
+    private static final String INSERT_REFUND_SQL =
+            "INSERT INTO round_up_refunds (goal_id, user_id, amount, contributions, reason, created_at) " +
+            "VALUES (?, (SELECT user_id FROM savings_goals WHERE goal_id = ?), ?, ?, ?, ?)";
+    
+    /** Intentos fila por fila antes de mandar la meta a dead letter */
+    static final int MAX_ATTEMPTS = 3;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    
+    /** Aportes acumulados en la ventana actual. Key: goalId */
+    private final ConcurrentHashMap<Long, PendingRoundUp> pending = new ConcurrentHashMap<>();
+    
+    private final LongAdder backlogContributions = new LongAdder();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong appliedContributions = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong rejectedGoals = new AtomicLong();
+    private final AtomicLong retriedGoals = new AtomicLong();
+    private final AtomicLong deadLetteredGoals = new AtomicLong();
+    private final AtomicInteger lastFlushGoals = new AtomicInteger();
+    private final AtomicLong lastFlushLatencyMillis = new AtomicLong();
+    private final AtomicLong maxFlushLatencyMillis = new AtomicLong();
+    private final AtomicReference<LocalDateTime> lastFlushAt = new AtomicReference<>();
+    
+    public RoundUpIngestionPipeline(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${savings.round-up.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Encola un aporte de redondeo para una meta.
+     * 
+     * No toca la base de datos: solo suma al acumulado de la meta.
+     * 
+     * @param goalId ID de la meta
+     * @param amount Monto del redondeo (positivo, máximo 2 decimales)
+     * @throws IllegalArgumentException si el monto no es válido
+     */
+    public void submit(Long goalId, BigDecimal amount) {
+        submitAll(List.of(RoundUp.of(goalId, amount)));
+    }
+    
+    /**
+     * Encola una lista de aportes ya validados.
+     * 
+     * 🎓 TODO O NADA:
+     * RoundUp.of valida cada aporte al construirlo, así que quien recibe una
+     * lista (submitRoundUps) la valida completa ANTES de llamar aquí. Si un
+     * elemento fuera inválido ninguno se encola, y el reintento del cliente
+     * no duplica los aportes anteriores.
+     */
+    public void submitAll(List<RoundUp> roundUps) {
+        for (RoundUp roundUp : roundUps) {
+            pending.merge(roundUp.goalId(), new PendingRoundUp(roundUp.cents(), 1, 0), PendingRoundUp::plus);
+        }
+        backlogContributions.add(roundUps.size());
+        submitted.addAndGet(roundUps.size());
+    }
+    
+    /**
+     * Aplica los aportes acumulados en lotes JDBC.
+     * 
+     * 🎓 VACIADO SIN PERDER APORTES:
+     * remove(goalId) quita la entrada de forma atómica; un submit posterior
+     * crea una entrada nueva que se aplicará en la siguiente ventana.
+     * 
+     * 🎓 AISLAR FILAS QUE FALLAN:
+     * Las metas que ya fallaron antes (attempts > 0) no vuelven al lote:
+     * se aplican fila por fila para que no lo tumben de nuevo.
+     */
+    @Scheduled(fixedDelayString = "${savings.round-up.flush-interval:PT1S}")
+    public void flush() {
+        List<GoalDelta> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        long start = System.nanoTime();
+        try {
+            List<GoalDelta> batch = new ArrayList<>(deltas.size());
+            List<GoalDelta> rowByRow = new ArrayList<>();
+            for (GoalDelta delta : deltas) {
+                (delta.attempts() == 0 ? batch : rowByRow).add(delta);
+            }
+            if (!batch.isEmpty() && !applyBatch(batch)) {
+                failedFlushes.incrementAndGet();
+                rowByRow.addAll(batch);
+                rowByRow.sort((a, b) -> Long.compare(a.goalId(), b.goalId()));
+            }
+            for (GoalDelta delta : rowByRow) {
+                applyRow(delta);
+            }
+        } finally {
+            long latency = (System.nanoTime() - start) / 1_000_000;
+            flushes.incrementAndGet();
+            lastFlushGoals.set(deltas.size());
+            lastFlushLatencyMillis.set(latency);
+            maxFlushLatencyMillis.accumulateAndGet(latency, Math::max);
+            lastFlushAt.set(LocalDateTime.now());
+        }
+    }
+    
+    /**
+     * Vacía el acumulado actual, ordenado por goalId (orden de locks estable).
+     */
+    private List<GoalDelta> drain() {
+        List<GoalDelta> deltas = new ArrayList<>(pending.size());
+        for (Long goalId : pending.keySet()) {
+            PendingRoundUp drained = pending.remove(goalId);
+            if (drained != null) {
+                backlogContributions.add(-drained.contributions());
+                deltas.add(new GoalDelta(goalId, drained.cents(), drained.contributions(), drained.attempts()));
+            }
+        }
+        deltas.sort((a, b) -> Long.compare(a.goalId(), b.goalId()));
+        return deltas;
+    }
+    
+    /**
+     * Aplica el lote completo y registra los reembolsos en UNA transacción.
+     * 
+     * @return false si la transacción falló (rollback: nada quedó aplicado)
+     */
+    private boolean applyBatch(List<GoalDelta> batch) {
+        List<GoalDelta> rejected;
+        try {
+            rejected = transactionTemplate.execute(status -> {
+                int[][] counts = jdbcTemplate.batchUpdate(DEPOSIT_IF_ACTIVE_SQL, batch, batchSize, (ps, delta) -> {
+                    BigDecimal amount = BigDecimal.valueOf(delta.cents(), 2);
+                    ps.setBigDecimal(1, amount);
+                    ps.setBigDecimal(2, amount);
+                    ps.setLong(3, delta.goalId());
+                });
+                List<GoalDelta> notActive = rejectedRows(batch, counts);
+                if (!notActive.isEmpty()) {
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    jdbcTemplate.batchUpdate(INSERT_REFUND_SQL, notActive, batchSize, (ps, delta) -> {
+                        ps.setLong(1, delta.goalId());
+                        ps.setLong(2, delta.goalId());
+                        ps.setBigDecimal(3, BigDecimal.valueOf(delta.cents(), 2));
+                        ps.setInt(4, delta.contributions());
+                        ps.setString(5, RefundReason.GOAL_NOT_ACTIVE.name());
+                        ps.setTimestamp(6, now);
+                    });
+                }
+                return notActive;
+            });
+        } catch (RuntimeException e) {
+            return false;
+        }
+        
+        // Métricas solo después del commit
+        long contributions = 0;
+        for (GoalDelta delta : batch) {
+            contributions += delta.contributions();
+        }
+        for (GoalDelta delta : rejected) {
+            contributions -= delta.contributions();
+        }
+        appliedContributions.addAndGet(contributions);
+        rejectedGoals.addAndGet(rejected.size());
+        return true;
+    }
+    
+    /**
+     * Filas con 0 filas actualizadas: la meta no existe o ya no está ACTIVE
+     * (negativo = driver sin conteo por fila, se asume aplicado).
+     */
+    private static List<GoalDelta> rejectedRows(List<GoalDelta> batch, int[][] counts) {
+        List<GoalDelta> rejected = new ArrayList<>();
+        int i = 0;
+        for (int[] chunk : counts) {
+            for (int updated : chunk) {
+                GoalDelta delta = batch.get(i++);
+                if (updated == 0) {
+                    rejected.add(delta);
+                }
+            }
+        }
+        return rejected;
+    }
+    
+    /**
+     * Aplica una sola meta en su propia transacción.
+     * 
+     * Si falla, vuelve a la cola con un intento más; al llegar a
+     * MAX_ATTEMPTS se registra como reembolso APPLY_FAILED. Si ni siquiera
+     * el reembolso se puede insertar (BD caída), sigue en la cola: el
+     * monto nunca se pierde.
+     */
+    private void applyRow(GoalDelta delta) {
+        try {
+            Boolean applied = transactionTemplate.execute(status -> {
+                BigDecimal amount = BigDecimal.valueOf(delta.cents(), 2);
+                int updated = jdbcTemplate.update(DEPOSIT_IF_ACTIVE_SQL, amount, amount, delta.goalId());
+                if (updated == 0) {
+                    insertRefund(delta, RefundReason.GOAL_NOT_ACTIVE);
+                }
+                return updated != 0;
+            });
+            if (Boolean.TRUE.equals(applied)) {
+                appliedContributions.addAndGet(delta.contributions());
+            } else {
+                rejectedGoals.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            int attempts = delta.attempts() + 1;
+            if (attempts >= MAX_ATTEMPTS && deadLetter(delta)) {
+                return;
+            }
+            pending.merge(delta.goalId(), new PendingRoundUp(delta.cents(), delta.contributions(), attempts),
+                    PendingRoundUp::plus);
+            backlogContributions.add(delta.contributions());
+            retriedGoals.incrementAndGet();
+        }
+    }
+    
+    private boolean deadLetter(GoalDelta delta) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertRefund(delta, RefundReason.APPLY_FAILED));
+        } catch (RuntimeException e) {
+            return false;
+        }
+        deadLetteredGoals.incrementAndGet();
+        return true;
+    }
+    
+    private void insertRefund(GoalDelta delta, RefundReason reason) {
+        jdbcTemplate.update(INSERT_REFUND_SQL, delta.goalId(), delta.goalId(),
+                BigDecimal.valueOf(delta.cents(), 2), delta.contributions(), reason.name(),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+    
+    private static long toCents(BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Round-up amount must be positive");
+        }
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Round-up amount must have at most 2 decimals: " + amount);
+        }
+    }
+    
+    public RoundUpStats stats() {
+        return new RoundUpStats(backlogContributions.sum(), pending.size(), submitted.get(),
+                appliedContributions.get(), rejectedGoals.get(), retriedGoals.get(),
+                deadLetteredGoals.get(), flushes.get(), failedFlushes.get(),
+                lastFlushGoals.get(), lastFlushLatencyMillis.get(), maxFlushLatencyMillis.get(),
+                lastFlushAt.get());
+    }
+    
+    /**
+     * Aporte de redondeo validado: meta y monto en centavos.
+     */
+    public record RoundUp(long goalId, long cents) {
+        
+        /**
+         * @throws IllegalArgumentException si falta la meta o el monto no es
+         *         positivo o tiene más de 2 decimales
+         */
+        public static RoundUp of(Long goalId, BigDecimal amount) {
+            if (goalId == null) {
+                throw new IllegalArgumentException("Goal ID is required");
+            }
+            return new RoundUp(goalId, toCents(amount));
+        }
+    }
+    
+    /**
+     * Acumulado de una meta dentro de la ventana (inmutable, combinado con merge).
+     * attempts: fallos previos de la meta; al combinar se conserva el mayor.
+     */
+    private record PendingRoundUp(long cents, int contributions, int attempts) {
+        PendingRoundUp plus(PendingRoundUp other) {
+            return new PendingRoundUp(Math.addExact(cents, other.cents), contributions + other.contributions,
+                    Math.max(attempts, other.attempts));
+        }
+    }
+    
+    /** Fila del lote: monto total de la ventana para una meta. */
+    private record GoalDelta(long goalId, long cents, int contributions, int attempts) {
+    }
+    
+    /**
+     * Snapshot de métricas del pipeline (tipo GraphQL RoundUpStats).
+     */
+    public static class RoundUpStats {
+        private final long backlogContributions;
+        private final int backlogGoals;
+        private final long submitted;
+        private final long appliedContributions;
+        private final long rejectedGoals;
+        private final long retriedGoals;
+        private final long deadLetteredGoals;
+        private final long flushes;
+        private final long failedFlushes;
+        private final int lastFlushGoals;
+        private final long lastFlushLatencyMillis;
+        private final long maxFlushLatencyMillis;
+        private final LocalDateTime lastFlushAt;
+        
+        RoundUpStats(long backlogContributions, int backlogGoals, long submitted,
+                     long appliedContributions, long rejectedGoals, long retriedGoals,
+                     long deadLetteredGoals, long flushes, long failedFlushes,
+                     int lastFlushGoals, long lastFlushLatencyMillis, long maxFlushLatencyMillis,
+                     LocalDateTime lastFlushAt) {
+            this.backlogContributions = backlogContributions;
+            this.backlogGoals = backlogGoals;
+            this.submitted = submitted;
+            this.appliedContributions = appliedContributions;
+            this.rejectedGoals = rejectedGoals;
+            this.retriedGoals = retriedGoals;
+            this.deadLetteredGoals = deadLetteredGoals;
+            this.flushes = flushes;
+            this.failedFlushes = failedFlushes;
+            this.lastFlushGoals = lastFlushGoals;
+            this.lastFlushLatencyMillis = lastFlushLatencyMillis;
+            this.maxFlushLatencyMillis = maxFlushLatencyMillis;
+            this.lastFlushAt = lastFlushAt;
+        }
+        
+        public long getBacklogContributions() {
+            return backlogContributions;
+        }
+        
+        public int getBacklogGoals() {
+            return backlogGoals;
+        }
+        
+        public long getSubmitted() {
+            return submitted;
+        }
+        
+        public long getAppliedContributions() {
+            return appliedContributions;
+        }
+        
+        public long getRejectedGoals() {
+            return rejectedGoals;
+        }
+        
+        public long getRetriedGoals() {
+            return retriedGoals;
+        }
+        
+        public long getDeadLetteredGoals() {
+            return deadLetteredGoals;
+        }
+        
+        public long getFlushes() {
+            return flushes;
+        }
+        
+        public long getFailedFlushes() {
+            return failedFlushes;
+        }
+        
+        public int getLastFlushGoals() {
+            return lastFlushGoals;
+        }
+        
+        public long getLastFlushLatencyMillis() {
+            return lastFlushLatencyMillis;
+        }
+        
+        public long getMaxFlushLatencyMillis() {
+            return maxFlushLatencyMillis;
+        }
+        
+        public LocalDateTime getLastFlushAt() {
+            return lastFlushAt;
+        }
+    }
+}
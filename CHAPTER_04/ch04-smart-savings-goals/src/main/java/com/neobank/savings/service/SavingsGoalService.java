@@ -2,11 +2,14 @@ package com.neobank.savings.service;
 
 import com.neobank.savings.model.SavingsGoalEntity;
 import com.neobank.savings.model.SavingsGoalEntity.GoalStatus;
+import com.neobank.savings.model.SavingsGoalView;
 import com.neobank.savings.repository.SavingsGoalRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 
 /**
@@ -49,6 +52,10 @@ import java.util.List;
 @Service
 public class SavingsGoalService {
     
+    /** Tamaño de página por defecto y máximo de getGoalsPage. */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    
     private final SavingsGoalRepository repository;
     
     public SavingsGoalService(SavingsGoalRepository repository) {
@@ -62,6 +69,7 @@ public class SavingsGoalService {
      * @return La meta encontrada
      * @throws RuntimeException si no existe
      */
+    @Transactional(readOnly = true)
     public SavingsGoalEntity getGoalById(Long goalId) {
         return repository.findById(goalId)
                 .orElseThrow(() -> new RuntimeException("Goal not found: " + goalId));
@@ -73,6 +81,7 @@ public class SavingsGoalService {
      * @param userId ID del usuario
      * @return Lista de todas las metas (cualquier estado)
      */
+    @Transactional(readOnly = true)
     public List<SavingsGoalEntity> getGoalsByUserId(Long userId) {
         return repository.findByUserId(userId);
     }
@@ -83,10 +92,55 @@ public class SavingsGoalService {
      * @param userId ID del usuario
      * @return Lista de metas con status = ACTIVE
      */
+    @Transactional(readOnly = true)
     public List<SavingsGoalEntity> getActiveGoalsByUserId(Long userId) {
         return repository.findByUserIdAndStatus(userId, GoalStatus.ACTIVE);
     }
     
+    /**
+     * Obtiene una página de metas de un usuario (paginación keyset).
+     * 
+     * 🚀 LECTURA ACOTADA POR PÁGINA:
+     * - Proyecciones SavingsGoalView: sin entidades administradas
+     * - readOnly = true: Hibernate no hace flush ni dirty checking
+     * - LIMIT first + 1: la fila extra solo indica si hay página siguiente
+     * 
+     * @param userId ID del usuario
+     * @param status Estado a filtrar (null = todos)
+     * @param first Tamaño de página (null = DEFAULT_PAGE_SIZE; se ajusta a MAX_PAGE_SIZE si lo supera)
+     * @param after Cursor del último elemento de la página anterior (null = primera)
+     * @param orderBy Criterio de orden (null = CREATED)
+     * @return Página de metas con sus cursores
+     * @throws IllegalArgumentException si first < 1 o el cursor no es válido
+     */
+    @Transactional(readOnly = true)
+    public GoalPage getGoalsPage(Long userId, GoalStatus status, Integer first,
+                                 String after, GoalOrder orderBy) {
+        GoalOrder order = orderBy != null ? orderBy : GoalOrder.CREATED;
+        int size = first != null ? first : DEFAULT_PAGE_SIZE;
+        if (size < 1) {
+            throw new IllegalArgumentException("first must be at least 1");
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+        
+        GoalCursor cursor = after != null ? GoalCursor.decode(after, order) : GoalCursor.FIRST_PAGE;
+        String statusFilter = status != null ? status.name() : SavingsGoalRepository.ANY_STATUS;
+        int limit = size + 1;
+        
+        List<SavingsGoalView> rows = switch (order) {
+            case PROGRESS -> repository.findPageByProgress(userId, statusFilter,
+                    cursor.value(), cursor.goalId(), limit);
+            case TARGET -> repository.findPageByTarget(userId, statusFilter,
+                    cursor.value(), cursor.goalId(), limit);
+            case CREATED -> repository.findPageByCreated(userId, statusFilter,
+                    cursor.goalId(), limit);
+        };
+        
+        boolean hasNextPage = rows.size() > size;
+        List<SavingsGoalView> goals = hasNextPage ? rows.subList(0, size) : rows;
+        return new GoalPage(goals, order, hasNextPage, after != null);
+    }
+    
     /**
      * Crea una nueva meta de ahorro.
      * 
@@ -120,6 +174,12 @@ public class SavingsGoalService {
      * Si el depósito completa la meta, también actualiza el status.
      * Ambas operaciones deben ser atómicas.
      * 
+     * 🚀 CONCURRENCIA:
+     * Un único UPDATE condicional (depositIfActive) en lugar de
+     * findById + add + save: depósitos simultáneos a la misma meta
+     * (metas compartidas, redondeos) no pierden actualizaciones y no
+     * necesitan locks pesimistas.
+     * 
      * @param goalId ID de la meta
      * @param amount Monto a depositar
      * @return Meta actualizada
@@ -132,28 +192,18 @@ public class SavingsGoalService {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
         
-        // Obtener meta
-        SavingsGoalEntity goal = getGoalById(goalId);
-        
-        // Validar que esté activa
-        if (goal.getStatus() != GoalStatus.ACTIVE) {
-            throw new IllegalStateException("Cannot deposit to a " + goal.getStatus() + " goal");
-        }
-        
-        // Actualizar monto
-        goal.setCurrentAmount(goal.getCurrentAmount().add(amount));
-        
-        // Verificar si se completó
-        if (goal.isCompleted()) {
-            goal.setStatus(GoalStatus.COMPLETED);
-        }
-        
-        return repository.save(goal);
+        // Sumar y completar en una sola sentencia
+        return repository.depositIfActive(goalId, amount)
+                .orElseThrow(() -> rejectedUpdate(goalId, amount, false));
     }
     
     /**
      * Retira dinero de una meta de ahorro.
      * 
+     * 🚀 CONCURRENCIA:
+     * La validación de saldo va en el WHERE del UPDATE (withdrawIfActive),
+     * así dos retiros simultáneos no pueden dejar la meta en negativo.
+     * 
      * @param goalId ID de la meta
      * @param amount Monto a retirar
      * @return Meta actualizada
@@ -166,23 +216,30 @@ public class SavingsGoalService {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
         
-        // Obtener meta
+        // Validar saldo y restar en una sola sentencia
+        return repository.withdrawIfActive(goalId, amount)
+                .orElseThrow(() -> rejectedUpdate(goalId, amount, true));
+    }
+    
+    /**
+     * Construye el error de un UPDATE condicional que no afectó ninguna fila.
+     * 
+     * Solo se ejecuta en el camino de error: relee la meta para indicar
+     * cuál condición falló.
+     */
+    private RuntimeException rejectedUpdate(Long goalId, BigDecimal amount, boolean withdrawal) {
         SavingsGoalEntity goal = getGoalById(goalId);
         
-        // Validar que esté activa
         if (goal.getStatus() != GoalStatus.ACTIVE) {
-            throw new IllegalStateException("Cannot withdraw from a " + goal.getStatus() + " goal");
+            return new IllegalStateException(withdrawal
+                    ? "Cannot withdraw from a " + goal.getStatus() + " goal"
+                    : "Cannot deposit to a " + goal.getStatus() + " goal");
         }
-        
-        // Validar saldo suficiente
-        if (goal.getCurrentAmount().compareTo(amount) < 0) {
-            throw new IllegalStateException("Insufficient balance. Available: " + goal.getCurrentAmount());
+        if (withdrawal && goal.getCurrentAmount().compareTo(amount) < 0) {
+            return new IllegalStateException("Insufficient balance. Available: " + goal.getCurrentAmount());
         }
-        
-        // Actualizar monto
-        goal.setCurrentAmount(goal.getCurrentAmount().subtract(amount));
-        
-        return repository.save(goal);
+        // La meta cambió entre el UPDATE y la relectura
+        return new IllegalStateException("Goal " + goalId + " was modified concurrently, please retry");
     }
     
     /**
@@ -199,6 +256,102 @@ public class SavingsGoalService {
         return repository.save(goal);
     }
     
+    // =========================================================================
+    // PAGINACIÓN
+    // =========================================================================
+    
+    /**
+     * Criterios de orden de getGoalsPage (enum SavingsGoalOrder en el schema).
+     */
+    public enum GoalOrder {
+        /** Progreso descendente (más cerca de completarse primero) */
+        PROGRESS,
+        /** Monto objetivo descendente */
+        TARGET,
+        /** Orden de creación (goal_id ascendente) */
+        CREATED
+    }
+    
+    /**
+     * Página de metas devuelta por getGoalsPage.
+     */
+    public static class GoalPage {
+        private final List<SavingsGoalView> goals;
+        private final GoalOrder order;
+        private final boolean hasNextPage;
+        private final boolean hasPreviousPage;
+        
+        GoalPage(List<SavingsGoalView> goals, GoalOrder order,
+                 boolean hasNextPage, boolean hasPreviousPage) {
+            this.goals = goals;
+            this.order = order;
+            this.hasNextPage = hasNextPage;
+            this.hasPreviousPage = hasPreviousPage;
+        }
+        
+        public List<SavingsGoalView> getGoals() {
+            return goals;
+        }
+        
+        public boolean hasNextPage() {
+            return hasNextPage;
+        }
+        
+        public boolean hasPreviousPage() {
+            return hasPreviousPage;
+        }
+        
+        /**
+         * Cursor opaco de una meta de esta página.
+         */
+        public String cursorOf(SavingsGoalView goal) {
+            BigDecimal value = switch (order) {
+                case PROGRESS -> goal.getProgressPercentage();
+                case TARGET -> goal.getTargetAmount();
+                case CREATED -> BigDecimal.ZERO;
+            };
+            return new GoalCursor(value, goal.getId()).encode(order);
+        }
+    }
+    
+    /**
+     * Posición keyset: valor de orden + goal_id (desempate).
+     * 
+     * Se serializa como Base64 de "ORDEN:valor:goalId"; el cliente lo trata
+     * como opaco.
+     */
+    private record GoalCursor(BigDecimal value, long goalId) {
+        
+        /** afterId = 0 → las queries devuelven desde el inicio */
+        static final GoalCursor FIRST_PAGE = new GoalCursor(BigDecimal.ZERO, 0L);
+        
+        String encode(GoalOrder order) {
+            String raw = order.name() + ":" + value.toPlainString() + ":" + goalId;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static GoalCursor decode(String cursor, GoalOrder order) {
+            String[] parts;
+            try {
+                parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            if (!parts[0].equals(order.name())) {
+                throw new IllegalArgumentException("Cursor does not match orderBy " + order);
+            }
+            try {
+                return new GoalCursor(new BigDecimal(parts[1]), Long.parseLong(parts[2]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+    
     /**
      * Validaciones de negocio para una meta.
      */
@@ -228,9 +381,11 @@ public class SavingsGoalService {
  * │  Método           │  Operaciones                                       │
  * ├─────────────────────────────────────────────────────────────────────────┤
  * │  createGoal       │  Validar + Guardar                                 │
- * │  deposit          │  Validar + Actualizar monto + Actualizar status    │
- * │  withdraw         │  Validar saldo + Actualizar monto                  │
+ * │  deposit          │  UPDATE atómico: monto + status (COMPLETED)        │
+ * │  withdraw         │  UPDATE atómico: saldo validado en el WHERE        │
  * │  updateStatus     │  Cambiar estado                                    │
+ * │  getGoalsPage     │  Solo lectura: keyset + proyecciones (sin dirty    │
+ * │                   │  checking)                                         │
  * └─────────────────────────────────────────────────────────────────────────┘
  * 
  * 🎯 REGLA DE ORO:
@@ -0,0 +1,131 @@
+package com.neobank.savings.service;
+
+import com.neobank.savings.model.SavingsGoalEntity;
+import com.neobank.savings.model.SavingsGoalEntity.GoalCategory;
+import com.neobank.savings.model.SavingsGoalEntity.GoalStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Depósitos concurrentes contra PostgreSQL real (Testcontainers).
+ * 
+ * 🎓 POR QUÉ NO H2 NI MOCKS:
+ * deposit() confía en que el UPDATE condicional (depositIfActive) sea
+ * atómico en la BD: sin lost updates y sin depósitos después de que la
+ * meta pasa a COMPLETED. Eso solo se puede verificar con los locks de
+ * fila del motor real, leyendo current_amount directamente de la tabla.
+ */
+@SpringBootTest
+@Testcontainers
+class SavingsGoalServiceConcurrencyTest {
+    
+    private static final int THREADS = 16;
+    private static final BigDecimal DEPOSIT = new BigDecimal("10.00");
+    
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+    
+    @Autowired
+    private SavingsGoalService service;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void parallelDepositsAreNotLost() throws Exception {
+        Long goalId = createGoal(new BigDecimal("1000000.00"));
+        int depositsPerThread = 50;
+        
+        int succeeded = depositInParallel(goalId, THREADS * depositsPerThread);
+        
+        assertEquals(THREADS * depositsPerThread, succeeded);
+        assertEquals(new BigDecimal("8000.00"), currentAmount(goalId));
+        assertEquals(GoalStatus.ACTIVE.name(), status(goalId));
+    }
+    
+    @Test
+    void parallelDepositsStopExactlyAtTarget() throws Exception {
+        // 200 intentos de $10 contra una meta de $1,000: solo 100 caben
+        Long goalId = createGoal(new BigDecimal("1000.00"));
+        
+        int succeeded = depositInParallel(goalId, 200);
+        
+        assertEquals(100, succeeded);
+        assertEquals(new BigDecimal("1000.00"), currentAmount(goalId));
+        assertEquals(GoalStatus.COMPLETED.name(), status(goalId));
+    }
+    
+    /**
+     * Lanza los depósitos desde THREADS hilos a la vez.
+     * 
+     * @return Depósitos aceptados (los rechazados lanzan IllegalStateException)
+     */
+    private int depositInParallel(Long goalId, int deposits) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> futures = new ArrayList<>(deposits);
+        
+        for (int i = 0; i < deposits; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    service.deposit(goalId, DEPOSIT);
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            }));
+        }
+        
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get(60, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        pool.shutdown();
+        return succeeded;
+    }
+    
+    private Long createGoal(BigDecimal target) {
+        SavingsGoalEntity goal = new SavingsGoalEntity(null, 99L, "Concurrency test", null,
+                target, BigDecimal.ZERO, GoalCategory.OTHER, null);
+        return service.createGoal(goal).getGoalId();
+    }
+    
+    private BigDecimal currentAmount(Long goalId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT current_amount FROM savings_goals WHERE goal_id = ?", BigDecimal.class, goalId);
+    }
+    
+    private String status(Long goalId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT status FROM savings_goals WHERE goal_id = ?", String.class, goalId);
+    }
+}
@@ -289,22 +289,20 @@ pause
 # Test 1: Query básica con JPA
 print_subsection "Test 1: Query básica - Obtener metas de ahorro del usuario 1"
 
-print_concept "   Esta query obtiene todas las metas de ahorro de un usuario.
+print_concept "   Esta query obtiene la primera página de metas de ahorro de un usuario.
    Los datos vienen de PostgreSQL, no de memoria.
    
-   JAVA REPOSITORY:
-   public interface SavingsGoalRepository extends JpaRepository<SavingsGoalEntity, Long> {
-       List<SavingsGoalEntity> findByUserId(String userId);
-   }
+   RESPUESTA (Relay Connection, first = 20 por defecto):
+   savingsGoals { edges { node { ... } cursor } pageInfo { hasNextPage endCursor } }
    
    JAVA SERVICE:
-   public List<SavingsGoalEntity> getGoalsByUserId(String userId) {
-       return repository.findByUserId(userId);
-   }"
+   public GoalPage getGoalsPage(Long userId, GoalStatus status, Integer first,
+                                String after, GoalOrder orderBy)
+   → SavingsGoalRepository.findPageByCreated(...) (keyset, LIMIT first + 1)"
 
 run_graphql_test "Obtener metas de usuario 1" \
-    '{ savingsGoals(userId: \"1\") { id name targetAmount currentAmount progressPercentage category status } }' \
-    '"savingsGoals".*"name".*"targetAmount"'
+    '{ savingsGoals(userId: \"1\") { edges { node { id name targetAmount currentAmount progressPercentage category status } } pageInfo { hasNextPage } } }' \
+    '"savingsGoals".*"edges".*"name".*"targetAmount"'
 
 # Test 2: Query con filtro de estado
 print_subsection "Test 2: Query filtrada - Solo metas ACTIVAS"
@@ -385,8 +383,8 @@ print_concept "   Los datos están segmentados por userId.
    (3, 'Retirement Planning', ...);"
 
 run_graphql_test "Obtener metas de usuario 2" \
-    '{ savingsGoals(userId: \"2\") { id name targetAmount currentAmount progressPercentage category status } }' \
-    '"savingsGoals".*"name"'
+    '{ savingsGoals(userId: \"2\") { edges { node { id name targetAmount currentAmount progressPercentage category status } } pageInfo { hasNextPage } } }' \
+    '"savingsGoals".*"edges".*"name"'
 
 # Test 5: Mutation CREATE
 print_subsection "Test 5: Mutation - Crear nueva meta de ahorro"
@@ -420,8 +418,8 @@ print_concept "   Después de un INSERT, los datos persisten en PostgreSQL.
    SELECT * FROM savings_goals WHERE user_id = '1'"
 
 run_graphql_test "Verificar meta creada existe" \
-    '{ savingsGoals(userId: \"1\") { id name category status } }' \
-    '"savingsGoals".*"name"'
+    '{ savingsGoals(userId: \"1\") { edges { node { id name category status } } pageInfo { hasNextPage } } }' \
+    '"savingsGoals".*"edges".*"name"'
 
 ################################################################################
 # SECCIÓN 4.3 - CAMPOS CALCULADOS Y TRANSACCIONES
@@ -472,8 +470,8 @@ print_concept "   Los Enums de Java se mapean a Enums de GraphQL.
    Usuario 3 tiene: ACTIVE, ACTIVE, PAUSED"
 
 run_graphql_test "Obtener metas de usuario 3 (incluye PAUSED)" \
-    '{ savingsGoals(userId: \"3\") { id name targetAmount currentAmount progressPercentage category status } }' \
-    '"savingsGoals".*"status"'
+    '{ savingsGoals(userId: \"3\") { edges { node { id name targetAmount currentAmount progressPercentage category status } } pageInfo { hasNextPage } } }' \
+    '"savingsGoals".*"edges".*"status"'
 
 # Test 8: Validar cálculo de progreso 100%
 print_subsection "Test 8: Validar cálculo de progressPercentage = 100%"
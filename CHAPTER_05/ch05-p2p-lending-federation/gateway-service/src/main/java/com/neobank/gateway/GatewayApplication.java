@@ -1,11 +1,15 @@
 package com.neobank.gateway;
 
+import com.neobank.gateway.config.EntityCacheProperties;
+import com.neobank.gateway.config.SubgraphProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties({SubgraphProperties.class, EntityCacheProperties.class})
 public class GatewayApplication {
     public static void main(String[] args) {
         SpringApplication.run(GatewayApplication.class, args);
     }
-}
\ No newline at end of file
+}
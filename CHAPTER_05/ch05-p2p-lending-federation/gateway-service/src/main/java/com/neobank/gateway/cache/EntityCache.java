@@ -0,0 +1,135 @@
+package com.neobank.gateway.cache;
+
+import com.neobank.gateway.config.EntityCacheProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ENTITY-LEVEL CACHING en el gateway
+ *
+ * Problema:
+ * Cada query federada que toca Loan.lender vuelve a pedir el User
+ * a users-service vía _entities, aunque el perfil casi nunca cambie.
+ *
+ * Solución:
+ * - Clave: (__typename, campos @key)  → ver {@link EntityKey}
+ * - Dentro de cada entidad se guarda una copia por selection set, para no
+ *   servir un User sin lenderProfile a una query que sí lo pidió
+ * - TTL configurable por tipo (User 60s, Loan sin cache)
+ * - Invalidación explícita desde las mutaciones (createUser, fundLoan)
+ *
+ * Las entradas expiradas se descartan en la lectura; si el cache supera
+ * maxEntries se purgan las expiradas y, si no alcanza, se vacía.
+ */
+@Component
+public class EntityCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityCache.class);
+
+    private final EntityCacheProperties properties;
+    private final Map<EntityKey, Map<String, CachedEntity>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public EntityCache(EntityCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isCacheable(String typename) {
+        Duration ttl = properties.ttlFor(typename);
+        return !ttl.isZero() && !ttl.isNegative();
+    }
+
+    /**
+     * @return la entidad cacheada o null si no existe o expiró
+     */
+    public Map<String, Object> get(EntityKey key, String selection) {
+        Map<String, CachedEntity> bySelection = entries.get(key);
+        CachedEntity cached = bySelection != null ? bySelection.get(selection) : null;
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (cached.isExpired(System.nanoTime())) {
+            bySelection.remove(selection, cached);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached.value;
+    }
+
+    public void put(EntityKey key, String selection, Map<String, Object> entity) {
+        if (entity == null || !isCacheable(key.getTypename())) {
+            return;
+        }
+        if (entries.size() >= properties.getMaxEntries()) {
+            evictExpired();
+        }
+        long expiresAt = System.nanoTime() + properties.ttlFor(key.getTypename()).toNanos();
+        entries.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+               .put(selection, new CachedEntity(entity, expiresAt));
+    }
+
+    public void invalidate(EntityKey key) {
+        if (entries.remove(key) != null) {
+            invalidations.incrementAndGet();
+            log.debug("🗑️ ENTITY CACHE INVALIDATED - {}", key);
+        }
+    }
+
+    public void invalidateType(String typename) {
+        entries.keySet().removeIf(key -> typename.equals(key.getTypename()));
+        invalidations.incrementAndGet();
+        log.info("🗑️ ENTITY CACHE INVALIDATED - all {}", typename);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().forEach(bySelection ->
+                bySelection.values().removeIf(cached -> cached.isExpired(now)));
+        entries.values().removeIf(Map::isEmpty);
+        if (entries.size() >= properties.getMaxEntries()) {
+            log.warn("⚠️ ENTITY CACHE FULL - clearing {} entries", entries.size());
+            entries.clear();
+        }
+    }
+
+    private static final class CachedEntity {
+        private final Map<String, Object> value;
+        private final long expiresAtNanos;
+
+        private CachedEntity(Map<String, Object> value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.neobank.gateway.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Hook de invalidación disparado tras las mutaciones que cambian entidades
+ *
+ * - createUser → User(id) del usuario creado
+ * - fundLoan   → Loan(loanId) y User(lenderId): cambian estado y perfil del prestamista
+ *
+ * Lo llama SubgraphClient.forward para cada mutación que el router envía
+ * a un subgrafo. Si el cliente pasó lenderId como literal (no variable),
+ * no se sabe qué User cambió y se invalidan todos.
+ */
+@Component
+public class EntityCacheInvalidator {
+
+    private final EntityCache entityCache;
+
+    public EntityCacheInvalidator(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * @param data      bloque "data" de la respuesta del subgrafo
+     * @param variables variables enviadas con la mutación (puede ser null)
+     */
+    public void onMutation(Map<String, Object> data, Map<String, Object> variables) {
+        if (data == null) {
+            return;
+        }
+        if (data.containsKey("createUser")) {
+            String userId = nestedId(data.get("createUser"), "user");
+            if (userId != null) {
+                entityCache.invalidate(EntityKey.of("User", userId));
+            }
+        }
+        if (data.containsKey("fundLoan")) {
+            Map<String, Object> vars = variables != null ? variables : Map.of();
+            Object loanId = vars.get("loanId");
+            if (loanId == null) {
+                loanId = nestedId(data.get("fundLoan"), "loan");
+            }
+            Object lenderId = vars.get("lenderId");
+            if (loanId != null) {
+                entityCache.invalidate(EntityKey.of("Loan", loanId.toString()));
+            }
+            if (lenderId != null) {
+                entityCache.invalidate(EntityKey.of("User", lenderId.toString()));
+            } else {
+                entityCache.invalidateType("User");
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String nestedId(Object payload, String field) {
+        if (!(payload instanceof Map)) {
+            return null;
+        }
+        Object entity = ((Map<String, Object>) payload).get(field);
+        if (!(entity instanceof Map)) {
+            return null;
+        }
+        Object id = ((Map<String, Object>) entity).get("id");
+        return id != null ? id.toString() : null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.neobank.gateway.cache;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Clave de una entidad federada: (__typename, campos @key)
+ *
+ * Los campos @key se guardan ordenados para que {id: 1, version: 2}
+ * y {version: 2, id: 1} produzcan la misma clave.
+ */
+public final class EntityKey {
+
+    private final String typename;
+    private final Map<String, Object> keyFields;
+
+    public EntityKey(String typename, Map<String, Object> keyFields) {
+        this.typename = typename;
+        this.keyFields = new TreeMap<>(keyFields);
+    }
+
+    /**
+     * Construye la clave a partir de una representación de _entities,
+     * ignorando el propio __typename.
+     */
+    public static EntityKey fromRepresentation(Map<String, Object> representation) {
+        String typename = (String) representation.get("__typename");
+        Map<String, Object> keyFields = new TreeMap<>(representation);
+        keyFields.remove("__typename");
+        return new EntityKey(typename, keyFields);
+    }
+
+    public static EntityKey of(String typename, String id) {
+        return new EntityKey(typename, Map.of("id", id));
+    }
+
+    public String getTypename() {
+        return typename;
+    }
+
+    public Map<String, Object> getKeyFields() {
+        return keyFields;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EntityKey that = (EntityKey) o;
+        return Objects.equals(typename, that.typename) &&
+               Objects.equals(keyFields, that.keyFields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(typename, keyFields);
+    }
+
+    @Override
+    public String toString() {
+        return typename + keyFields;
+    }
+}
@@ -0,0 +1,182 @@
+package com.neobank.gateway.client;
+
+import com.neobank.gateway.cache.EntityCache;
+import com.neobank.gateway.cache.EntityCacheInvalidator;
+import com.neobank.gateway.cache.EntityKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cliente HTTP hacia los subgrafos (users-service, loans-service)
+ *
+ * Lo usa SubgraphProxyController, el destino de los fetches del router:
+ * fetchEntities() consulta primero el {@link EntityCache} y solo envía
+ * a _entities las representaciones que no están en cache, en un único batch.
+ * forward() reenvía cualquier otra operación y, si es una mutación,
+ * dispara la invalidación.
+ */
+@Component
+public class SubgraphClient {
+
+    private static final Logger log = LoggerFactory.getLogger(SubgraphClient.class);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final EntityCache entityCache;
+    private final EntityCacheInvalidator invalidator;
+
+    private final AtomicLong entitiesBatches = new AtomicLong();
+    private final AtomicLong entitiesRepresentations = new AtomicLong();
+
+    public SubgraphClient(WebClient.Builder webClientBuilder,
+                          EntityCache entityCache,
+                          EntityCacheInvalidator invalidator) {
+        this.webClient = webClientBuilder.build();
+        this.entityCache = entityCache;
+        this.invalidator = invalidator;
+    }
+
+    /**
+     * Resuelve entidades federadas respetando el orden de las representaciones.
+     *
+     * @param subgraphUrl     URL del subgrafo dueño del tipo
+     * @param typename        tipo de la entidad (User, Loan...)
+     * @param representations representaciones {__typename, campos @key}
+     * @param selection       selection set a pedir, p.ej. "id fullName reputation"
+     * @throws SubgraphException si el subgrafo responde con errors o sin _entities
+     */
+    @SuppressWarnings("unchecked")
+    public EntitiesFetch fetchEntities(String subgraphUrl, String typename,
+                                                   List<Map<String, Object>> representations,
+                                                   String selection) {
+        List<Map<String, Object>> result = new ArrayList<>(representations.size());
+        List<Map<String, Object>> missing = new ArrayList<>();
+        List<Integer> missingPositions = new ArrayList<>();
+
+        for (Map<String, Object> representation : representations) {
+            Map<String, Object> cached = entityCache.isCacheable(typename)
+                    ? entityCache.get(EntityKey.fromRepresentation(representation), selection)
+                    : null;
+            if (cached == null) {
+                missingPositions.add(result.size());
+                missing.add(representation);
+            }
+            result.add(cached);
+        }
+
+        if (missing.isEmpty()) {
+            log.debug("✅ ENTITY CACHE HIT - {} x{}", typename, representations.size());
+            return new EntitiesFetch(result, 0);
+        }
+
+        log.info("📦 _entities BATCH - {} x{} ({} cached)",
+                typename, missing.size(), representations.size() - missing.size());
+
+        entitiesBatches.incrementAndGet();
+        entitiesRepresentations.addAndGet(missing.size());
+
+        String query = "query($representations: [_Any!]!) { _entities(representations: $representations) "
+                + "{ ... on " + typename + " { " + selection + " } } }";
+        Map<String, Object> body = new HashMap<>();
+        body.put("query", query);
+        body.put("variables", Map.of("representations", missing));
+        Map<String, Object> response = post(subgraphUrl, body);
+        if (response == null || response.get("errors") != null) {
+            List<Object> errors = response != null ? (List<Object>) response.get("errors") : null;
+            throw new SubgraphException("_entities " + typename + " failed at " + subgraphUrl + ": " + errors, errors);
+        }
+        Map<String, Object> data = (Map<String, Object>) response.get("data");
+        List<Map<String, Object>> fetched = data != null
+                ? (List<Map<String, Object>>) data.get("_entities")
+                : null;
+        if (fetched == null || fetched.size() != missing.size()) {
+            throw new SubgraphException("_entities " + typename + " at " + subgraphUrl + " returned "
+                    + (fetched == null ? "no data" : fetched.size() + " of " + missing.size() + " entities"), null);
+        }
+
+        for (int i = 0; i < missing.size(); i++) {
+            Map<String, Object> entity = fetched.get(i);
+            result.set(missingPositions.get(i), entity);
+            entityCache.put(EntityKey.fromRepresentation(missing.get(i)), selection, entity);
+        }
+        return new EntitiesFetch(result, missing.size());
+    }
+
+    /**
+     * Resultado de fetchEntities: entidades en el orden pedido y cuántas
+     * representaciones llegaron realmente al subgrafo (0 = todo del cache)
+     */
+    public static final class EntitiesFetch {
+        private final List<Map<String, Object>> entities;
+        private final int sentRepresentations;
+
+        private EntitiesFetch(List<Map<String, Object>> entities, int sentRepresentations) {
+            this.entities = entities;
+            this.sentRepresentations = sentRepresentations;
+        }
+
+        public List<Map<String, Object>> getEntities() {
+            return entities;
+        }
+
+        public int getSentRepresentations() {
+            return sentRepresentations;
+        }
+    }
+
+    /**
+     * Número de llamadas _entities realmente enviadas a los subgrafos
+     */
+    public long getEntitiesBatches() {
+        return entitiesBatches.get();
+    }
+
+    /**
+     * Total de representaciones enviadas en esas llamadas (tamaño medio = representations / batches)
+     */
+    public long getEntitiesRepresentations() {
+        return entitiesRepresentations.get();
+    }
+
+    /**
+     * Reenvía una petición GraphQL tal cual y devuelve la respuesta completa
+     * (data + errors) para que el router la procese.
+     * Las mutaciones pasan por el hook de invalidación del cache.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> forward(String subgraphUrl, Map<String, Object> request) {
+        Map<String, Object> response = post(subgraphUrl, request);
+        Object query = request.get("query");
+        if (response != null && query instanceof String && ((String) query).trim().startsWith("mutation")) {
+            invalidator.onMutation((Map<String, Object>) response.get("data"),
+                    (Map<String, Object>) request.get("variables"));
+        }
+        return response;
+    }
+
+    private Map<String, Object> post(String url, Map<String, Object> body) {
+        Map<String, Object> response = webClient.post()
+                .uri(url)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(RESPONSE_TYPE)
+                .block(TIMEOUT);
+
+        if (response != null && response.get("errors") != null) {
+            log.warn("⚠️ SUBGRAPH ERRORS - {}: {}", url, response.get("errors"));
+        }
+        return response;
+    }
+}
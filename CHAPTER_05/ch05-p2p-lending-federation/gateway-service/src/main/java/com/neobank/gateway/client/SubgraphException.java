@@ -0,0 +1,25 @@
+package com.neobank.gateway.client;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Un subgrafo respondió con "errors" (o sin los datos esperados):
+ * la operación falla en lugar de cachear o devolver una respuesta parcial
+ */
+public class SubgraphException extends RuntimeException {
+
+    private final List<Object> errors;
+
+    public SubgraphException(String message, List<Object> errors) {
+        super(message);
+        this.errors = errors != null ? errors : List.of(Map.of("message", message));
+    }
+
+    /**
+     * Errores GraphQL tal como los devolvió el subgrafo
+     */
+    public List<Object> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,65 @@
+package com.neobank.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuración del cache de entidades del gateway
+ *
+ * gateway:
+ *   entity-cache:
+ *     max-entries: 10000
+ *     ttl:
+ *       User: 60s
+ *     owners:
+ *       User: users
+ *
+ * Un tipo sin TTL (o con TTL 0) no se cachea: por ejemplo Loan,
+ * cuyo estado cambia con cada fundLoan.
+ *
+ * owners indica el subgrafo dueño de cada tipo: solo sus _entities se
+ * cachean. Los de otros subgrafos que extienden el tipo (User.loansAsLender
+ * en loans) cambian con otras mutaciones y se reenvían sin cache.
+ */
+@ConfigurationProperties(prefix = "gateway.entity-cache")
+public class EntityCacheProperties {
+
+    private int maxEntries = 10_000;
+    private Map<String, Duration> ttl = new HashMap<>();
+    private Map<String, String> owners = new HashMap<>();
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Map<String, Duration> getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Map<String, Duration> ttl) {
+        this.ttl = ttl;
+    }
+
+    public Map<String, String> getOwners() {
+        return owners;
+    }
+
+    public void setOwners(Map<String, String> owners) {
+        this.owners = owners;
+    }
+
+    public String ownerOf(String typename) {
+        return owners.get(typename);
+    }
+
+    public Duration ttlFor(String typename) {
+        return ttl.getOrDefault(typename, Duration.ZERO);
+    }
+}
@@ -0,0 +1,41 @@
+package com.neobank.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * URLs de los subgrafos (sección "subgraphs" de application.yml)
+ */
+@ConfigurationProperties(prefix = "subgraphs")
+public class SubgraphProperties {
+
+    private Subgraph users = new Subgraph();
+    private Subgraph loans = new Subgraph();
+
+    public Subgraph getUsers() {
+        return users;
+    }
+
+    public void setUsers(Subgraph users) {
+        this.users = users;
+    }
+
+    public Subgraph getLoans() {
+        return loans;
+    }
+
+    public void setLoans(Subgraph loans) {
+        this.loans = loans;
+    }
+
+    public static class Subgraph {
+        private String url;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+    }
+}
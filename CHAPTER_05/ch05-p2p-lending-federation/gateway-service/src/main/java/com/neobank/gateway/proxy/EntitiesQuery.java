@@ -0,0 +1,96 @@
+package com.neobank.gateway.proxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fetch _entities del router reconocible por el cache
+ *
+ * El router envía los saltos de entidades con esta forma:
+ *
+ *   query Op__users__1($representations:[_Any!]!) {
+ *     _entities(representations:$representations) { ...on User { id fullName } }
+ *   }
+ *
+ * Solo se aceptan fetches de UN tipo, sin más variables que
+ * $representations (otra variable cambiaría la respuesta sin cambiar la
+ * clave del cache). Cualquier otra forma se reenvía sin cache.
+ */
+final class EntitiesQuery {
+
+    private static final Pattern ENTITIES = Pattern.compile(
+            "^\\s*query\\b[^{]*\\{\\s*_entities\\s*\\(\\s*representations\\s*:\\s*\\$representations\\s*\\)\\s*"
+            + "\\{\\s*\\.\\.\\.\\s*on\\s+(\\w+)\\s*\\{(.*)\\}\\s*\\}\\s*\\}\\s*$",
+            Pattern.DOTALL);
+
+    private final String typename;
+    private final String selection;
+    private final List<Map<String, Object>> representations;
+
+    private EntitiesQuery(String typename, String selection, List<Map<String, Object>> representations) {
+        this.typename = typename;
+        this.selection = selection;
+        this.representations = representations;
+    }
+
+    /**
+     * @param request cuerpo JSON recibido del router (query, variables, operationName)
+     * @return el fetch _entities, o null si no tiene la forma cacheable
+     */
+    @SuppressWarnings("unchecked")
+    static EntitiesQuery parse(Map<String, Object> request) {
+        if (!(request.get("query") instanceof String query) || !(request.get("variables") instanceof Map<?, ?> variables)) {
+            return null;
+        }
+        if (variables.size() != 1 || !(variables.get("representations") instanceof List<?> list)) {
+            return null;
+        }
+        Matcher matcher = ENTITIES.matcher(query);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String typename = matcher.group(1);
+        String selection = matcher.group(2).trim();
+        // "a } ...on Loan { b": el fetch mezcla tipos
+        if (!balanced(selection)) {
+            return null;
+        }
+
+        List<Map<String, Object>> representations = new ArrayList<>(list.size());
+        for (Object item : list) {
+            if (!(item instanceof Map) || !typename.equals(((Map<String, Object>) item).get("__typename"))) {
+                return null;
+            }
+            representations.add((Map<String, Object>) item);
+        }
+        return new EntitiesQuery(typename, selection, representations);
+    }
+
+    private static boolean balanced(String selection) {
+        int depth = 0;
+        for (int i = 0; i < selection.length(); i++) {
+            char c = selection.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth < 0) {
+                return false;
+            }
+        }
+        return depth == 0;
+    }
+
+    String getTypename() {
+        return typename;
+    }
+
+    String getSelection() {
+        return selection;
+    }
+
+    List<Map<String, Object>> getRepresentations() {
+        return representations;
+    }
+}
@@ -0,0 +1,73 @@
+package com.neobank.gateway.proxy;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Fetch del router atendido por el proxy
+ *
+ * Se publica como evento de Spring para medir desde fuera (perf-harness)
+ * cuántos saltos llegan realmente a cada subgrafo: un _entities servido
+ * entero desde el cache tiene upstreamCall = false.
+ */
+public class SubgraphFetchEvent extends ApplicationEvent {
+
+    private final String subgraph;
+    private final String requestId;
+    private final String kind;
+    private final int representations;
+    private final int sentRepresentations;
+    private final boolean upstreamCall;
+    private final long nanos;
+
+    public SubgraphFetchEvent(Object source, String subgraph, String requestId, String kind,
+                              int representations, int sentRepresentations, boolean upstreamCall, long nanos) {
+        super(source);
+        this.subgraph = subgraph;
+        this.requestId = requestId;
+        this.kind = kind;
+        this.representations = representations;
+        this.sentRepresentations = sentRepresentations;
+        this.upstreamCall = upstreamCall;
+        this.nanos = nanos;
+    }
+
+    public String getSubgraph() {
+        return subgraph;
+    }
+
+    /**
+     * Cabecera x-request-id que el router propagó (null si no vino)
+     */
+    public String getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * "_entities" o "root"
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Representaciones pedidas por el router (0 en fetches root)
+     */
+    public int getRepresentations() {
+        return representations;
+    }
+
+    /**
+     * Representaciones que llegaron al subgrafo (misses del cache)
+     */
+    public int getSentRepresentations() {
+        return sentRepresentations;
+    }
+
+    public boolean isUpstreamCall() {
+        return upstreamCall;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
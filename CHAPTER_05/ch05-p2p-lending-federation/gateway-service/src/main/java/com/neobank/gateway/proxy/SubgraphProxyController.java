@@ -0,0 +1,107 @@
+package com.neobank.gateway.proxy;
+
+import com.neobank.gateway.cache.EntityCache;
+import com.neobank.gateway.client.SubgraphClient;
+import com.neobank.gateway.client.SubgraphException;
+import com.neobank.gateway.config.EntityCacheProperties;
+import com.neobank.gateway.config.SubgraphProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Proxy de subgrafos: punto de entrada del Apollo Router hacia users y loans
+ *
+ *   cliente → router :4000 → gateway /subgraphs/{users|loans}/graphql → subgrafo
+ *
+ * router-config.yaml apunta override_subgraph_url aquí, así el cache de
+ * entidades está en el camino real de cada query federada:
+ * - _entities de un tipo cacheable, enviados a su subgrafo dueño →
+ *   SubgraphClient.fetchEntities (solo los misses llegan al subgrafo)
+ * - todo lo demás se reenvía tal cual; las mutaciones disparan
+ *   EntityCacheInvalidator
+ *
+ * Si el subgrafo responde _entities con errors, el fetch falla con esos
+ * errors (nada se cachea). Cada fetch atendido publica un
+ * {@link SubgraphFetchEvent}.
+ */
+@RestController
+public class SubgraphProxyController {
+
+    private final SubgraphProperties subgraphs;
+    private final SubgraphClient subgraphClient;
+    private final EntityCache entityCache;
+    private final EntityCacheProperties cacheProperties;
+    private final ApplicationEventPublisher events;
+
+    public SubgraphProxyController(SubgraphProperties subgraphs,
+                                   SubgraphClient subgraphClient,
+                                   EntityCache entityCache,
+                                   EntityCacheProperties cacheProperties,
+                                   ApplicationEventPublisher events) {
+        this.subgraphs = subgraphs;
+        this.subgraphClient = subgraphClient;
+        this.entityCache = entityCache;
+        this.cacheProperties = cacheProperties;
+        this.events = events;
+    }
+
+    /**
+     * @param requestId cabecera x-request-id propagada por el router (opcional)
+     */
+    @PostMapping("/subgraphs/{subgraph}/graphql")
+    public Map<String, Object> proxy(@PathVariable String subgraph,
+                                     @RequestHeader(value = "x-request-id", required = false) String requestId,
+                                     @RequestBody Map<String, Object> request) {
+        String url = urlOf(subgraph);
+        long start = System.nanoTime();
+
+        EntitiesQuery entities = EntitiesQuery.parse(request);
+        if (entities != null
+                && subgraph.equals(cacheProperties.ownerOf(entities.getTypename()))
+                && entityCache.isCacheable(entities.getTypename())) {
+            SubgraphClient.EntitiesFetch fetch;
+            try {
+                fetch = subgraphClient.fetchEntities(url, entities.getTypename(),
+                        entities.getRepresentations(), entities.getSelection());
+            } catch (SubgraphException e) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("data", null);
+                response.put("errors", e.getErrors());
+                return response;
+            }
+            events.publishEvent(new SubgraphFetchEvent(this, subgraph, requestId, "_entities",
+                    entities.getRepresentations().size(), fetch.getSentRepresentations(),
+                    fetch.getSentRepresentations() > 0, System.nanoTime() - start));
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("_entities", fetch.getEntities());
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", data);
+            return response;
+        }
+
+        Map<String, Object> response = subgraphClient.forward(url, request);
+        int representations = entities != null ? entities.getRepresentations().size() : 0;
+        boolean isEntities = String.valueOf(request.get("query")).contains("_entities");
+        events.publishEvent(new SubgraphFetchEvent(this, subgraph, requestId, isEntities ? "_entities" : "root",
+                representations, representations, true, System.nanoTime() - start));
+        return response;
+    }
+
+    private String urlOf(String subgraph) {
+        return switch (subgraph) {
+            case "users" -> subgraphs.getUsers().getUrl();
+            case "loans" -> subgraphs.getLoans().getUrl();
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown subgraph: " + subgraph);
+        };
+    }
+}
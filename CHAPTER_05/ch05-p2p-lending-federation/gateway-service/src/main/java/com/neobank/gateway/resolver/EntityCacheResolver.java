@@ -0,0 +1,46 @@
+package com.neobank.gateway.resolver;
+
+import com.neobank.gateway.cache.EntityCache;
+import com.neobank.gateway.cache.EntityKey;
+import com.neobank.gateway.client.SubgraphClient;
+import com.netflix.graphql.dgs.DgsComponent;
+import com.netflix.graphql.dgs.DgsMutation;
+import com.netflix.graphql.dgs.DgsQuery;
+import com.netflix.graphql.dgs.InputArgument;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@DgsComponent
+public class EntityCacheResolver {
+
+    private final EntityCache entityCache;
+    private final SubgraphClient subgraphClient;
+
+    public EntityCacheResolver(EntityCache entityCache, SubgraphClient subgraphClient) {
+        this.entityCache = entityCache;
+        this.subgraphClient = subgraphClient;
+    }
+
+    @DgsQuery
+    public Map<String, Object> entityCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entityCache.size());
+        stats.put("hits", entityCache.getHits());
+        stats.put("misses", entityCache.getMisses());
+        stats.put("invalidations", entityCache.getInvalidations());
+        stats.put("entitiesBatches", subgraphClient.getEntitiesBatches());
+        stats.put("entitiesRepresentations", subgraphClient.getEntitiesRepresentations());
+        return stats;
+    }
+
+    @DgsMutation
+    public Boolean invalidateEntityCache(@InputArgument String typename, @InputArgument String id) {
+        if (id == null) {
+            entityCache.invalidateType(typename);
+        } else {
+            entityCache.invalidate(EntityKey.of(typename, id));
+        }
+        return true;
+    }
+}
@@ -2,8 +2,10 @@ package com.neobank.loans;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling  // LoanMatchingIndex.gradePending() / refreshGrades()
 public class LoansServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(LoansServiceApplication.class, args);
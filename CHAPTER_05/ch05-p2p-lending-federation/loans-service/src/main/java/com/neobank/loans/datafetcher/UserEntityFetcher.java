@@ -0,0 +1,25 @@
+package com.neobank.loans.datafetcher;
+
+import com.netflix.graphql.dgs.DgsComponent;
+import com.netflix.graphql.dgs.DgsEntityFetcher;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * EntityFetcher para Apollo Federation
+ * Loans extiende User (loansAsLender, loansAsBorrower): el router le envía
+ * _entities(User) con solo el ID y aquí se devuelve la referencia que
+ * LoansResolver usa como source de esos campos
+ */
+@DgsComponent
+public class UserEntityFetcher {
+    
+    @DgsEntityFetcher(name = "User")
+    public Map<String, Object> resolveUser(Map<String, Object> values) {
+        Map<String, Object> userRef = new HashMap<>();
+        userRef.put("__typename", "User");
+        userRef.put("id", values.get("id"));
+        return userRef;
+    }
+}
@@ -0,0 +1,29 @@
+package com.neobank.loans.matching;
+
+/**
+ * Espejo de LenderProfile.RiskTolerance (users-service)
+ *
+ * maxGrade: peor grado aceptable para el prestamista
+ * penaltyFactor: cuánto pesa el riesgo frente a la tasa al puntuar
+ */
+public enum LenderRiskTolerance {
+    CONSERVATIVE(RiskGrade.B, 2.0),
+    MODERATE(RiskGrade.C, 1.0),
+    AGGRESSIVE(RiskGrade.E, 0.5);
+
+    private final RiskGrade maxGrade;
+    private final double penaltyFactor;
+
+    LenderRiskTolerance(RiskGrade maxGrade, double penaltyFactor) {
+        this.maxGrade = maxGrade;
+        this.penaltyFactor = penaltyFactor;
+    }
+
+    public boolean accepts(RiskGrade grade) {
+        return grade.ordinal() <= maxGrade.ordinal();
+    }
+
+    public double score(double interestRate, RiskGrade grade) {
+        return interestRate - grade.getRiskPenalty() * penaltyFactor;
+    }
+}
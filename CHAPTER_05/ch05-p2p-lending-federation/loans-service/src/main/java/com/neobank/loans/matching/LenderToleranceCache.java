@@ -0,0 +1,58 @@
+package com.neobank.loans.matching;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tolerancia al riesgo de los prestamistas, cacheada por matching.profile-ttl
+ *
+ * recommendedLoans solo llama a users-service la primera vez que ve a un
+ * prestamista (o cuando su entrada expiró); un cambio de LenderProfile se
+ * refleja como mucho un TTL después. Los prestamistas no encontrados no se
+ * cachean: pueden crear su LenderProfile en cualquier momento.
+ */
+@Component
+public class LenderToleranceCache {
+
+    private final UsersServiceClient usersServiceClient;
+    private final Duration ttl;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public LenderToleranceCache(UsersServiceClient usersServiceClient,
+                                @Value("${matching.profile-ttl:PT5M}") Duration ttl) {
+        this.usersServiceClient = usersServiceClient;
+        this.ttl = ttl;
+    }
+
+    /**
+     * @return tolerancia del prestamista, o null si no existe o no es prestamista
+     */
+    public LenderRiskTolerance get(String lenderId) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(lenderId);
+        if (entry != null && now - entry.fetchedAt < ttl.toNanos()) {
+            return entry.tolerance;
+        }
+        LenderRiskTolerance tolerance = usersServiceClient.riskToleranceOf(lenderId);
+        if (tolerance != null) {
+            entries.put(lenderId, new Entry(tolerance, now));
+        } else {
+            entries.remove(lenderId);
+        }
+        return tolerance;
+    }
+
+    private static final class Entry {
+        private final LenderRiskTolerance tolerance;
+        private final long fetchedAt;
+
+        private Entry(LenderRiskTolerance tolerance, long fetchedAt) {
+            this.tolerance = tolerance;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.neobank.loans.matching;
+
+import com.neobank.loans.model.Loan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice de candidatos para recomendar préstamos a prestamistas
+ *
+ * - Los préstamos PENDING se agrupan en buckets por {@link RiskGrade}
+ * - Dentro de cada bucket se ordenan por tasa de interés (desc), así que
+ *   el mejor candidato de cada bucket es siempre su cabeza
+ * - Como la penalización por riesgo es constante dentro de un bucket,
+ *   el top-K se obtiene con un merge de las cabezas de los buckets
+ *   aceptados: O(K log buckets), independiente del número de préstamos
+ *
+ * Ninguna consulta llama a users-service: los BorrowerProfile se piden en
+ * segundo plano, siempre en un solo batch
+ * - gradePending: los préstamos nuevos entran a una cola "sin grado" y se
+ *   ubican en su bucket en el siguiente tick (matching.grade-interval)
+ * - refreshGrades: cada matching.profile-ttl se vuelven a pedir los perfiles
+ *   de los prestatarios indexados y se reubican los préstamos cuyo grado cambió
+ *
+ * add, remove y las reubicaciones se serializan en el monitor del índice, así
+ * un préstamo financiado no puede volver a un bucket. recommend no toma el
+ * lock: recorre los ConcurrentSkipListSet y descarta lo que ya no es PENDING.
+ */
+@Component
+public class LoanMatchingIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LoanMatchingIndex.class);
+
+    private static final Comparator<Loan> BY_RATE_DESC =
+            Comparator.comparing(Loan::getInterestRate).reversed().thenComparing(Loan::getId);
+
+    private final UsersServiceClient usersServiceClient;
+
+    private final Map<RiskGrade, NavigableSet<Loan>> buckets = new EnumMap<>(RiskGrade.class);
+    private final Map<String, RiskGrade> loanGrades = new ConcurrentHashMap<>();
+    private final Map<String, RiskGrade> borrowerGrades = new ConcurrentHashMap<>();
+    private final Set<Loan> ungraded = ConcurrentHashMap.newKeySet();
+
+    public LoanMatchingIndex(UsersServiceClient usersServiceClient) {
+        this.usersServiceClient = usersServiceClient;
+        for (RiskGrade grade : RiskGrade.values()) {
+            buckets.put(grade, new ConcurrentSkipListSet<>(BY_RATE_DESC));
+        }
+    }
+
+    public synchronized void add(Loan loan) {
+        RiskGrade grade = borrowerGrades.get(loan.getBorrowerId());
+        if (grade != null) {
+            place(loan, grade);
+        } else {
+            ungraded.add(loan);
+        }
+    }
+
+    public synchronized void remove(Loan loan) {
+        ungraded.remove(loan);
+        RiskGrade grade = loanGrades.remove(loan.getId());
+        if (grade != null) {
+            buckets.get(grade).remove(loan);
+        }
+    }
+
+    /**
+     * Top-K préstamos para un prestamista con la tolerancia dada
+     */
+    public List<Recommendation> recommend(String lenderId, LenderRiskTolerance tolerance, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(
+                Comparator.comparingDouble((Head h) -> h.score).reversed());
+        for (RiskGrade grade : RiskGrade.values()) {
+            if (!tolerance.accepts(grade)) continue;
+            Head head = Head.next(buckets.get(grade).iterator(), grade, tolerance, lenderId);
+            if (head != null) heads.add(head);
+        }
+
+        List<Recommendation> result = new ArrayList<>(limit);
+        while (result.size() < limit && !heads.isEmpty()) {
+            Head best = heads.poll();
+            result.add(new Recommendation(best.loan, best.grade, best.score));
+            Head next = Head.next(best.iterator, best.grade, tolerance, lenderId);
+            if (next != null) heads.add(next);
+        }
+        return result;
+    }
+
+    private void place(Loan loan, RiskGrade grade) {
+        loanGrades.put(loan.getId(), grade);
+        buckets.get(grade).add(loan);
+    }
+
+    /**
+     * Ubica en un solo batch los préstamos que aún no tienen grado
+     */
+    @Scheduled(fixedDelayString = "${matching.grade-interval:PT1S}")
+    public void gradePending() {
+        if (ungraded.isEmpty()) {
+            return;
+        }
+        List<Loan> pending = new ArrayList<>(ungraded);
+        Set<String> unknownBorrowers = new HashSet<>();
+        for (Loan loan : pending) {
+            if (!borrowerGrades.containsKey(loan.getBorrowerId())) {
+                unknownBorrowers.add(loan.getBorrowerId());
+            }
+        }
+        if (!unknownBorrowers.isEmpty()) {
+            log.info("📦 Fetching risk profiles for {} borrowers", unknownBorrowers.size());
+            borrowerGrades.putAll(usersServiceClient.borrowerGrades(unknownBorrowers));
+        }
+        synchronized (this) {
+            for (Loan loan : pending) {
+                RiskGrade grade = borrowerGrades.get(loan.getBorrowerId());
+                // Si remove() ganó la carrera el préstamo ya no está en ungraded
+                if (grade != null && ungraded.remove(loan)) {
+                    place(loan, grade);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vuelve a pedir los perfiles de todos los prestatarios indexados
+     *
+     * Los prestatarios sin préstamos indexados salen de borrowerGrades: su
+     * próximo préstamo se gradúa con un perfil recién leído.
+     */
+    @Scheduled(fixedDelayString = "${matching.profile-ttl:PT5M}",
+               initialDelayString = "${matching.profile-ttl:PT5M}")
+    public void refreshGrades() {
+        List<Loan> indexed = new ArrayList<>();
+        buckets.values().forEach(indexed::addAll);
+        Set<String> borrowers = new HashSet<>();
+        indexed.forEach(loan -> borrowers.add(loan.getBorrowerId()));
+        if (borrowers.isEmpty()) {
+            borrowerGrades.clear();
+            return;
+        }
+
+        Map<String, RiskGrade> fresh = usersServiceClient.borrowerGrades(borrowers);
+        if (fresh.isEmpty()) {
+            // users-service caído: se conservan los grados actuales
+            return;
+        }
+        borrowerGrades.putAll(fresh);
+        borrowerGrades.keySet().retainAll(fresh.keySet());
+
+        int moved = 0;
+        synchronized (this) {
+            for (Loan loan : indexed) {
+                RiskGrade current = loanGrades.get(loan.getId());
+                RiskGrade grade = fresh.get(loan.getBorrowerId());
+                if (current == null || grade == null || current == grade) continue;
+                buckets.get(current).remove(loan);
+                place(loan, grade);
+                moved++;
+            }
+        }
+        log.info("🔄 Refreshed risk profiles for {} borrowers, {} loans regraded", fresh.size(), moved);
+    }
+
+    /**
+     * Cabeza de un bucket durante el merge
+     */
+    private static final class Head {
+        private final Loan loan;
+        private final RiskGrade grade;
+        private final double score;
+        private final Iterator<Loan> iterator;
+
+        private Head(Loan loan, RiskGrade grade, double score, Iterator<Loan> iterator) {
+            this.loan = loan;
+            this.grade = grade;
+            this.score = score;
+            this.iterator = iterator;
+        }
+
+        private static Head next(Iterator<Loan> iterator, RiskGrade grade,
+                                 LenderRiskTolerance tolerance, String lenderId) {
+            while (iterator.hasNext()) {
+                Loan loan = iterator.next();
+                // El iterador es débilmente consistente: puede devolver un préstamo recién financiado
+                if (loan.getStatus() != Loan.LoanStatus.PENDING) continue;
+                // Un usuario BOTH no debería financiar su propio préstamo
+                if (lenderId.equals(loan.getBorrowerId())) continue;
+                return new Head(loan, grade, tolerance.score(loan.getInterestRate(), grade), iterator);
+            }
+            return null;
+        }
+    }
+
+    public static final class Recommendation {
+        private final Loan loan;
+        private final RiskGrade riskGrade;
+        private final double score;
+
+        public Recommendation(Loan loan, RiskGrade riskGrade, double score) {
+            this.loan = loan;
+            this.riskGrade = riskGrade;
+            this.score = score;
+        }
+
+        public Loan getLoan() {
+            return loan;
+        }
+
+        public RiskGrade getRiskGrade() {
+            return riskGrade;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.neobank.loans.matching;
+
+/**
+ * Grado de riesgo de un préstamo, derivado del BorrowerProfile del prestatario
+ *
+ * creditScore: >=750 A, >=700 B, >=650 C, >=600 D, resto E
+ * defaultRate: cada 5 puntos de incumplimiento bajan un grado
+ *
+ * riskPenalty se descuenta de la tasa de interés al puntuar: un 9% en grado D
+ * no vale lo mismo que un 9% en grado A.
+ */
+public enum RiskGrade {
+    A(0.0),
+    B(0.5),
+    C(1.5),
+    D(3.0),
+    E(5.0);
+
+    private final double riskPenalty;
+
+    RiskGrade(double riskPenalty) {
+        this.riskPenalty = riskPenalty;
+    }
+
+    public double getRiskPenalty() {
+        return riskPenalty;
+    }
+
+    public static RiskGrade of(Integer creditScore, Double defaultRate) {
+        int grade;
+        int score = creditScore != null ? creditScore : 0;
+        if (score >= 750) grade = 0;
+        else if (score >= 700) grade = 1;
+        else if (score >= 650) grade = 2;
+        else if (score >= 600) grade = 3;
+        else grade = 4;
+
+        if (defaultRate != null) {
+            grade += (int) (defaultRate / 5.0);
+        }
+        return values()[Math.min(grade, values().length - 1)];
+    }
+}
@@ -0,0 +1,103 @@
+package com.neobank.loans.matching;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cliente GraphQL hacia users-service para leer perfiles de riesgo
+ *
+ * Los perfiles de prestatarios se piden en un único batch de _entities,
+ * igual que lo haría el router para resolver Loan.borrower.
+ */
+@Component
+public class UsersServiceClient {
+
+    private static final Logger log = LoggerFactory.getLogger(UsersServiceClient.class);
+
+    private static final String BORROWERS_QUERY =
+            "query($representations: [_Any!]!) { _entities(representations: $representations) "
+            + "{ ... on User { id borrowerProfile { creditScore defaultRate } } } }";
+
+    private static final String LENDER_QUERY =
+            "query($id: ID!) { user(id: $id) { lenderProfile { riskTolerance } } }";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final String usersServiceUrl;
+
+    public UsersServiceClient(@Value("${subgraphs.users.url}") String usersServiceUrl) {
+        this.usersServiceUrl = usersServiceUrl;
+    }
+
+    /**
+     * @return grado de riesgo por borrowerId; los que no se pudieron resolver no aparecen
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, RiskGrade> borrowerGrades(Collection<String> borrowerIds) {
+        List<Map<String, Object>> representations = new ArrayList<>(borrowerIds.size());
+        for (String id : borrowerIds) {
+            representations.add(Map.of("__typename", "User", "id", id));
+        }
+
+        Map<String, Object> data = post(BORROWERS_QUERY, Map.of("representations", representations));
+        Map<String, RiskGrade> grades = new HashMap<>();
+        if (data == null || data.get("_entities") == null) {
+            return grades;
+        }
+        for (Map<String, Object> user : (List<Map<String, Object>>) data.get("_entities")) {
+            if (user == null) continue;
+            Map<String, Object> profile = (Map<String, Object>) user.get("borrowerProfile");
+            Integer creditScore = profile != null ? toInteger(profile.get("creditScore")) : null;
+            Double defaultRate = profile != null ? toDouble(profile.get("defaultRate")) : null;
+            grades.put((String) user.get("id"), RiskGrade.of(creditScore, defaultRate));
+        }
+        return grades;
+    }
+
+    /**
+     * @return tolerancia del prestamista, o null si no existe o no es prestamista
+     */
+    @SuppressWarnings("unchecked")
+    public LenderRiskTolerance riskToleranceOf(String lenderId) {
+        Map<String, Object> data = post(LENDER_QUERY, Map.of("id", lenderId));
+        if (data == null || data.get("user") == null) {
+            return null;
+        }
+        Map<String, Object> profile = (Map<String, Object>) ((Map<String, Object>) data.get("user")).get("lenderProfile");
+        if (profile == null || profile.get("riskTolerance") == null) {
+            return null;
+        }
+        return LenderRiskTolerance.valueOf(profile.get("riskTolerance").toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> post(String query, Map<String, Object> variables) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("query", query);
+        body.put("variables", variables);
+        try {
+            Map<String, Object> response = restTemplate.postForObject(usersServiceUrl, body, Map.class);
+            return response != null ? (Map<String, Object>) response.get("data") : null;
+        } catch (RestClientException e) {
+            log.warn("⚠️ users-service unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Integer toInteger(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+
+    private static Double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.neobank.loans.model;
+
+/**
+ * Flujo de caja proyectado de un prestamista
+ * Las columnas están indexadas por mes (0 = próximo mes)
+ */
+public class PortfolioCashflow {
+    private final String lenderId;
+    private final Integer months;
+    private final Integer loanCount;
+    private final double[] principal;
+    private final double[] interest;
+    private final double[] total;
+    
+    public PortfolioCashflow(String lenderId, Integer months, Integer loanCount,
+                             double[] principal, double[] interest, double[] total) {
+        this.lenderId = lenderId;
+        this.months = months;
+        this.loanCount = loanCount;
+        this.principal = principal;
+        this.interest = interest;
+        this.total = total;
+    }
+    
+    public String getLenderId() {
+        return lenderId;
+    }
+    
+    public Integer getMonths() {
+        return months;
+    }
+    
+    public Integer getLoanCount() {
+        return loanCount;
+    }
+    
+    public double[] getPrincipal() {
+        return principal;
+    }
+    
+    public double[] getInterest() {
+        return interest;
+    }
+    
+    public double[] getTotal() {
+        return total;
+    }
+}
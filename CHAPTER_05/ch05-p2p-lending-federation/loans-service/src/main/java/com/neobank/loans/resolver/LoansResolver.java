@@ -1,6 +1,12 @@
 package com.neobank.loans.resolver;
 
+import com.neobank.loans.matching.LoanMatchingIndex;
 import com.neobank.loans.model.Loan;
+import com.neobank.loans.model.PortfolioCashflow;
+import com.neobank.loans.schedule.AmortizationSchedule;
+import com.neobank.loans.search.LoanFilter;
+import com.neobank.loans.search.LoanSearchIndex;
+import com.neobank.loans.search.LoanSortField;
 import com.neobank.loans.service.LoansService;
 import com.netflix.graphql.dgs.DgsComponent;
 import com.netflix.graphql.dgs.DgsData;
@@ -9,6 +15,7 @@ import com.netflix.graphql.dgs.DgsMutation;
 import com.netflix.graphql.dgs.InputArgument;
 import graphql.schema.DataFetchingEnvironment;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +49,62 @@ public class LoansResolver {
         return loansService.getAvailableLoans();
     }
     
+    @DgsQuery
+    public Map<String, Object> searchLoans(@InputArgument Map<String, Object> filter,
+                                           @InputArgument Map<String, Object> sort,
+                                           @InputArgument Integer first,
+                                           @InputArgument String after) {
+        LoanSortField sortField = LoanSortField.CREATED_AT;
+        boolean descending = true;
+        if (sort != null) {
+            if (sort.get("field") != null) {
+                sortField = LoanSortField.valueOf(sort.get("field").toString());
+            }
+            if (sort.get("direction") != null) {
+                descending = "DESC".equals(sort.get("direction").toString());
+            }
+        }
+        
+        LoanSearchIndex.Page page = loansService.searchLoans(
+            LoanFilter.fromInput(filter), sortField, descending, first, after);
+        
+        List<Map<String, Object>> edges = new ArrayList<>(page.getLoans().size());
+        for (Loan loan : page.getLoans()) {
+            Map<String, Object> edge = new HashMap<>();
+            edge.put("cursor", page.cursorOf(loan));
+            edge.put("node", loan);
+            edges.add(edge);
+        }
+        
+        Map<String, Object> pageInfo = new HashMap<>();
+        pageInfo.put("hasNextPage", page.hasNextPage());
+        pageInfo.put("endCursor", edges.isEmpty() ? null : edges.get(edges.size() - 1).get("cursor"));
+        
+        Map<String, Object> connection = new HashMap<>();
+        connection.put("edges", edges);
+        connection.put("pageInfo", pageInfo);
+        return connection;
+    }
+    
+    @DgsQuery
+    public List<LoanMatchingIndex.Recommendation> recommendedLoans(@InputArgument String lenderId,
+                                                                   @InputArgument Integer limit) {
+        return loansService.getRecommendedLoans(lenderId, limit != null ? limit : 10);
+    }
+    
+    @DgsQuery
+    public PortfolioCashflow portfolioCashflow(@InputArgument String lenderId, @InputArgument Integer months) {
+        return loansService.getPortfolioCashflow(lenderId, months);
+    }
+    
+    @DgsData(parentType = "Loan", field = "amortizationSchedule")
+    public AmortizationSchedule.Slice amortizationSchedule(DataFetchingEnvironment dfe,
+                                                          @InputArgument Integer fromPeriod,
+                                                          @InputArgument Integer toPeriod) {
+        Loan loan = dfe.getSource();
+        return loansService.getAmortizationSchedule(loan, fromPeriod, toPeriod);
+    }
+    
     @DgsData(parentType = "User", field = "loansAsLender")
     public List<Loan> loansAsLender(DataFetchingEnvironment dfe) {
         Map<String, Object> user = dfe.getSource();
@@ -0,0 +1,100 @@
+package com.neobank.loans.schedule;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor de amortización con memoización por (amount, interestRate, term)
+ *
+ * Math.pow se evalúa una sola vez por tupla; la tabla completa se calcula
+ * en un único recorrido y se reutiliza para monthlyPayment, totalRepayment,
+ * Loan.amortizationSchedule y portfolioCashflow.
+ */
+@Component
+public class AmortizationEngine {
+
+    private static final int MAX_CACHED_SCHEDULES = 50_000;
+
+    private final Map<ScheduleKey, AmortizationSchedule> schedules = new ConcurrentHashMap<>();
+
+    public AmortizationSchedule scheduleFor(double amount, double annualRate, int term) {
+        if (term <= 0) {
+            throw new IllegalArgumentException("Term must be positive");
+        }
+        ScheduleKey key = new ScheduleKey(amount, annualRate, term);
+        AmortizationSchedule schedule = schedules.get(key);
+        if (schedule != null) {
+            return schedule;
+        }
+        if (schedules.size() >= MAX_CACHED_SCHEDULES) {
+            schedules.clear();
+        }
+        return schedules.computeIfAbsent(key, k -> compute(amount, annualRate, term));
+    }
+
+    public double monthlyPayment(double amount, double annualRate, int term) {
+        return scheduleFor(amount, annualRate, term).getMonthlyPayment();
+    }
+
+    public double totalRepayment(double amount, double annualRate, int term) {
+        return scheduleFor(amount, annualRate, term).getTotalRepayment();
+    }
+
+    private AmortizationSchedule compute(double amount, double annualRate, int term) {
+        double monthlyRate = (annualRate / 100) / 12;
+        double payment;
+        if (monthlyRate == 0) {
+            payment = amount / term;
+        } else {
+            double factor = Math.pow(1 + monthlyRate, term);
+            payment = amount * (monthlyRate * factor) / (factor - 1);
+        }
+
+        double[] installment = new double[term];
+        double[] principal = new double[term];
+        double[] interest = new double[term];
+        double[] balance = new double[term];
+
+        double remaining = amount;
+        for (int i = 0; i < term; i++) {
+            double interestPart = remaining * monthlyRate;
+            double principalPart = payment - interestPart;
+            remaining -= principalPart;
+            installment[i] = payment;
+            principal[i] = principalPart;
+            interest[i] = interestPart;
+            balance[i] = Math.max(0, remaining);
+        }
+        return new AmortizationSchedule(payment, installment, principal, interest, balance);
+    }
+
+    private static final class ScheduleKey {
+        private final double amount;
+        private final double annualRate;
+        private final int term;
+
+        private ScheduleKey(double amount, double annualRate, int term) {
+            this.amount = amount;
+            this.annualRate = annualRate;
+            this.term = term;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ScheduleKey that = (ScheduleKey) o;
+            return Double.compare(amount, that.amount) == 0 &&
+                   Double.compare(annualRate, that.annualRate) == 0 &&
+                   term == that.term;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(amount, annualRate, term);
+        }
+    }
+}
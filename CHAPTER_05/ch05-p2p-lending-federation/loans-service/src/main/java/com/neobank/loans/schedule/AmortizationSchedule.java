@@ -0,0 +1,114 @@
+package com.neobank.loans.schedule;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de amortización (sistema francés) en formato columnar
+ *
+ * Cada columna es un double[] indexado por período - 1, así que
+ * servir un rango no crea un objeto por fila: solo copia el tramo
+ * pedido de cada columna.
+ */
+public final class AmortizationSchedule {
+
+    private final double monthlyPayment;
+    private final double[] installment;
+    private final double[] principal;
+    private final double[] interest;
+    private final double[] remainingBalance;
+
+    AmortizationSchedule(double monthlyPayment, double[] installment, double[] principal,
+                         double[] interest, double[] remainingBalance) {
+        this.monthlyPayment = monthlyPayment;
+        this.installment = installment;
+        this.principal = principal;
+        this.interest = interest;
+        this.remainingBalance = remainingBalance;
+    }
+
+    public int getTerm() {
+        return installment.length;
+    }
+
+    public double getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    public double getTotalRepayment() {
+        return monthlyPayment * installment.length;
+    }
+
+    public double installmentAt(int period) {
+        return installment[period - 1];
+    }
+
+    public double principalAt(int period) {
+        return principal[period - 1];
+    }
+
+    public double interestAt(int period) {
+        return interest[period - 1];
+    }
+
+    /**
+     * Tramo [fromPeriod, toPeriod] (1-based, inclusivo) acotado al plazo del préstamo
+     */
+    public Slice slice(int fromPeriod, int toPeriod) {
+        int from = Math.max(1, fromPeriod);
+        int to = Math.min(getTerm(), toPeriod);
+        if (to < from) {
+            return new Slice(from, from - 1, new double[0], new double[0], new double[0], new double[0]);
+        }
+        return new Slice(from, to,
+                Arrays.copyOfRange(installment, from - 1, to),
+                Arrays.copyOfRange(principal, from - 1, to),
+                Arrays.copyOfRange(interest, from - 1, to),
+                Arrays.copyOfRange(remainingBalance, from - 1, to));
+    }
+
+    /**
+     * Vista de un rango de períodos; se expone tal cual como AmortizationSchedule en GraphQL
+     */
+    public static final class Slice {
+        private final int fromPeriod;
+        private final int toPeriod;
+        private final double[] installments;
+        private final double[] principal;
+        private final double[] interest;
+        private final double[] remainingBalance;
+
+        Slice(int fromPeriod, int toPeriod, double[] installments, double[] principal,
+              double[] interest, double[] remainingBalance) {
+            this.fromPeriod = fromPeriod;
+            this.toPeriod = toPeriod;
+            this.installments = installments;
+            this.principal = principal;
+            this.interest = interest;
+            this.remainingBalance = remainingBalance;
+        }
+
+        public int getFromPeriod() {
+            return fromPeriod;
+        }
+
+        public int getToPeriod() {
+            return toPeriod;
+        }
+
+        public double[] getInstallments() {
+            return installments;
+        }
+
+        public double[] getPrincipal() {
+            return principal;
+        }
+
+        public double[] getInterest() {
+            return interest;
+        }
+
+        public double[] getRemainingBalance() {
+            return remainingBalance;
+        }
+    }
+}
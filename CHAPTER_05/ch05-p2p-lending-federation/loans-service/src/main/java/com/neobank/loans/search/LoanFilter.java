@@ -0,0 +1,77 @@
+package com.neobank.loans.search;
+
+import com.neobank.loans.model.Loan;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Filtro del marketplace (input LoanFilter del schema).
+ * Todos los criterios son opcionales y se combinan con AND.
+ */
+public class LoanFilter {
+    private Double minAmount;
+    private Double maxAmount;
+    private Double minInterestRate;
+    private Double maxInterestRate;
+    private Integer minTerm;
+    private Integer maxTerm;
+    private String purpose;
+
+    public static LoanFilter fromInput(Map<String, Object> input) {
+        LoanFilter filter = new LoanFilter();
+        if (input == null) {
+            return filter;
+        }
+        filter.minAmount = toDouble(input.get("minAmount"));
+        filter.maxAmount = toDouble(input.get("maxAmount"));
+        filter.minInterestRate = toDouble(input.get("minInterestRate"));
+        filter.maxInterestRate = toDouble(input.get("maxInterestRate"));
+        filter.minTerm = toInteger(input.get("minTerm"));
+        filter.maxTerm = toInteger(input.get("maxTerm"));
+        Object purpose = input.get("purpose");
+        filter.purpose = purpose != null ? purpose.toString().toLowerCase(Locale.ROOT) : null;
+        return filter;
+    }
+
+    public boolean matches(Loan loan) {
+        if (minAmount != null && loan.getAmount() < minAmount) return false;
+        if (maxAmount != null && loan.getAmount() > maxAmount) return false;
+        if (minInterestRate != null && loan.getInterestRate() < minInterestRate) return false;
+        if (maxInterestRate != null && loan.getInterestRate() > maxInterestRate) return false;
+        if (minTerm != null && loan.getTerm() < minTerm) return false;
+        if (maxTerm != null && loan.getTerm() > maxTerm) return false;
+        if (purpose != null && !loan.getPurpose().toLowerCase(Locale.ROOT).contains(purpose)) return false;
+        return true;
+    }
+
+    /**
+     * Límite inferior sobre el campo de orden, si el filtro lo define
+     */
+    Double lowerBound(LoanSortField field) {
+        switch (field) {
+            case INTEREST_RATE: return minInterestRate;
+            case AMOUNT: return minAmount;
+            default: return null;
+        }
+    }
+
+    /**
+     * Límite superior sobre el campo de orden, si el filtro lo define
+     */
+    Double upperBound(LoanSortField field) {
+        switch (field) {
+            case INTEREST_RATE: return maxInterestRate;
+            case AMOUNT: return maxAmount;
+            default: return null;
+        }
+    }
+
+    private static Double toDouble(Object value) {
+        return value != null ? Double.valueOf(value.toString()) : null;
+    }
+
+    private static Integer toInteger(Object value) {
+        return value != null ? Integer.valueOf(value.toString()) : null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.neobank.loans.search;
+
+import com.neobank.loans.model.Loan;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índices ordenados del marketplace (solo préstamos PENDING)
+ *
+ * Un ConcurrentSkipListSet por campo de orden (interestRate, amount, createdAt).
+ * Una búsqueda se posiciona en el índice con el cursor o con el límite del
+ * filtro sobre ese mismo campo, y recorre solo hasta llenar la página:
+ * el costo depende de "first", no del tamaño del marketplace.
+ *
+ * Los cursores son opacos: Base64 de "CAMPO|valor|id".
+ */
+@Component
+public class LoanSearchIndex {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /** Id mayor que cualquier id real; sirve para límites inclusivos en la sonda */
+    private static final String MAX_ID = "\uFFFF";
+    private static final String MIN_ID = "";
+
+    private final Map<LoanSortField, NavigableSet<Loan>> indexes = new EnumMap<>(LoanSortField.class);
+
+    public LoanSearchIndex() {
+        for (LoanSortField field : LoanSortField.values()) {
+            indexes.put(field, new ConcurrentSkipListSet<>(field.comparator()));
+        }
+    }
+
+    public void add(Loan loan) {
+        indexes.values().forEach(index -> index.add(loan));
+    }
+
+    public void remove(Loan loan) {
+        indexes.values().forEach(index -> index.remove(loan));
+    }
+
+    public Page search(LoanFilter filter, LoanSortField sortField, boolean descending,
+                       Integer first, String after) {
+        int pageSize = first == null ? DEFAULT_PAGE_SIZE : Math.max(0, Math.min(first, MAX_PAGE_SIZE));
+        NavigableSet<Loan> index = indexes.get(sortField);
+        Comparator<Loan> comparator = sortField.comparator();
+
+        Double lower = filter.lowerBound(sortField);
+        Double upper = filter.upperBound(sortField);
+        Loan lowerProbe = lower != null ? sortField.probe(lower.toString(), MIN_ID) : null;
+        Loan upperProbe = upper != null ? sortField.probe(upper.toString(), MAX_ID) : null;
+
+        // Punto de partida y de corte según la dirección
+        Loan start = descending ? upperProbe : lowerProbe;
+        Loan end = descending ? lowerProbe : upperProbe;
+        boolean startInclusive = true;
+
+        if (after != null) {
+            Loan cursorProbe = decodeCursor(sortField, after);
+            boolean cursorIsTighter = start == null || (descending
+                    ? comparator.compare(cursorProbe, start) <= 0
+                    : comparator.compare(cursorProbe, start) >= 0);
+            if (cursorIsTighter) {
+                start = cursorProbe;
+                startInclusive = false;
+            }
+        }
+
+        NavigableSet<Loan> view = descending ? index.descendingSet() : index;
+        if (start != null) {
+            view = view.tailSet(start, startInclusive);
+        }
+
+        List<Loan> loans = new ArrayList<>(pageSize);
+        boolean hasNextPage = false;
+        for (Loan loan : view) {
+            if (end != null) {
+                int cmp = comparator.compare(loan, end);
+                if (descending ? cmp < 0 : cmp > 0) break;
+            }
+            if (!filter.matches(loan)) continue;
+            if (loans.size() == pageSize) {
+                hasNextPage = true;
+                break;
+            }
+            loans.add(loan);
+        }
+        return new Page(sortField, loans, hasNextPage);
+    }
+
+    static String encodeCursor(LoanSortField field, Loan loan) {
+        String raw = field.name() + "|" + field.valueOf(loan) + "|" + loan.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Loan decodeCursor(LoanSortField field, String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !field.name().equals(parts[0])) {
+            throw new IllegalArgumentException("Cursor does not match sort field " + field);
+        }
+        return field.probe(parts[1], parts[2]);
+    }
+
+    /**
+     * Página de resultados; cursorOf() da el cursor opaco de cada préstamo
+     */
+    public static final class Page {
+        private final LoanSortField sortField;
+        private final List<Loan> loans;
+        private final boolean hasNextPage;
+
+        Page(LoanSortField sortField, List<Loan> loans, boolean hasNextPage) {
+            this.sortField = sortField;
+            this.loans = loans;
+            this.hasNextPage = hasNextPage;
+        }
+
+        public List<Loan> getLoans() {
+            return loans;
+        }
+
+        public boolean hasNextPage() {
+            return hasNextPage;
+        }
+
+        public String cursorOf(Loan loan) {
+            return encodeCursor(sortField, loan);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.neobank.loans.search;
+
+import com.neobank.loans.model.Loan;
+
+import java.util.Comparator;
+
+/**
+ * Campos por los que se puede ordenar el marketplace.
+ * Cada uno tiene su propio índice ordenado en {@link LoanSearchIndex};
+ * el id desempata para que el orden (y por lo tanto el cursor) sea estable.
+ */
+public enum LoanSortField {
+    INTEREST_RATE(Comparator.comparing(Loan::getInterestRate)),
+    AMOUNT(Comparator.comparing(Loan::getAmount)),
+    CREATED_AT(Comparator.comparing(Loan::getCreatedAt));
+
+    private final Comparator<Loan> comparator;
+
+    LoanSortField(Comparator<Loan> byField) {
+        this.comparator = byField.thenComparing(Loan::getId);
+    }
+
+    public Comparator<Loan> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Valor del campo como texto, para serializarlo en el cursor
+     */
+    String valueOf(Loan loan) {
+        switch (this) {
+            case INTEREST_RATE: return loan.getInterestRate().toString();
+            case AMOUNT: return loan.getAmount().toString();
+            default: return loan.getCreatedAt();
+        }
+    }
+
+    /**
+     * Loan "sonda" con solo el campo de orden y el id, para posicionarse en el índice
+     */
+    Loan probe(String value, String id) {
+        Loan.Builder builder = Loan.builder().id(id);
+        switch (this) {
+            case INTEREST_RATE: return builder.interestRate(Double.valueOf(value)).build();
+            case AMOUNT: return builder.amount(Double.valueOf(value)).build();
+            default: return builder.createdAt(value).build();
+        }
+    }
+}
@@ -1,19 +1,45 @@
 package com.neobank.loans.service;
 
 import com.neobank.loans.model.Loan;
+import com.neobank.loans.matching.LenderRiskTolerance;
+import com.neobank.loans.matching.LenderToleranceCache;
+import com.neobank.loans.matching.LoanMatchingIndex;
+import com.neobank.loans.model.PortfolioCashflow;
+import com.neobank.loans.schedule.AmortizationEngine;
+import com.neobank.loans.schedule.AmortizationSchedule;
+import com.neobank.loans.search.LoanFilter;
+import com.neobank.loans.search.LoanSearchIndex;
+import com.neobank.loans.search.LoanSortField;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class LoansService {
     
+    /** Horizonte máximo de portfolioCashflow: 30 años, el plazo más largo que tiene sentido proyectar */
+    public static final int MAX_CASHFLOW_MONTHS = 360;
+    
     private final Map<String, Loan> loans = new HashMap<>();
+    private final AmortizationEngine amortizationEngine;
+    private final LoanSearchIndex searchIndex;
+    private final LoanMatchingIndex matchingIndex;
+    private final LenderToleranceCache lenderTolerances;
     
-    public LoansService() {
+    public LoansService(AmortizationEngine amortizationEngine, LoanSearchIndex searchIndex,
+                        LoanMatchingIndex matchingIndex, LenderToleranceCache lenderTolerances) {
+        this.amortizationEngine = amortizationEngine;
+        this.searchIndex = searchIndex;
+        this.matchingIndex = matchingIndex;
+        this.lenderTolerances = lenderTolerances;
         initializeData();
+        getAvailableLoans().forEach(loan -> {
+            searchIndex.add(loan);
+            matchingIndex.add(loan);
+        });
     }
     
     private void initializeData() {
@@ -99,13 +125,58 @@ public class LoansService {
     }
     
     private Double calculateMonthlyPayment(Double amount, Double annualRate, Integer term) {
-        double monthlyRate = (annualRate / 100) / 12;
-        return amount * (monthlyRate * Math.pow(1 + monthlyRate, term)) / 
-               (Math.pow(1 + monthlyRate, term) - 1);
+        return amortizationEngine.monthlyPayment(amount, annualRate, term);
     }
     
     private Double calculateTotalRepayment(Double amount, Double annualRate, Integer term) {
-        return calculateMonthlyPayment(amount, annualRate, term) * term;
+        return amortizationEngine.totalRepayment(amount, annualRate, term);
+    }
+    
+    public AmortizationSchedule.Slice getAmortizationSchedule(Loan loan, Integer fromPeriod, Integer toPeriod) {
+        AmortizationSchedule schedule = amortizationEngine.scheduleFor(
+            loan.getAmount(), loan.getInterestRate(), loan.getTerm());
+        int from = fromPeriod != null ? fromPeriod : 1;
+        int to = toPeriod != null ? toPeriod : schedule.getTerm();
+        return schedule.slice(from, to);
+    }
+    
+    /**
+     * Flujo de caja proyectado de un prestamista para los próximos "months" meses.
+     * Suma, período a período, las cuotas pendientes de sus préstamos FUNDED/ACTIVE.
+     * "months" debe estar entre 1 y MAX_CASHFLOW_MONTHS: cada mes son tres arrays más.
+     */
+    public PortfolioCashflow getPortfolioCashflow(String lenderId, int months) {
+        if (months < 1 || months > MAX_CASHFLOW_MONTHS) {
+            throw new IllegalArgumentException("months must be between 1 and " + MAX_CASHFLOW_MONTHS);
+        }
+        double[] principal = new double[months];
+        double[] interest = new double[principal.length];
+        int loanCount = 0;
+        LocalDateTime now = LocalDateTime.now();
+        
+        for (Loan loan : loans.values()) {
+            if (!lenderId.equals(loan.getLenderId())) continue;
+            if (loan.getStatus() != Loan.LoanStatus.FUNDED && loan.getStatus() != Loan.LoanStatus.ACTIVE) continue;
+            
+            AmortizationSchedule schedule = amortizationEngine.scheduleFor(
+                loan.getAmount(), loan.getInterestRate(), loan.getTerm());
+            int paidPeriods = loan.getFundedAt() != null
+                ? (int) ChronoUnit.MONTHS.between(LocalDateTime.parse(loan.getFundedAt()), now)
+                : 0;
+            int remaining = Math.min(principal.length, schedule.getTerm() - paidPeriods);
+            for (int m = 0; m < remaining; m++) {
+                int period = paidPeriods + m + 1;
+                principal[m] += schedule.principalAt(period);
+                interest[m] += schedule.interestAt(period);
+            }
+            loanCount++;
+        }
+        
+        double[] total = new double[principal.length];
+        for (int m = 0; m < total.length; m++) {
+            total[m] = principal[m] + interest[m];
+        }
+        return new PortfolioCashflow(lenderId, principal.length, loanCount, principal, interest, total);
     }
     
     public Loan getLoanById(String id) {
@@ -126,6 +197,19 @@ public class LoansService {
         return getLoansByStatus(Loan.LoanStatus.PENDING);
     }
     
+    public LoanSearchIndex.Page searchLoans(LoanFilter filter, LoanSortField sortField, boolean descending,
+                                            Integer first, String after) {
+        return searchIndex.search(filter, sortField, descending, first, after);
+    }
+    
+    public List<LoanMatchingIndex.Recommendation> getRecommendedLoans(String lenderId, int limit) {
+        LenderRiskTolerance tolerance = lenderTolerances.get(lenderId);
+        if (tolerance == null) {
+            throw new IllegalArgumentException("Lender not found or has no lender profile");
+        }
+        return matchingIndex.recommend(lenderId, tolerance, limit);
+    }
+    
     public List<Loan> getLoansByLender(String lenderId) {
         return loans.values().stream()
             .filter(loan -> lenderId.equals(loan.getLenderId()))
@@ -155,6 +239,8 @@ public class LoansService {
             .build();
         
         loans.put(id, loan);
+        searchIndex.add(loan);
+        matchingIndex.add(loan);
         return loan;
     }
     
@@ -167,6 +253,8 @@ public class LoansService {
             throw new IllegalStateException("Loan is not pending");
         }
         
+        searchIndex.remove(loan);
+        matchingIndex.remove(loan);
         loan.setLenderId(lenderId);
         loan.setStatus(Loan.LoanStatus.FUNDED);
         loan.setFundedAt(LocalDateTime.now().toString());
@@ -0,0 +1,133 @@
+package com.neobank.harness;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Apollo Router local para el harness
+ *
+ * Planifica las queries federadas igual que en producción (supergraph-schema.graphql)
+ * y envía sus fetches al proxy del gateway en proceso (override_subgraph_url),
+ * propagando x-request-id para atribuir cada salto a su operación.
+ *
+ * Requiere el binario del router (misma versión que docker-compose):
+ *   curl -sSL https://router.apollo.dev/download/nix/v1.37.0 | sh
+ */
+public class ApolloRouterProcess implements AutoCloseable {
+
+    private static final long STARTUP_TIMEOUT_MILLIS = 30_000;
+
+    private final Process process;
+    private final String url;
+    private final Path logFile;
+
+    private ApolloRouterProcess(Process process, String url, Path logFile) {
+        this.process = process;
+        this.url = url;
+        this.logFile = logFile;
+    }
+
+    /**
+     * @param binary     ejecutable del router ("router" si está en el PATH)
+     * @param supergraph supergraph compuesto del capítulo
+     * @param gatewayUrl URL base del gateway, p.ej. http://localhost:53211
+     */
+    public static ApolloRouterProcess start(String binary, Path supergraph, String gatewayUrl)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        int healthPort = freePort();
+
+        Path config = Files.createTempFile("router-perf", ".yaml");
+        Files.writeString(config, String.join("\n",
+                "supergraph:",
+                "  listen: 127.0.0.1:" + port,
+                "health_check:",
+                "  listen: 127.0.0.1:" + healthPort,
+                "  enabled: true",
+                "override_subgraph_url:",
+                "  users: " + gatewayUrl + "/subgraphs/users/graphql",
+                "  loans: " + gatewayUrl + "/subgraphs/loans/graphql",
+                "headers:",
+                "  all:",
+                "    request:",
+                "      - propagate:",
+                "          named: x-request-id",
+                ""));
+
+        Path logFile = Files.createTempFile("router-perf", ".log");
+        ProcessBuilder builder = new ProcessBuilder(binary,
+                "--config", config.toString(),
+                "--supergraph", supergraph.toAbsolutePath().toString())
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile());
+        builder.environment().put("APOLLO_TELEMETRY_DISABLED", "true");
+
+        Process process;
+        try {
+            process = builder.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Apollo Router binary not found: " + binary
+                    + " (install with: curl -sSL https://router.apollo.dev/download/nix/v1.37.0 | sh)", e);
+        }
+
+        ApolloRouterProcess router = new ApolloRouterProcess(process, "http://127.0.0.1:" + port + "/", logFile);
+        router.awaitHealthy("http://127.0.0.1:" + healthPort + "/health");
+        return router;
+    }
+
+    /**
+     * Endpoint GraphQL del router
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    private void awaitHealthy(String healthUrl) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(healthUrl)).GET().build();
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Apollo Router exited with code " + process.exitValue()
+                        + ", see " + logFile);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // todavía arrancando
+            }
+            Thread.sleep(200);
+        }
+        close();
+        throw new IllegalStateException("Apollo Router not healthy after " + STARTUP_TIMEOUT_MILLIS
+                + " ms, see " + logFile);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.neobank.harness;
+
+import com.neobank.gateway.GatewayApplication;
+import com.neobank.gateway.cache.EntityCache;
+import com.neobank.gateway.client.SubgraphClient;
+import com.neobank.gateway.proxy.SubgraphFetchEvent;
+import com.neobank.loans.LoansServiceApplication;
+import com.neobank.users.UsersServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HARNESS DE RENDIMIENTO DE LA FEDERACIÓN
+ *
+ * 1. Levanta users-service, loans-service y gateway-service en este mismo
+ *    proceso, cada uno en un puerto aleatorio
+ * 2. Arranca un Apollo Router local ({@link ApolloRouterProcess}) cuyos
+ *    fetches van al proxy del gateway, como en docker-compose
+ * 3. Siembra miles de usuarios y préstamos vía mutations por el router
+ * 4. Reproduce una mezcla de queries federadas contra el router: el plan
+ *    (saltos y _entities) lo decide el router, no el harness
+ * 5. Reporta latencia por operación y por salto, llamadas reales a
+ *    subgrafos por operación (los _entities servidos por el cache no
+ *    cuentan), tamaño de los batches de _entities y throughput
+ *
+ * Los saltos se miden en el proxy del gateway ({@link SubgraphFetchEvent});
+ * cada operación envía un x-request-id que el router propaga a sus fetches.
+ *
+ * Uso:
+ *   mvn -q compile exec:java -Dexec.args="--users=2000 --loans=5000 --iterations=5000 --threads=8"
+ *   (opcionales: --router-bin=/ruta/router --supergraph=../supergraph-schema.graphql)
+ */
+public class FederationPerfHarness {
+
+    private static final List<String> SEED_LENDERS = List.of("user-001", "user-002", "user-005");
+
+    private final HopMetrics metrics = new HopMetrics();
+    private final GraphQLHttpClient http = new GraphQLHttpClient(metrics);
+
+    private String routerUrl;
+    private SubgraphClient gateway;
+    private EntityCache entityCache;
+
+    /** Saltos que llegaron a un subgrafo por operación en curso. Key: x-request-id */
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong requestSequence = new AtomicLong();
+
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> loanIds = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int users = Integer.parseInt(options.getOrDefault("users", "2000"));
+        int loans = Integer.parseInt(options.getOrDefault("loans", "5000"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "5000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        String routerBinary = options.getOrDefault("router-bin", "router");
+        Path supergraph = Path.of(options.getOrDefault("supergraph", "../supergraph-schema.graphql"));
+
+        FederationPerfHarness harness = new FederationPerfHarness();
+        List<ConfigurableApplicationContext> contexts = harness.boot();
+        try (ApolloRouterProcess router = ApolloRouterProcess.start(routerBinary, supergraph, harness.gatewayUrl(contexts))) {
+            harness.routerUrl = router.getUrl();
+            System.out.println("apollo-router → " + harness.routerUrl);
+            harness.seed(users, loans);
+            harness.replay(Math.max(1, iterations / 10), threads);
+            harness.metrics.reset();
+
+            long start = System.nanoTime();
+            harness.replay(iterations, threads);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            System.out.println();
+            System.out.println("================================================================================");
+            System.out.printf(Locale.ROOT, "FEDERATION PERF - users=%d loans=%d iterations=%d threads=%d%n",
+                    users, loans, iterations, threads);
+            System.out.println("================================================================================");
+            System.out.print(harness.metrics.report());
+            System.out.printf(Locale.ROOT, "%nThroughput: %.1f ops/s%n", iterations / seconds);
+            System.out.printf(Locale.ROOT, "Gateway entity cache: size=%d hits=%d misses=%d%n",
+                    harness.entityCache.size(), harness.entityCache.getHits(), harness.entityCache.getMisses());
+            long batches = harness.gateway.getEntitiesBatches();
+            System.out.printf(Locale.ROOT, "Cached-type _entities sent (misses): %d batches, avg %.1f representations%n",
+                    batches, batches == 0 ? 0.0 : (double) harness.gateway.getEntitiesRepresentations() / batches);
+        } finally {
+            contexts.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    // =========================================================================
+    // BOOT
+    // =========================================================================
+
+    private List<ConfigurableApplicationContext> boot() {
+        ConfigurableApplicationContext users = start(UsersServiceApplication.class, "users-service",
+                "schema/users-schema.graphqls");
+        String usersUrl = "http://localhost:" + portOf(users) + "/graphql";
+
+        ConfigurableApplicationContext loans = start(LoansServiceApplication.class, "loans-service",
+                "schema/loans-schema.graphqls",
+                "subgraphs.users.url=" + usersUrl);
+        String loansUrl = "http://localhost:" + portOf(loans) + "/graphql";
+
+        ConfigurableApplicationContext gatewayContext = start(GatewayApplication.class, "gateway-service",
+                "schema/gateway-schema.graphqls",
+                "subgraphs.users.url=" + usersUrl,
+                "subgraphs.loans.url=" + loansUrl,
+                "gateway.entity-cache.ttl[User]=60s",
+                "gateway.entity-cache.owners[User]=users");
+        gateway = gatewayContext.getBean(SubgraphClient.class);
+        entityCache = gatewayContext.getBean(EntityCache.class);
+        gatewayContext.addApplicationListener(event -> {
+            if (event instanceof SubgraphFetchEvent fetch) {
+                onSubgraphFetch(fetch);
+            }
+        });
+
+        System.out.println("users-service → " + usersUrl);
+        System.out.println("loans-service → " + loansUrl);
+        return List.of(gatewayContext, loans, users);
+    }
+
+    private String gatewayUrl(List<ConfigurableApplicationContext> contexts) {
+        return "http://localhost:" + portOf(contexts.get(0));
+    }
+
+    private static ConfigurableApplicationContext start(Class<?> application, String name,
+                                                        String schema, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.application.name=" + name,
+                "dgs.graphql.schema-locations=classpath:" + schema,
+                "dgs.graphql.graphiql.enabled=false",
+                "logging.level.root=WARN"));
+        properties.addAll(List.of(extraProperties));
+        return new SpringApplicationBuilder(application)
+                .properties(properties.toArray(new String[0]))
+                .run();
+    }
+
+    private static int portOf(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    // =========================================================================
+    // SEED
+    // =========================================================================
+
+    @SuppressWarnings("unchecked")
+    private void seed(int users, int loans) {
+        String[] types = {"LENDER", "BORROWER", "BOTH"};
+        userIds.addAll(List.of("user-001", "user-002", "user-003", "user-004", "user-005"));
+        for (int i = 0; i < users; i++) {
+            Map<String, Object> input = Map.of(
+                    "email", "perf" + i + "@neobank.com",
+                    "fullName", "Perf User " + i,
+                    "userType", types[i % types.length]);
+            Map<String, Object> data = http.execute("seed users", routerUrl,
+                    "mutation($input: CreateUserInput!) { createUser(input: $input) { user { id } } }",
+                    Map.of("input", input));
+            Map<String, Object> user = (Map<String, Object>) ((Map<String, Object>) data.get("createUser")).get("user");
+            userIds.add((String) user.get("id"));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < loans; i++) {
+            Map<String, Object> input = Map.of(
+                    "borrowerId", userIds.get(random.nextInt(userIds.size())),
+                    "amount", 1000 + random.nextInt(49) * 1000,
+                    "interestRate", 5 + random.nextInt(80) / 10.0,
+                    "term", 12 * (1 + random.nextInt(5)),
+                    "purpose", "Perf loan " + i);
+            Map<String, Object> data = http.execute("seed loans", routerUrl,
+                    "mutation($input: CreateLoanInput!) { createLoanRequest(input: $input) { loan { id } } }",
+                    Map.of("input", input));
+            Map<String, Object> loan = (Map<String, Object>) ((Map<String, Object>) data.get("createLoanRequest")).get("loan");
+            String loanId = (String) loan.get("id");
+            loanIds.add(loanId);
+
+            // ~30% se financian para que haya carteras que consultar
+            if (random.nextInt(10) < 3) {
+                http.execute("seed loans", routerUrl,
+                        "mutation($loanId: ID!, $lenderId: ID!) { fundLoan(loanId: $loanId, lenderId: $lenderId) { success } }",
+                        Map.of("loanId", loanId, "lenderId", SEED_LENDERS.get(random.nextInt(SEED_LENDERS.size()))));
+            }
+        }
+        System.out.printf("Seeded %d users and %d loans%n", userIds.size(), loanIds.size());
+    }
+
+    // =========================================================================
+    // REPLAY
+    // =========================================================================
+
+    private void replay(int iterations, int threads) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(iterations);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    runRandomOperation();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private void runRandomOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        String operation;
+        if (roll < 40) {
+            operation = "marketplacePage";
+        } else if (roll < 65) {
+            operation = "loanDetail";
+        } else if (roll < 85) {
+            operation = "lenderDashboard";
+        } else {
+            operation = "recommendations";
+        }
+
+        String requestId = operation + "-" + requestSequence.incrementAndGet();
+        AtomicInteger calls = new AtomicInteger();
+        inFlight.put(requestId, calls);
+        long start = System.nanoTime();
+        try {
+            switch (operation) {
+                case "marketplacePage" -> marketplacePage(requestId);
+                case "loanDetail" -> loanDetail(requestId);
+                case "lenderDashboard" -> lenderDashboard(requestId);
+                default -> recommendations(requestId);
+            }
+        } catch (RuntimeException e) {
+            metrics.recordLatency("error " + e.getClass().getSimpleName(), System.nanoTime() - start);
+            return;
+        } finally {
+            inFlight.remove(requestId);
+        }
+        metrics.recordLatency("op " + operation, System.nanoTime() - start);
+        metrics.recordCalls(operation, calls.get());
+    }
+
+    /**
+     * Salto atendido por el proxy del gateway (hilo del request del router).
+     * El router recibe todas las respuestas de subgrafos antes de contestar,
+     * así que el conteo está completo cuando la operación termina.
+     */
+    private void onSubgraphFetch(SubgraphFetchEvent fetch) {
+        String hop = "hop " + fetch.getSubgraph() + " " + fetch.getKind();
+        metrics.recordLatency(fetch.isUpstreamCall() ? hop : hop + " (cache)", fetch.getNanos());
+        if ("_entities".equals(fetch.getKind())) {
+            metrics.recordBatchSize(fetch.getSubgraph() + " _entities requested", fetch.getRepresentations());
+            if (fetch.isUpstreamCall()) {
+                metrics.recordBatchSize(fetch.getSubgraph() + " _entities sent", fetch.getSentRepresentations());
+            }
+        }
+        AtomicInteger calls = fetch.getRequestId() != null ? inFlight.get(fetch.getRequestId()) : null;
+        if (calls != null && fetch.isUpstreamCall()) {
+            calls.incrementAndGet();
+        }
+    }
+
+    /**
+     * searchLoans(first: 50) { borrower { fullName reputation } }
+     * plan del router: loans searchLoans → users _entities
+     */
+    private void marketplacePage(String requestId) {
+        http.execute("router", routerUrl,
+                "{ searchLoans(first: 50, sort: {field: INTEREST_RATE, direction: DESC}) "
+                + "{ edges { node { id amount interestRate "
+                + "borrower { id fullName reputation borrowerProfile { creditScore } } } } } }",
+                Map.of(), requestId);
+    }
+
+    /**
+     * loan(id) { lender { fullName } borrower { fullName } amortizationSchedule(1..12) }
+     * plan del router: loans loan → users _entities
+     */
+    private void loanDetail(String requestId) {
+        String loanId = loanIds.get(ThreadLocalRandom.current().nextInt(loanIds.size()));
+        http.execute("router", routerUrl,
+                "query($id: ID!) { loan(id: $id) { id amount "
+                + "lender { id fullName reputation } borrower { id fullName reputation } "
+                + "amortizationSchedule(fromPeriod: 1, toPeriod: 12) { installments } } }",
+                Map.of("id", loanId), requestId);
+    }
+
+    /**
+     * user(id) { lenderProfile { totalLent } loansAsLender { amount } } + portfolioCashflow
+     * plan del router: users user ‖ loans portfolioCashflow → loans _entities(User)
+     */
+    private void lenderDashboard(String requestId) {
+        String lenderId = SEED_LENDERS.get(ThreadLocalRandom.current().nextInt(SEED_LENDERS.size()));
+        http.execute("router", routerUrl,
+                "query($id: ID!) { "
+                + "user(id: $id) { id fullName lenderProfile { totalLent averageReturn } "
+                + "loansAsLender { id amount status } } "
+                + "portfolioCashflow(lenderId: $id, months: 12) { total } }",
+                Map.of("id", lenderId), requestId);
+    }
+
+    /**
+     * recommendedLoans(lenderId, limit: 20) { loan { borrower { fullName } } }
+     * plan del router: loans recommendedLoans → users _entities
+     */
+    private void recommendations(String requestId) {
+        String lenderId = SEED_LENDERS.get(ThreadLocalRandom.current().nextInt(SEED_LENDERS.size()));
+        http.execute("router", routerUrl,
+                "query($id: ID!) { recommendedLoans(lenderId: $id, limit: 20) "
+                + "{ score loan { id borrower { id fullName reputation } } } }",
+                Map.of("id", lenderId), requestId);
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
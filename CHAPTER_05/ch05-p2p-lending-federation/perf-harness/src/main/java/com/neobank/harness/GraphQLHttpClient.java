@@ -0,0 +1,71 @@
+package com.neobank.harness;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cliente GraphQL mínimo sobre java.net.http; cada llamada es un "salto"
+ * del plan federado y se mide en {@link HopMetrics}
+ */
+public class GraphQLHttpClient {
+
+    private static final TypeReference<Map<String, Object>> RESPONSE_TYPE = new TypeReference<>() {};
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HopMetrics metrics;
+
+    public GraphQLHttpClient(HopMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return bloque "data"; los errores GraphQL se propagan como IllegalStateException
+     */
+    public Map<String, Object> execute(String hop, String url, String query, Map<String, Object> variables) {
+        return execute(hop, url, query, variables, null);
+    }
+
+    /**
+     * @param requestId valor de x-request-id (el router lo propaga a cada fetch); null para omitirlo
+     * @return bloque "data"; los errores GraphQL se propagan como IllegalStateException
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> execute(String hop, String url, String query, Map<String, Object> variables,
+                                       String requestId) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("query", query);
+        body.put("variables", variables);
+
+        long start = System.nanoTime();
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (requestId != null) {
+                request.header("x-request-id", requestId);
+            }
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            Map<String, Object> json = objectMapper.readValue(response.body(), RESPONSE_TYPE);
+            if (json.get("errors") != null) {
+                throw new IllegalStateException(hop + " returned errors: " + json.get("errors"));
+            }
+            return (Map<String, Object>) json.get("data");
+        } catch (IOException e) {
+            throw new IllegalStateException(hop + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(hop + " interrupted", e);
+        } finally {
+            metrics.recordLatency("hop " + hop, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.neobank.harness;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Acumulador de latencias y tamaños de batch por nombre (operación o salto)
+ */
+public class HopMetrics {
+
+    private final Map<String, Series> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Series> batchSizes = new ConcurrentHashMap<>();
+    private final Map<String, Series> callsPerOperation = new ConcurrentHashMap<>();
+
+    public void recordLatency(String name, long nanos) {
+        latencies.computeIfAbsent(name, k -> new Series()).add(nanos);
+    }
+
+    public void recordBatchSize(String name, int size) {
+        batchSizes.computeIfAbsent(name, k -> new Series()).add(size);
+    }
+
+    public void recordCalls(String operation, int calls) {
+        callsPerOperation.computeIfAbsent(operation, k -> new Series()).add(calls);
+    }
+
+    public void reset() {
+        latencies.clear();
+        batchSizes.clear();
+        callsPerOperation.clear();
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-32s %8s %10s %10s %10s %10s%n",
+                "LATENCY (ms)", "count", "p50", "p95", "p99", "max"));
+        new TreeMap<>(latencies).forEach((name, series) -> {
+            long[] sorted = series.sorted();
+            sb.append(String.format(Locale.ROOT, "%-32s %8d %10.3f %10.3f %10.3f %10.3f%n",
+                    name, sorted.length,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1])));
+        });
+
+        sb.append(String.format(Locale.ROOT, "%n%-32s %8s %10s %10s%n", "SUBGRAPH HOPS / OP", "count", "avg", "max"));
+        new TreeMap<>(callsPerOperation).forEach((name, series) -> appendAvgMax(sb, name, series));
+
+        sb.append(String.format(Locale.ROOT, "%n%-32s %8s %10s %10s%n", "_entities BATCH SIZE", "count", "avg", "max"));
+        new TreeMap<>(batchSizes).forEach((name, series) -> appendAvgMax(sb, name, series));
+        return sb.toString();
+    }
+
+    private static void appendAvgMax(StringBuilder sb, String name, Series series) {
+        long[] sorted = series.sorted();
+        double avg = Arrays.stream(sorted).average().orElse(0);
+        sb.append(String.format(Locale.ROOT, "%-32s %8d %10.1f %10d%n",
+                name, sorted.length, avg, sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Serie de longs con append sincronizado; se ordena solo al reportar
+     */
+    private static final class Series {
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -41,8 +41,12 @@ fi
 echo -e "${GREEN}✅ Docker Compose is installed${NC}"
 
 # Check if ports are available
+if lsof -Pi :4000 -sTCP:LISTEN -t >/dev/null 2>&1 ; then
+    echo -e "${YELLOW}⚠️  Port 4000 is in use. Apollo Router may fail to start.${NC}"
+fi
+
 if lsof -Pi :8080 -sTCP:LISTEN -t >/dev/null 2>&1 ; then
-    echo -e "${YELLOW}⚠️  Port 8080 is in use. Apollo Router may fail to start.${NC}"
+    echo -e "${YELLOW}⚠️  Port 8080 is in use. Gateway Service may fail to start.${NC}"
 fi
 
 if lsof -Pi :8081 -sTCP:LISTEN -t >/dev/null 2>&1 ; then
@@ -98,8 +102,8 @@ done
 echo -e "${GREEN}✅ Loans Service is ready!${NC}"
 
 # Wait for apollo-router
-echo -e "${CYAN}Waiting for Apollo Router (8080)...${NC}"
-until curl -s http://localhost:8080/health > /dev/null 2>&1; do
+echo -e "${CYAN}Waiting for Apollo Router (4000)...${NC}"
+until curl -s http://localhost:8088/health > /dev/null 2>&1; do
     echo -n "."
     sleep 2
 done
@@ -118,7 +122,7 @@ echo ""
 
 QUERY='{"query":"{ user(id: \"user-001\") { id fullName email loansAsBorrower { id amount status } } }"}'
 
-RESPONSE=$(curl -s -X POST http://localhost:8080/graphql \
+RESPONSE=$(curl -s -X POST http://localhost:4000/ \
     -H "Content-Type: application/json" \
     -d "$QUERY")
 
@@ -144,12 +148,13 @@ echo ""
 echo -e "${GREEN}All services are up and running!${NC}"
 echo ""
 echo -e "${CYAN}Available endpoints:${NC}"
-echo -e "  ${YELLOW}Apollo Router (Unified):${NC}  http://localhost:8080/graphql"
+echo -e "  ${YELLOW}Apollo Router (Unified):${NC}  http://localhost:4000/"
+echo -e "  ${YELLOW}Gateway (entity cache):${NC}   http://localhost:8080/graphql"
 echo -e "  ${YELLOW}Users Service:${NC}            http://localhost:8081/graphql"
 echo -e "  ${YELLOW}Loans Service:${NC}            http://localhost:8082/graphql"
 echo ""
 echo -e "${CYAN}GraphQL Playground:${NC}"
-echo -e "  ${YELLOW}Apollo Router:${NC}            http://localhost:8080/"
+echo -e "  ${YELLOW}Apollo Router:${NC}            http://localhost:4000/"
 echo -e "  ${YELLOW}Users Service:${NC}            http://localhost:8081/graphiql"
 echo -e "  ${YELLOW}Loans Service:${NC}            http://localhost:8082/graphiql"
 echo ""